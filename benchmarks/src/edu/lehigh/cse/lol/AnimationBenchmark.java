@@ -0,0 +1,77 @@
+/**
+ * This is free and unencumbered software released into the public domain.
+ * <p>
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ * <p>
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ * <p>
+ * For more information, please refer to <http://unlicense.org>
+ */
+
+
+package edu.lehigh.cse.lol;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measure the per-frame cost of choosing the image to draw for animated actors
+ */
+@State(Scope.Thread)
+public class AnimationBenchmark {
+    /// The number of animated actors
+    @Param({"10", "100", "1000"})
+    public int actorCount;
+
+    /// One animation driver per actor
+    private Animation.Driver[] mDrivers;
+
+    /**
+     * Give each actor a looping four-frame animation
+     */
+    @Setup
+    public void setup() {
+        BenchGame game = new BenchGame();
+        Animation animation = game.mLevel.makeAnimation(100, true, "greenball.png",
+                "mustardball.png", "redball.png", "blueball.png");
+        mDrivers = new Animation.Driver[actorCount];
+        for (int i = 0; i < actorCount; ++i) {
+            mDrivers[i] = new Animation.Driver(game.mGame.mMedia, "greenball.png");
+            mDrivers[i].setCurrentAnimation(animation);
+        }
+    }
+
+    /**
+     * Advance every animation by one frame's worth of time
+     */
+    @Benchmark
+    public void getTr(Blackhole bh) {
+        for (Animation.Driver d : mDrivers) {
+            TextureRegion tr = d.getTr(1 / 45f);
+            bh.consume(tr);
+        }
+    }
+}
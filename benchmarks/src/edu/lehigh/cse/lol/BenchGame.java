@@ -0,0 +1,127 @@
+/**
+ * This is free and unencumbered software released into the public domain.
+ * <p>
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ * <p>
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ * <p>
+ * For more information, please refer to <http://unlicense.org>
+ */
+
+
+package edu.lehigh.cse.lol;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.backends.headless.mock.graphics.MockGraphics;
+import com.me.mylolgame.MyConfig;
+import com.me.mylolgame.headless.NullGL;
+
+/**
+ * BenchGame sets up just enough of a game for a benchmark to build a level and exercise the
+ * engine: a headless libGDX backend, the game's configuration and media, a LolManager with fresh
+ * scenes, and a Level for creating actors.  Nothing is drawn and no render loop runs.
+ */
+class BenchGame {
+    /// Track if the headless backend has been started
+    private static boolean sBackendStarted;
+
+    /// The game-wide configuration
+    final Config mConfig;
+    /// The game object
+    final Lol mGame;
+    /// The public API, for making actors
+    final Level mLevel;
+
+    /**
+     * Start the headless backend, so that Gdx.app, Gdx.files, etc. are available, and install the
+     * OpenGL stand-in.  This only needs to happen once per JVM.
+     */
+    private static synchronized void startBackend() {
+        if (sBackendStarted)
+            return;
+        sBackendStarted = true;
+        // a negative render interval means the backend never calls render()
+        HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+        config.renderInterval = -1;
+        new HeadlessApplication(new ApplicationAdapter() {
+        }, config);
+        Gdx.gl20 = NullGL.make();
+        Gdx.gl = Gdx.gl20;
+    }
+
+    /**
+     * Create a game with an empty level in it
+     */
+    BenchGame() {
+        startBackend();
+        mConfig = new MyConfig();
+        mConfig.mShowDebugBoxes = false;
+        // touches are converted to world coordinates using the screen size, so give the mock
+        // graphics object the game's dimensions
+        Gdx.graphics = new MockGraphics() {
+            @Override
+            public int getWidth() {
+                return mConfig.mWidth;
+            }
+
+            @Override
+            public int getHeight() {
+                return mConfig.mHeight;
+            }
+        };
+        mGame = new Lol(mConfig);
+        mGame.mMedia = new Media(mConfig);
+        mGame.mManager = new LolManager(mConfig, mGame.mMedia, mGame);
+        mLevel = new Level(mConfig, mGame.mMedia, mGame);
+    }
+
+    /**
+     * Get the main scene of the level
+     *
+     * @return The MainScene
+     */
+    MainScene world() {
+        return mGame.mManager.mWorld;
+    }
+
+    /**
+     * Throw away the main scene, and replace it with an empty one
+     */
+    void resetWorld() {
+        mGame.mManager.mWorld.mWorld.dispose();
+        mGame.mManager.mWorld = new MainScene(mConfig, mGame.mMedia);
+    }
+
+    /**
+     * Advance the physics world by one step, and run the one-time events (e.g., collision
+     * handlers) that the step produced, just like Lol.render does
+     */
+    void step() {
+        MainScene world = world();
+        world.mWorld.step(1 / 45f, 8, 3);
+        world.dispatchContacts();
+        for (LolAction pe : world.mOneTimeEvents)
+            pe.go();
+        world.mOneTimeEvents.clear();
+    }
+}
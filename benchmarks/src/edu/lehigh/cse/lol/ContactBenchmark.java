@@ -0,0 +1,103 @@
+/**
+ * This is free and unencumbered software released into the public domain.
+ * <p>
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ * <p>
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ * <p>
+ * For more information, please refer to <http://unlicense.org>
+ */
+
+
+package edu.lehigh.cse.lol;
+
+import com.badlogic.gdx.physics.box2d.Contact;
+import com.badlogic.gdx.physics.box2d.ContactImpulse;
+import com.badlogic.gdx.physics.box2d.ContactListener;
+import com.badlogic.gdx.physics.box2d.Manifold;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measure the cost of MainScene's contact listener (beginContact and preSolve), by stepping a world
+ * full of heroes bouncing on obstacles.  Compare dispatch=true against dispatch=false (the same
+ * world with an empty listener) to separate the listener's cost from Box2D's.
+ */
+@State(Scope.Thread)
+public class ContactBenchmark {
+    /// The number of heroes (each has its own obstacle to bounce on)
+    @Param({"10", "100", "1000"})
+    public int actorCount;
+
+    /// Should the MainScene listener be used, or an empty one?
+    @Param({"true", "false"})
+    public boolean dispatch;
+
+    /// The game
+    private BenchGame mGame;
+
+    /**
+     * Put each hero above a bouncy obstacle, and turn on gravity
+     */
+    @Setup
+    public void setup() {
+        mGame = new BenchGame();
+        mGame.mLevel.resetGravity(0, -10);
+        for (int i = 0; i < actorCount; ++i) {
+            float x = (i % 40) * 3;
+            float y = (i / 40) * 6;
+            Obstacle o = mGame.mLevel.makeObstacleAsBox(x, y, 2, 0.5f, "red.png");
+            o.setPhysics(1, 1, 0);
+            Hero h = mGame.mLevel.makeHeroAsCircle(x + 0.5f, y + 2, 1, 1, "greenball.png");
+            h.setPhysics(1, 1, 0);
+        }
+        if (!dispatch) {
+            mGame.world().mWorld.setContactListener(new ContactListener() {
+                @Override
+                public void beginContact(Contact contact) {
+                }
+
+                @Override
+                public void endContact(Contact contact) {
+                }
+
+                @Override
+                public void preSolve(Contact contact, Manifold oldManifold) {
+                }
+
+                @Override
+                public void postSolve(Contact contact, ContactImpulse impulse) {
+                }
+            });
+        }
+    }
+
+    /**
+     * Advance the world by one step, and run the resulting collision handlers
+     */
+    @Benchmark
+    public void step() {
+        mGame.step();
+    }
+}
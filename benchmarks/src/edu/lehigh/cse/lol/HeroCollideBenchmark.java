@@ -0,0 +1,96 @@
+/**
+ * This is free and unencumbered software released into the public domain.
+ * <p>
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ * <p>
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ * <p>
+ * For more information, please refer to <http://unlicense.org>
+ */
+
+
+package edu.lehigh.cse.lol;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measure the cost of finding and running the collision code for a hero and the actor it hit.  The
+ * other actors are a mix of types whose collisions don't change the level, so the benchmark can
+ * repeat forever.
+ */
+@State(Scope.Thread)
+public class HeroCollideBenchmark {
+    /// The number of actors the hero collides with, per invocation
+    @Param({"10", "100", "1000"})
+    public int actorCount;
+
+    /// The hero
+    private Hero mHero;
+    /// The actors that the hero collides with
+    private WorldActor[] mOthers;
+    /// The table of collision code
+    private CollisionTable mCollisions;
+
+    /**
+     * Make a hero, and a mix of obstacles, projectiles, full destinations, and other heroes
+     */
+    @Setup
+    public void setup() {
+        BenchGame game = new BenchGame();
+        mCollisions = game.world().mCollisions;
+        mHero = game.mLevel.makeHeroAsCircle(0, 0, 1, 1, "greenball.png");
+        game.mLevel.configureProjectiles(actorCount, 0.5f, 0.5f, "greyball.png", 1, 0, true);
+        mOthers = new WorldActor[actorCount];
+        for (int i = 0; i < actorCount; ++i) {
+            switch (i % 4) {
+                case 0:
+                    mOthers[i] = game.mLevel.makeObstacleAsBox(i, 5, 1, 1, "red.png");
+                    break;
+                case 1:
+                    mOthers[i] = game.world().mProjectilePool.mPool[i];
+                    break;
+                case 2:
+                    Destination d = game.mLevel.makeDestinationAsBox(i, 10, 1, 1, "mustardball.png");
+                    d.mCapacity = 0;
+                    mOthers[i] = d;
+                    break;
+                default:
+                    mOthers[i] = game.mLevel.makeHeroAsBox(i, 15, 1, 1, "greenball.png");
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Have the hero collide with every other actor
+     */
+    @Benchmark
+    public void onCollide() {
+        for (WorldActor other : mOthers) {
+            CollisionCallback handler = mCollisions.get(mHero.mCollisionType, other.mCollisionType);
+            if (handler != null)
+                handler.go(mHero, other, null);
+        }
+    }
+}
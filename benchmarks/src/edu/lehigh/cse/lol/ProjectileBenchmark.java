@@ -0,0 +1,81 @@
+/**
+ * This is free and unencumbered software released into the public domain.
+ * <p>
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ * <p>
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ * <p>
+ * For more information, please refer to <http://unlicense.org>
+ */
+
+
+package edu.lehigh.cse.lol;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measure the cost of throwing projectiles from a pool
+ */
+@State(Scope.Thread)
+public class ProjectileBenchmark {
+    /// The number of projectiles in the pool
+    @Param({"10", "100", "1000"})
+    public int actorCount;
+
+    /// The hero who throws projectiles
+    private Hero mHero;
+    /// The pool of projectiles
+    private ProjectilePool mPool;
+    /// The index of the projectile the pool will use next
+    private int mNext;
+    /// The index of the next target, so that successive throws go in different directions
+    private int mTarget;
+
+    /**
+     * Make a hero and a pool of projectiles
+     */
+    @Setup
+    public void setup() {
+        BenchGame game = new BenchGame();
+        mHero = game.mLevel.makeHeroAsCircle(20, 20, 1, 1, "greenball.png");
+        game.mLevel.configureProjectiles(actorCount, 0.5f, 0.5f, "greyball.png", 1, 0, true);
+        mPool = game.world().mProjectilePool;
+    }
+
+    /**
+     * Throw one projectile toward a point on a circle around the hero.  The pool recycles
+     * projectiles in order, so we retire the next one first, as if it had reached its range.
+     */
+    @Benchmark
+    public void throwAt() {
+        Projectile next = mPool.mPool[mNext];
+        mNext = (mNext + 1) % actorCount;
+        next.mEnabled = false;
+        next.mBody.setActive(false);
+        mTarget = (mTarget + 1) % 360;
+        float toX = 20 + 10 * (float) Math.cos(Math.toRadians(mTarget));
+        float toY = 20 + 10 * (float) Math.sin(Math.toRadians(mTarget));
+        mPool.throwAt(20, 20, toX, toY, mHero, 0, 0);
+    }
+}
@@ -0,0 +1,76 @@
+/**
+ * This is free and unencumbered software released into the public domain.
+ * <p>
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ * <p>
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ * <p>
+ * For more information, please refer to <http://unlicense.org>
+ */
+
+
+package edu.lehigh.cse.lol;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measure the per-frame cost of steering actors along their routes
+ */
+@State(Scope.Thread)
+public class RouteBenchmark {
+    /// The number of actors following routes
+    @Param({"10", "100", "1000"})
+    public int actorCount;
+
+    /// The actors following routes
+    private Enemy[] mActors;
+
+    /**
+     * Put each actor on its own looping, square route
+     */
+    @Setup
+    public void setup() {
+        BenchGame game = new BenchGame();
+        mActors = new Enemy[actorCount];
+        for (int i = 0; i < actorCount; ++i) {
+            float x = (i % 40) * 3;
+            float y = (i / 40) * 3;
+            mActors[i] = game.mLevel.makeEnemyAsBox(x, y, 1, 1, "redball.png");
+            Route r = new Route(5).to(x, y).to(x + 2, y).to(x + 2, y + 2).to(x, y + 2).to(x, y);
+            mActors[i].setRoute(r, 4, true);
+        }
+        // let the actors get partway along their routes
+        for (int i = 0; i < 20; ++i)
+            game.step();
+    }
+
+    /**
+     * Update the velocity of every actor, based on its position along its route
+     */
+    @Benchmark
+    public void drive() {
+        for (Enemy e : mActors)
+            e.mRoute.drive();
+    }
+}
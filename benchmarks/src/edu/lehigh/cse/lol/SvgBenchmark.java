@@ -0,0 +1,118 @@
+/**
+ * This is free and unencumbered software released into the public domain.
+ * <p>
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ * <p>
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ * <p>
+ * For more information, please refer to <http://unlicense.org>
+ */
+
+
+package edu.lehigh.cse.lol;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measure the cost of importing a large SVG line drawing.  Every invocation loads the drawing
+ * into a fresh, empty world, either by parsing it, or (when cache is true) from the geometry
+ * cache.
+ * <p>
+ * NB: the world is replaced in an Invocation-level setup, which JMH does not time
+ */
+@State(Scope.Thread)
+public class SvgBenchmark {
+    /// The number of paths in the drawing (each path has four line segments)
+    @Param({"10", "100", "1000"})
+    public int actorCount;
+
+    /// Should the drawing be loaded from the geometry cache?
+    @Param({"false", "true"})
+    public boolean cache;
+
+    /// The game
+    private BenchGame mGame;
+    /// The name of the generated drawing
+    private String mFileName;
+
+    /**
+     * Generate a drawing with actorCount zig-zag paths, and save it in the working directory
+     */
+    @Setup
+    public void setup() {
+        mGame = new BenchGame();
+        StringBuilder sb = new StringBuilder();
+        sb.append("<svg width=\"960\" height=\"640\">\n<g transform=\"translate(0,0)\">\n");
+        for (int i = 0; i < actorCount; ++i) {
+            sb.append("<path d=\"m ").append((i % 20) * 45).append(',').append((i / 20) * 12)
+                    .append(" l 10,0 10,5 10,-5 10,0\" />\n");
+        }
+        sb.append("</g>\n</svg>\n");
+        mFileName = "bench-" + actorCount + ".svg";
+        Gdx.files.local(mFileName).writeString(sb.toString(), false);
+        mGame.mConfig.mSvgCacheFolder = cache ? "bench-svgcache" : "";
+    }
+
+    /**
+     * Start each invocation with an empty world
+     */
+    @Setup(org.openjdk.jmh.annotations.Level.Invocation)
+    public void resetWorld() {
+        mGame.resetWorld();
+    }
+
+    /**
+     * Delete the generated drawing, and its cache
+     */
+    @TearDown
+    public void tearDown() {
+        FileHandle f = Gdx.files.local(mFileName);
+        f.delete();
+        Gdx.files.local("bench-svgcache").deleteDirectory();
+    }
+
+    /**
+     * Parse the drawing
+     */
+    @Benchmark
+    public void parse() {
+        mGame.mLevel.importLineDrawing(mFileName, 1, 1, 0, 0, new LolActorEvent() {
+            @Override
+            public void go(WorldActor actor) {
+            }
+        });
+    }
+
+    /**
+     * Parse the drawing into a single obstacle, with one chain per path
+     */
+    @Benchmark
+    public void parseAsChains() {
+        mGame.mLevel.importLineDrawingAsChains(mFileName, 1, 1, 0, 0, false, "", null);
+    }
+}
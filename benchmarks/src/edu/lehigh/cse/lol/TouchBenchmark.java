@@ -0,0 +1,78 @@
+/**
+ * This is free and unencumbered software released into the public domain.
+ * <p>
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ * <p>
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ * <p>
+ * For more information, please refer to <http://unlicense.org>
+ */
+
+
+package edu.lehigh.cse.lol;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measure the cost of finding the actor under a touch, in a world with many actors on screen
+ */
+@State(Scope.Thread)
+public class TouchBenchmark {
+    /// The number of actors in the world
+    @Param({"10", "100", "1000"})
+    public int actorCount;
+
+    /// The scene to touch
+    private MainScene mWorld;
+    /// The index of the next touch, so that successive touches land in different places
+    private int mTouch;
+
+    /**
+     * Fill the visible part of the world with obstacles
+     */
+    @Setup
+    public void setup() {
+        BenchGame game = new BenchGame();
+        float w = game.mConfig.mWidth / game.mConfig.mPixelMeterRatio;
+        float h = game.mConfig.mHeight / game.mConfig.mPixelMeterRatio;
+        for (int i = 0; i < actorCount; ++i) {
+            float x = (i * 7.31f) % w;
+            float y = (i * 3.17f) % h;
+            game.mLevel.makeObstacleAsBox(x, y, 1, 1, "red.png");
+        }
+        mWorld = game.world();
+        mWorld.mCamera.update();
+    }
+
+    /**
+     * Touch the screen, and find the touched actor (if any)
+     */
+    @Benchmark
+    public void getActorFromTouch(Blackhole bh) {
+        mTouch = (mTouch + 1) % 1000;
+        mWorld.getActorFromTouch((mTouch * 37) % 960, (mTouch * 53) % 640);
+        bh.consume(mWorld.mHitActor);
+    }
+}
@@ -28,11 +28,11 @@
 package com.me.mylolgame;
 
 import com.badlogic.gdx.math.Vector2;
-import com.badlogic.gdx.physics.box2d.Contact;
 
 import java.util.ArrayList;
 
 import edu.lehigh.cse.lol.CollisionCallback;
+import edu.lehigh.cse.lol.ContactEvent;
 import edu.lehigh.cse.lol.Destination;
 import edu.lehigh.cse.lol.Effect;
 import edu.lehigh.cse.lol.Enemy;
@@ -1686,7 +1686,7 @@ class Levels implements ScreenManager {
             // callback code.
             o.setProjectileCollisionCallback(new CollisionCallback() {
                 @Override
-                public void go(WorldActor thisActor, WorldActor collideActor, Contact contact) {
+                public void go(WorldActor thisActor, WorldActor collideActor, ContactEvent contact) {
                 }
             });
         }
@@ -2103,7 +2103,7 @@ class Levels implements ScreenManager {
             // run, with id == 14. Notice, too, that there will be a half second
             // delay before the code runs.
             o.setEnemyCollisionCallback(.5f, new CollisionCallback() {
-                public void go(WorldActor thisActor, WorldActor collideActor, Contact contact) {
+                public void go(WorldActor thisActor, WorldActor collideActor, ContactEvent contact) {
                     // This obstacle can only defeat the big enemy, and it
                     // disappears when it defeats the enemy
                     if (collideActor.getInfoText().equals("big")) {
@@ -2120,7 +2120,7 @@ class Levels implements ScreenManager {
             o2.setPhysics(1, 0, 0.6f);
             o2.setMoveByTilting();
             o2.setEnemyCollisionCallback(0, new CollisionCallback() {
-                public void go(WorldActor thisActor, WorldActor collideActor, Contact contact) {
+                public void go(WorldActor thisActor, WorldActor collideActor, ContactEvent contact) {
                     ((Enemy) collideActor).defeat(true);
                 }
             });
@@ -2458,7 +2458,7 @@ class Levels implements ScreenManager {
             // the callback id is 0, there is no delay, and no goodies are
             // needed before it works
             o.setHeroCollisionCallback(0, 0, 0, 0, 0, new CollisionCallback() {
-                public void go(WorldActor thisActor, WorldActor collideActor, Contact contact) {
+                public void go(WorldActor thisActor, WorldActor collideActor, ContactEvent contact) {
                     // getLoseScene rid of the obstacle we just collided with
                     thisActor.remove(false);
                     // make a goodie
@@ -2472,7 +2472,7 @@ class Levels implements ScreenManager {
                     // behaves differently based on the value of the callback's
                     // intVal field.
                     CollisionCallback sc2 = new CollisionCallback() {
-                        public void go(WorldActor thisActor, WorldActor collideActor, Contact contact) {
+                        public void go(WorldActor thisActor, WorldActor collideActor, ContactEvent contact) {
                             int crossings = level.getLevelFact("crossings", 0);
                             // The second callback works the same way
                             if (crossings == 0) {
@@ -2587,7 +2587,7 @@ class Levels implements ScreenManager {
             o.setPhysics(1000, 0, 0);
             o.setCanDrag(false);
             o.setEnemyCollisionCallback(0, new CollisionCallback() {
-                public void go(WorldActor thisActor, WorldActor collideActor, Contact contact) {
+                public void go(WorldActor thisActor, WorldActor collideActor, ContactEvent contact) {
                     if (collideActor.getInfoText().equals("weak")) {
                         ((Enemy) collideActor).defeat(true);
                     }
@@ -2661,7 +2661,7 @@ class Levels implements ScreenManager {
             Obstacle o = level.makeObstacleAsBox(30, 0, 3, 3, "legstar1.png");
             o.setPhysics(1, 0, 1);
             o.setHeroCollisionCallback(0, 0, 0, 0, 1, new CollisionCallback() {
-                public void go(WorldActor thisActor, WorldActor collideActor, Contact contact) {
+                public void go(WorldActor thisActor, WorldActor collideActor, ContactEvent contact) {
                     // here's a simple way to increment a goodie count
                     level.incrementGoodiesCollected2();
                     // here's a way to set a goodie count
@@ -2963,7 +2963,7 @@ class Levels implements ScreenManager {
             // time remaining. See onHeroCollideCallback()
             Obstacle o = level.makeObstacleAsBox(40, 0, 5, 200, "red.png");
             o.setHeroCollisionCallback(1, 1, 1, 0, 0, new CollisionCallback() {
-                public void go(WorldActor thisActor, WorldActor collideActor, Contact contact) {
+                public void go(WorldActor thisActor, WorldActor collideActor, ContactEvent contact) {
                     // add 15 seconds to the timer
                     level.updateTimerExpiration(15);
                     thisActor.remove(true);
@@ -3084,7 +3084,7 @@ class Levels implements ScreenManager {
             // Set a callback, then re-enableTilt the platform's collision effect.
             // Be sure to check onHeroCollideCallback
             platform.setHeroCollisionCallback(0, 0, 0, 0, 0, new CollisionCallback() {
-                public void go(WorldActor thisActor, WorldActor collideActor, Contact contact) {
+                public void go(WorldActor thisActor, WorldActor collideActor, ContactEvent contact) {
                     collideActor.setAbsoluteVelocity(collideActor.getXVelocity(), 5);
                 }
             });
@@ -3682,7 +3682,7 @@ class Levels implements ScreenManager {
                  * and a new obstacle on the screen.  We'll randomize their placement just a bit.
                  * Also move the obstacle forward, so we can hit it again.
                  */
-                public void go(WorldActor thisActor, WorldActor collideActor, Contact contact) {
+                public void go(WorldActor thisActor, WorldActor collideActor, ContactEvent contact) {
                     // make a random enemy and a random goodie.  Put them in X coordinates relative to the trigger
                     level.makeEnemyAsCircle(trigger.getXPosition() + 40 + level.getRandom(10), level.getRandom(30), 2, 2, "redball.png");
                     level.makeGoodieAsCircle(trigger.getXPosition() + 50 + level.getRandom(10), level.getRandom(30), 2, 2, "blueball.png");
@@ -0,0 +1,184 @@
+/**
+ * This is free and unencumbered software released into the public domain.
+ * <p>
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ * <p>
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ * <p>
+ * For more information, please refer to <http://unlicense.org>
+ */
+
+package edu.lehigh.cse.lol;
+
+import com.badlogic.gdx.physics.box2d.BodyDef;
+
+import java.util.ArrayList;
+
+/**
+ * ActorPool stores a set of actors of one type and shape, so that a level can keep making new
+ * enemies, goodies, or obstacles without making new Box2D bodies.  The pool makes its actors up
+ * front.  Each call to get() hands out an actor that is exactly like a newly made one, and when
+ * that actor is removed, it goes back into the pool instead of being destroyed.
+ * <p>
+ * Any behaviors (routes, callbacks, sticky sides, damage, etc.) that are given to an actor are
+ * forgotten when it returns to the pool, so they should be set again after each call to get().
+ *
+ * @param <T> The type of actor in the pool
+ */
+public abstract class ActorPool<T extends WorldActor> {
+    /// The scene in which this pool's actors exist
+    final MainScene mScene;
+    /// The actors that are not in use
+    private final ArrayList<T> mFree;
+    /// The width of each actor's body
+    final float mWidth;
+    /// The height of each actor's body
+    final float mHeight;
+    /// The image to show for each actor when it is handed out
+    final String mImgName;
+    /// Do the actors have circle bodies (true) or box bodies (false)?
+    private final boolean mIsCircle;
+    /// The number of actors that this pool has made
+    private int mSize;
+
+    /**
+     * Create an empty pool.  Use fill() to make its actors.
+     *
+     * @param scene    The scene in which the actors exist
+     * @param width    The width of each actor
+     * @param height   The height of each actor
+     * @param imgName  The image to show for each actor
+     * @param isCircle Should the actors have an underlying circle or box shape?
+     */
+    ActorPool(MainScene scene, float width, float height, String imgName, boolean isCircle) {
+        mScene = scene;
+        mFree = new ArrayList<>();
+        mWidth = width;
+        mHeight = height;
+        mImgName = imgName;
+        mIsCircle = isCircle;
+    }
+
+    /**
+     * Make one of the pool's actors, without giving it a body
+     *
+     * @return The new actor
+     */
+    abstract T makeActor();
+
+    /**
+     * Finish setting up an actor that is being handed out.  Types of actors that need more than
+     * the defaults from recycle() (e.g., goodies are sensors) do it here.
+     *
+     * @param actor The actor being handed out
+     */
+    void onGet(T actor) {
+    }
+
+    /**
+     * Add actors to the pool
+     *
+     * @param count The number of actors to add
+     */
+    void fill(int count) {
+        mFree.ensureCapacity(mFree.size() + count);
+        for (int i = 0; i < count; ++i) {
+            // don't put all of the bodies in the same place... they're inactive, but still
+            T actor = build(-100 - mSize * mWidth, -100 - mSize * mHeight);
+            actor.park();
+        }
+    }
+
+    /**
+     * Make an actor and give it a static body
+     *
+     * @param x The X coordinate of the bottom left corner of the body
+     * @param y The Y coordinate of the bottom left corner of the body
+     * @return The new actor
+     */
+    private T build(float x, float y) {
+        T actor = makeActor();
+        if (mIsCircle)
+            actor.setCirclePhysics(BodyDef.BodyType.StaticBody, x, y, Math.max(mWidth, mHeight) / 2);
+        else
+            actor.setBoxPhysics(BodyDef.BodyType.StaticBody, x, y);
+        actor.mActorPool = this;
+        mSize++;
+        return actor;
+    }
+
+    /**
+     * Take an actor from the pool and put it into the level.  If every actor is in use, a new one
+     * is made, so the pool should be made big enough for the most actors that will be in play at
+     * one time.
+     *
+     * @param x         The X coordinate of the bottom left corner
+     * @param y         The Y coordinate of the bottom left corner
+     * @param velocityX The X velocity of the actor
+     * @param velocityY The Y velocity of the actor
+     * @return The actor, so that it can be modified further
+     */
+    public T get(float x, float y, float velocityX, float velocityY) {
+        T actor = mFree.isEmpty() ? build(x, y) : mFree.remove(mFree.size() - 1);
+        // the actor may have been resized while it was in use
+        if (actor.mSize.x != mWidth || actor.mSize.y != mHeight)
+            actor.resize(x, y, mWidth, mHeight);
+        actor.recycle();
+        actor.mBody.setTransform(x + mWidth / 2, y + mHeight / 2, 0);
+        actor.mBody.setActive(true);
+        actor.saveTransform();
+        actor.setImage(mImgName);
+        actor.mEnabled = true;
+        mScene.addActor(actor, 0);
+        onGet(actor);
+        if (velocityX != 0 || velocityY != 0)
+            actor.updateVelocity(velocityX, velocityY);
+        return actor;
+    }
+
+    /**
+     * Report the number of actors that are waiting in the pool
+     *
+     * @return The number of actors that get() can hand out without making a new one
+     */
+    public int getAvailable() {
+        return mFree.size();
+    }
+
+    /**
+     * Report the number of actors that this pool has made
+     *
+     * @return The number of actors, including those that are in use
+     */
+    public int getSize() {
+        return mSize;
+    }
+
+    /**
+     * Put an actor back into the pool.  This is called by the actor, once it has been removed from
+     * the level.
+     *
+     * @param actor The actor, which must have been made by this pool
+     */
+    @SuppressWarnings("unchecked")
+    void release(BaseActor actor) {
+        mFree.add((T) actor);
+    }
+}
@@ -27,6 +27,7 @@
 
 package edu.lehigh.cse.lol;
 
+import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 
 import java.util.Random;
@@ -38,6 +39,11 @@ import java.util.Random;
  * There are two ways to make an animation. The more powerful uses to() to chain
  * together frame/duration pairs. The less powerful uses a constructor with more
  * parameters to define the entire animation in equal-duration pieces.
+ * <p>
+ * The frames don't have to be separate image files.  They can be the cells of a sprite sheet
+ * (a single image that is split into a grid of equal-sized cells), or a numbered sequence of
+ * regions in a texture atlas.  Either way, every frame comes from the same texture, so many
+ * animated actors that share a sheet can be drawn without switching textures.
  */
 public class Animation {
     /// A reference to the media object, so we can find images easily
@@ -90,6 +96,25 @@ public class Animation {
         }
     }
 
+    /**
+     * Create an animation from the cells of a sprite sheet, where all of the frames are displayed
+     * for the same amount of time
+     *
+     * @param media        The Media object, with references to all images that comprise the game
+     * @param timePerFrame The time in milliseconds that each frame should be shown
+     * @param repeat       Either true or false, depending on whether the animation should repeat
+     * @param cells        The frames of the animation, all of which are from one texture
+     */
+    Animation(Media media, int timePerFrame, boolean repeat, TextureRegion[] cells) {
+        mMedia = media;
+        mCells = cells.clone();
+        mDurations = new long[cells.length];
+        mLoop = repeat;
+        mNextCell = cells.length;
+        for (int i = 0; i < mNextCell; ++i)
+            mDurations[i] = timePerFrame;
+    }
+
     /**
      * Get the duration of the entire animation sequence
      * @return The duration, in milliseconds
@@ -115,6 +140,23 @@ public class Animation {
         return this;
     }
 
+    /**
+     * Add a step to an animation, using one cell of a sprite sheet
+     *
+     * @param sheetName The name of the sprite sheet image
+     * @param columns   The number of columns of cells in the sheet
+     * @param rows      The number of rows of cells in the sheet
+     * @param cell      The cell to show, counting from 0 across each row, starting at the top
+     * @param duration  The time in milliseconds that this cell should be shown
+     * @return the Animation, so that we can chain calls to "to()"
+     */
+    public Animation to(String sheetName, int columns, int rows, int cell, long duration) {
+        mCells[mNextCell] = mMedia.getSheetCell(sheetName, columns, rows, cell);
+        mDurations[mNextCell] = duration;
+        mNextCell++;
+        return this;
+    }
+
     /**
      * Driver is an internal class that actors can use to figure out which frame of an
      * animation to show next
@@ -177,6 +219,21 @@ public class Animation {
             mImageIndex = generator.nextInt(mImages.length);
         }
 
+        /**
+         * Find the texture that holds the image currently being displayed, without advancing the
+         * animation
+         *
+         * @return The texture, or null if there is no image
+         */
+        Texture getTexture() {
+            TextureRegion tr;
+            if (mCurrentAnimation == null)
+                tr = (mImages == null) ? null : mImages[mImageIndex];
+            else
+                tr = mCurrentAnimation.mCells[mActiveFrame];
+            return (tr == null) ? null : tr.getTexture();
+        }
+
         /**
          * When an actor renders, we use this method to figure out which image to display
          *
@@ -36,11 +36,19 @@ import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.physics.box2d.Body;
 import com.badlogic.gdx.physics.box2d.BodyDef;
 import com.badlogic.gdx.physics.box2d.CircleShape;
+import com.badlogic.gdx.physics.box2d.Filter;
 import com.badlogic.gdx.physics.box2d.Fixture;
 import com.badlogic.gdx.physics.box2d.FixtureDef;
+import com.badlogic.gdx.physics.box2d.Joint;
+import com.badlogic.gdx.physics.box2d.JointEdge;
 import com.badlogic.gdx.physics.box2d.PolygonShape;
+import com.badlogic.gdx.physics.box2d.Shape;
+import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Timer;
 
+import java.util.ArrayList;
+import java.util.Set;
+
 /**
  * BaseActor is the parent of all Actor types.
  * <p>
@@ -69,8 +77,6 @@ public class BaseActor extends Renderable {
     Animation mDefaultAnimation;
     /// Animation support: the cells of the animation to use when moving backwards
     private Animation mDefaultReverseAnimation;
-    /// The z index of this actor. Valid range is [-2, 2]
-    private int mZIndex;
 
     /// Does this WorldActor follow a route? If so, the Driver will be used to advance the
     /// actor along its route.
@@ -107,6 +113,40 @@ public class BaseActor extends Renderable {
     // Percentage of the way from top and right that we should clip
     private Vector2 mClippingWH;
 
+    /// The position of the body before the most recent physics step, for interpolated rendering
+    private final Vector2 mPrevPosition;
+    /// The angle of the body before the most recent physics step, for interpolated rendering
+    private float mPrevAngle;
+
+    /// The id of the z plane (see RenderLayers.Layer.mId) whose static cache is drawing this
+    /// actor, or -1 if the actor draws itself
+    int mCachePlane = -1;
+    /// True once the actor has been given any behavior that might make it move or change its
+    /// appearance on its own, so that it should never be put in a static cache
+    boolean mNeverCache;
+
+    /// True for actors that remove() only hides, because they will be shown again later (e.g.,
+    /// the projectiles in a ProjectilePool).  Other actors are destroyed soon after remove().
+    boolean mPooled;
+    /// True once the actor has been put in its scene's destroy queue
+    private boolean mDestroyPending;
+    /// The callbacks that this actor has put into its scene's lists (repeat events, touch
+    /// handlers, etc.), so that they can be taken out when the actor is destroyed
+    private ArrayList<Object> mCallbacks;
+    /// The list that holds each of the callbacks in mCallbacks
+    private ArrayList<ArrayList<?>> mCallbackLists;
+    /// The pool that this actor goes back to when it is removed, or null if the actor should be
+    /// destroyed instead
+    ActorPool<?> mActorPool;
+    /// Counts the times that this actor has been handed out by its ActorPool, so that timers set
+    /// up during an earlier use can tell that they no longer apply
+    private int mGeneration;
+    /// True while the actor's body is deactivated because the actor is far from the camera (see
+    /// MainScene.setActivationMargin)
+    boolean mDormant;
+    /// True if the actor should keep moving even when it is far from the camera
+    boolean mAlwaysActive;
+
     /**
      * Create a new BaseActor by creating an image that can be rendered to the screen
      *
@@ -122,10 +162,10 @@ public class BaseActor extends Renderable {
         mSize.x = width;
         mSize.y = height;
         mDisappearAnimateSize = new Vector2();
-        mZIndex = 0;
         mDisappearAnimateOffset = new Vector2();
         mInfoText = "";
         mTempVector = new Vector2();
+        mPrevPosition = new Vector2();
     }
 
     /**
@@ -149,9 +189,11 @@ public class BaseActor extends Renderable {
         mBody.createFixture(fd);
         shape.dispose();
         setPhysics(0, 0, 0);
+        updateFilter();
 
         // link the body to the actor
         mBody.setUserData(this);
+        saveTransform();
 
         // remember this is a box
         mIsCircleBody = false;
@@ -191,9 +233,11 @@ public class BaseActor extends Renderable {
         mBody.createFixture(fd);
         shape.dispose();
         setPhysics(0, 0, 0);
+        updateFilter();
 
         // link the body to the actor
         mBody.setUserData(this);
+        saveTransform();
 
         // remember this is a polygon
         mIsCircleBody = false;
@@ -223,9 +267,11 @@ public class BaseActor extends Renderable {
         mBody.createFixture(fd);
         shape.dispose();
         setPhysics(0, 0, 0);
+        updateFilter();
 
         // link the body to the actor
         mBody.setUserData(this);
+        saveTransform();
 
         // remember this is a box
         mIsCircleBody = true;
@@ -233,6 +279,44 @@ public class BaseActor extends Renderable {
         mIsPolygonBody = false;
     }
 
+    /**
+     * Remember the current position and angle of the body, so that rendering can interpolate from
+     * it.  This is called before each physics step, and also whenever the body's position or angle
+     * is set directly (e.g., teleports, drags, and rotations), so that the change isn't drawn as a
+     * smear across the screen.
+     */
+    void saveTransform() {
+        if (mBody == null)
+            return;
+        mPrevPosition.set(mBody.getPosition());
+        mPrevAngle = mBody.getAngle();
+    }
+
+    /**
+     * Get the X coordinate of the body's center, as it should be drawn for the current frame
+     *
+     * @return The X coordinate, interpolated between the last two physics steps
+     */
+    float getRenderX() {
+        // a destroyed actor stays where it was when it was destroyed
+        if (mBody == null)
+            return mPrevPosition.x;
+        float x = mBody.getPosition().x;
+        return (mScene.mStepAlpha < 1) ? mPrevPosition.x + (x - mPrevPosition.x) * mScene.mStepAlpha : x;
+    }
+
+    /**
+     * Get the Y coordinate of the body's center, as it should be drawn for the current frame
+     *
+     * @return The Y coordinate, interpolated between the last two physics steps
+     */
+    float getRenderY() {
+        if (mBody == null)
+            return mPrevPosition.y;
+        float y = mBody.getPosition().y;
+        return (mScene.mStepAlpha < 1) ? mPrevPosition.y + (y - mPrevPosition.y) * mScene.mStepAlpha : y;
+    }
+
     /**
      * Indicate whether this actor is fast-moving, so that the physics simulator can do a better job
      * dealing with tunneling effects.
@@ -253,6 +337,7 @@ public class BaseActor extends Renderable {
      * @param y The new y velocity
      */
     void updateVelocity(float x, float y) {
+        neverCache();
         // make sure it is not static... heroes are already Dynamic, let's just set everything else
         // that is static to kinematic... that's probably safest.
         if (mBody.getType() == BodyDef.BodyType.StaticBody)
@@ -261,6 +346,185 @@ public class BaseActor extends Renderable {
         mBody.setLinearVelocity(x, y);
     }
 
+    /**
+     * Check if this actor can be drawn from a static cache: it must be enabled, have a static
+     * body, and show a single image that is not clipped.
+     *
+     * @return True if the actor's image can be cached
+     */
+    boolean isCacheable() {
+        return mEnabled && !mNeverCache && mBody != null && mRoute == null && mClippingWH == null
+                && mDefaultReverseAnimation == null && mAnimator.mCurrentAnimation == null
+                && mAnimator.getTr(0) != null && mBody.getType() == BodyDef.BodyType.StaticBody;
+    }
+
+    /**
+     * Let the scene know that this actor changed in a way that affects how it is drawn, so that
+     * any static cache holding it can be rebuilt
+     */
+    void invalidateCache() {
+        mScene.invalidateCache(this);
+    }
+
+    /**
+     * Make sure this actor is never drawn from a static cache, because it has been given behavior
+     * that might make it move
+     */
+    void neverCache() {
+        if (mNeverCache)
+            return;
+        mNeverCache = true;
+        invalidateCache();
+    }
+
+    /**
+     * Enable or disable this actor.  When it is disabled, it effectively does not exist in the
+     * game.
+     *
+     * @param val The new state (true for enabled, false for disabled)
+     */
+    @Override
+    public void setEnabled(boolean val) {
+        super.setEnabled(val);
+        invalidateCache();
+    }
+
+    /**
+     * Put a callback into one of the scene's lists (e.g., mRepeatEvents), and remember it, so
+     * that it can be taken out of the list when this actor is destroyed
+     *
+     * @param list     The list
+     * @param callback The callback to add to the list
+     */
+    <T> void addCallback(ArrayList<T> list, T callback) {
+        list.add(callback);
+        // repeat events shouldn't run while this actor is dormant
+        if (callback instanceof LolAction)
+            ((LolAction) callback).mActor = this;
+        if (mCallbacks == null) {
+            mCallbacks = new ArrayList<>();
+            mCallbackLists = new ArrayList<>();
+        }
+        mCallbacks.add(callback);
+        mCallbackLists.add(list);
+    }
+
+    /**
+     * Free everything that this actor holds in its scene: its body and any joints attached to it,
+     * its place in the render list, and its callbacks.  The scene calls this after a physics step,
+     * since Box2D bodies can't be destroyed during a step.  Actors from an ActorPool keep their
+     * body, and go back to their pool.
+     * <p>
+     * Taking callbacks out of a list one at a time is slow, so instead we report them, and the
+     * scene takes all of the destroyed actors' callbacks out of each list in one pass.
+     *
+     * @param lists     Collects the lists that hold this actor's callbacks
+     * @param callbacks Collects this actor's callbacks
+     */
+    void destroy(Set<ArrayList<?>> lists, Set<Object> callbacks) {
+        if (mBody != null) {
+            // remember where the body was, in case the camera is following this actor
+            saveTransform();
+            // destroying the body destroys its joints, so the actors on both ends must forget them
+            Array<JointEdge> edges = mBody.getJointList();
+            for (int i = 0; i < edges.size; ++i) {
+                JointEdge edge = edges.get(i);
+                forgetJoint(edge.joint);
+                Object other = edge.other.getUserData();
+                if (other instanceof BaseActor)
+                    ((BaseActor) other).forgetJoint(edge.joint);
+            }
+            if (mActorPool == null) {
+                mScene.mWorld.destroyBody(mBody);
+                mBody = null;
+            } else {
+                // NB: destroying a joint takes it out of edges
+                while (edges.size > 0)
+                    mScene.mWorld.destroyJoint(edges.peek().joint);
+            }
+        }
+        mScene.removeActor(this);
+        if (mScene.mHitActor == this)
+            mScene.mHitActor = null;
+        if (mCallbacks != null) {
+            lists.addAll(mCallbackLists);
+            callbacks.addAll(mCallbacks);
+            if (mActorPool == null) {
+                mCallbacks = null;
+                mCallbackLists = null;
+            } else {
+                mCallbacks.clear();
+                mCallbackLists.clear();
+            }
+        }
+        if (mActorPool != null)
+            park();
+    }
+
+    /**
+     * Take this actor out of play and give it to its ActorPool, so that it can be handed out again.
+     * Until then, it stays in the world, but its body is inactive.
+     */
+    void park() {
+        mEnabled = false;
+        mBody.setActive(false);
+        // a parked actor counts as destroyed, so that remove() will ignore it
+        mDestroyPending = true;
+        mActorPool.release(this);
+    }
+
+    /**
+     * Put this actor back into the state it was in when it was made, so that its ActorPool can
+     * hand it out again.  Every behavior given to it during its last use is forgotten; its
+     * callbacks and joints are already gone, since they were freed when it was removed.
+     * <p>
+     * The body keeps its shape, but goes back to being a static, inactive body with the default
+     * physics settings.  The pool is responsible for placing it and enabling it.
+     */
+    void recycle() {
+        mGeneration++;
+        mDestroyPending = false;
+        mDormant = false;
+        mAlwaysActive = false;
+        mNeverCache = false;
+        mRoute = null;
+        mDefaultAnimation = null;
+        mDefaultReverseAnimation = null;
+        mAnimator.setCurrentAnimation(null);
+        mDisappearAnimation = null;
+        mDisappearAnimateSize.set(0, 0);
+        mDisappearAnimateOffset.set(0, 0);
+        mInfoText = "";
+        mInfoInt = 0;
+        mTapHandler = null;
+        mToggleHandler = null;
+        mDisappearSound = null;
+        mTouchSound = null;
+        mClippingBL = null;
+        mClippingWH = null;
+        mBody.setType(BodyDef.BodyType.StaticBody);
+        mBody.setLinearVelocity(0, 0);
+        mBody.setAngularVelocity(0);
+        mBody.setGravityScale(1);
+        mBody.setLinearDamping(0);
+        mBody.setAngularDamping(0);
+        mBody.setFixedRotation(false);
+        mBody.setBullet(false);
+        mBody.setAwake(true);
+        setPhysics(0, 0, 0);
+        setCollisionsEnabled(true);
+    }
+
+    /**
+     * Drop any reference to a joint that is about to be destroyed
+     * <p>
+     * NB: BaseActors don't have any joints, but classes that derive from BaseActor do
+     *
+     * @param joint The joint
+     */
+    void forgetJoint(Joint joint) {
+    }
+
     /**
      * Break any joints that involve this actor, so that it can move freely.
      * <p>
@@ -290,6 +554,11 @@ public class BaseActor extends Renderable {
      */
     @Override
     void onRender(SpriteBatch sb, float delta) {
+        // if the scene's static cache is drawing this actor, there's nothing to do, and if the
+        // actor is dormant, it can't be seen, and its route must wait until it wakes up
+        if (mCachePlane >= 0 || mDormant)
+            return;
+
         // possibly run a route update
         if (mRoute != null)
             mRoute.drive();
@@ -310,15 +579,31 @@ public class BaseActor extends Renderable {
             }
         }
 
-        // Draw the actor
-        Vector2 pos = mBody.getPosition();
-        if (tr != null) {
+        // Draw the actor, blending the previous and current physics states if the last frame ended
+        // partway between two steps
+        float x = getRenderX();
+        float y = getRenderY();
+        float angle = mBody.getAngle();
+        if (mScene.mStepAlpha < 1) {
+            // turn the shorter way, so that going from just below PI to just above -PI doesn't
+            // spin the actor all the way around
+            float turn = angle - mPrevAngle;
+            turn -= MathUtils.PI2 * MathUtils.ceil((turn - MathUtils.PI) / MathUtils.PI2);
+            angle = mPrevAngle + turn * mScene.mStepAlpha;
+        }
+        // Skip the draw if the camera can't see the actor.  When the actor is rotated, its image
+        // stays inside a circle whose diameter is the image's diagonal.
+        float halfW = mSize.x / 2;
+        float halfH = mSize.y / 2;
+        if (angle != 0)
+            halfW = halfH = (float) Math.sqrt(halfW * halfW + halfH * halfH);
+        if (tr != null && mScene.inView(x, y, halfW, halfH)) {
             // If we are using FlipAndClip, we need a more complex drawing routine
             if (mClippingWH != null)
                 sb.draw(tr.getTexture(),
                         // bottom left corner X, Y where we ought to draw
-                        pos.x - mSize.x / 2 + mClippingBL.x * mSize.x,
-                        pos.y - mSize.y / 2 + mClippingBL.y * mSize.y,
+                        x - mSize.x / 2 + mClippingBL.x * mSize.x,
+                        y - mSize.y / 2 + mClippingBL.y * mSize.y,
                         // offset the image by this much
                         0, 0,
                         // width and height of the image
@@ -327,18 +612,18 @@ public class BaseActor extends Renderable {
                         // scaling of the image
                         1, 1,
                         // rotation of the image
-                        MathUtils.radiansToDegrees * mBody.getAngle(),
+                        MathUtils.radiansToDegrees * angle,
                         // source x and y positions
-                        (int) (mClippingBL.x * tr.getTexture().getWidth()),
-                        (int) (mClippingBL.y * tr.getTexture().getHeight()),
+                        tr.getRegionX() + (int) (mClippingBL.x * tr.getRegionWidth()),
+                        tr.getRegionY() + (int) (mClippingBL.y * tr.getRegionHeight()),
                         // source width and height
                         (int) (tr.getRegionWidth() * (mClippingWH.x - mClippingBL.x)),
                         (int) (tr.getRegionHeight() * (mClippingWH.y - mClippingBL.y)),
                         // flip Y but not X
                         false, true);
             else
-                sb.draw(tr, pos.x - mSize.x / 2, pos.y - mSize.y / 2, mSize.x / 2, mSize.y / 2,
-                        mSize.x, mSize.y, 1, 1, MathUtils.radiansToDegrees * mBody.getAngle());
+                sb.draw(tr, x - mSize.x / 2, y - mSize.y / 2, mSize.x / 2, mSize.y / 2,
+                        mSize.x, mSize.y, 1, 1, MathUtils.radiansToDegrees * angle);
         }
     }
 
@@ -352,6 +637,15 @@ public class BaseActor extends Renderable {
         // The default is for all fixtures of a actor have the same sensor state
         for (Fixture f : mBody.getFixtureList())
             f.setSensor(!state);
+        updateFilter();
+    }
+
+    /**
+     * Set the collision filter of the body's fixtures, so that Box2D doesn't bother making
+     * contacts between actors that can't affect each other.  Only WorldActors use filters, so by
+     * default this does nothing.
+     */
+    void updateFilter() {
     }
 
     /**
@@ -370,6 +664,17 @@ public class BaseActor extends Renderable {
         mBody.resetMassData();
     }
 
+    /**
+     * Indicate that this actor should keep moving, and keep running its routes and other repeating
+     * behaviors, even when it is far from the camera.  This only matters in levels that use
+     * Level.setActivationMargin, which otherwise puts far-away actors to sleep.
+     *
+     * @param active True if the actor should never be put to sleep
+     */
+    public void setAlwaysActive(boolean active) {
+        mAlwaysActive = active;
+    }
+
     /**
      * Indicate that this actor should be immune to the force of gravity
      */
@@ -385,6 +690,7 @@ public class BaseActor extends Renderable {
      * using this in a side-scroller means the actor will fall to the ground.
      */
     public void setCanFall() {
+        neverCache();
         mBody.setType(BodyDef.BodyType.DynamicBody);
     }
 
@@ -393,6 +699,7 @@ public class BaseActor extends Renderable {
      * to forces in the same way as Dynamic bodies.
      */
     public void setKinematic() {
+        neverCache();
         if (mBody.getType() != BodyDef.BodyType.KinematicBody)
             mBody.setType(BodyDef.BodyType.KinematicBody);
     }
@@ -439,6 +746,9 @@ public class BaseActor extends Renderable {
      * @return x coordinate of bottom left corner, in meters
      */
     public float getXPosition() {
+        // a destroyed actor stays where it was when it was destroyed
+        if (mBody == null)
+            return mPrevPosition.x - mSize.x / 2;
         return mBody.getPosition().x - mSize.x / 2;
     }
 
@@ -448,6 +758,8 @@ public class BaseActor extends Renderable {
      * @return y coordinate of bottom left corner, in meters
      */
     public float getYPosition() {
+        if (mBody == null)
+            return mPrevPosition.y - mSize.y / 2;
         return mBody.getPosition().y - mSize.y / 2;
     }
 
@@ -459,6 +771,8 @@ public class BaseActor extends Renderable {
      */
     public void setPosition(float x, float y) {
         mBody.setTransform(x + mSize.x / 2, y + mSize.y / 2, mBody.getAngle());
+        saveTransform();
+        invalidateCache();
     }
 
     /**
@@ -481,6 +795,9 @@ public class BaseActor extends Renderable {
 
     /**
      * Change the size of an actor, and/or change its position
+     * <p>
+     * The body is kept, and only its fixture is replaced, so the body's velocity, physics settings,
+     * and joints are not affected.
      *
      * @param x      The new X coordinate of its bottom left corner, in meters
      * @param y      The new Y coordinate of its bototm left corner, in meters
@@ -488,20 +805,24 @@ public class BaseActor extends Renderable {
      * @param height The new height of the actor, in meters
      */
     public void resize(float x, float y, float width, float height) {
+        // polygon vertices are scaled by how much the size changes, so compute that first
+        float xScale = width / mSize.x;
+        float yScale = height / mSize.y;
         // set new height and width
         mSize.set(width, height);
-        // read old body information
-        Body oldBody = mBody;
-        Fixture oldFix = oldBody.getFixtureList().get(0);
-        // make a new body
+        // make a shape of the new size
+        Fixture oldFix = mBody.getFixtureList().get(0);
+        Shape shape;
         if (mIsCircleBody) {
-            setCirclePhysics(oldBody.getType(), x, y, (width > height) ? width / 2 : height / 2);
+            CircleShape circle = new CircleShape();
+            circle.setRadius((width > height) ? width / 2 : height / 2);
+            shape = circle;
         } else if (mIsBoxBody) {
-            setBoxPhysics(oldBody.getType(), x, y);
-        } else if (mIsPolygonBody) {
+            PolygonShape box = new PolygonShape();
+            box.setAsBox(width / 2, height / 2);
+            shape = box;
+        } else {
             // we need to manually scale all the vertices
-            float xScale = height / mSize.y;
-            float yScale = width / mSize.x;
             PolygonShape ps = (PolygonShape) oldFix.getShape();
             float[] verts = new float[ps.getVertexCount() * 2];
             for (int i = 0; i < ps.getVertexCount(); ++i) {
@@ -509,19 +830,28 @@ public class BaseActor extends Renderable {
                 verts[2 * i] = mTempVector.x * xScale;
                 verts[2 * i + 1] = mTempVector.y * yScale;
             }
-            setPolygonPhysics(oldBody.getType(), x, y, verts);
+            PolygonShape polygon = new PolygonShape();
+            polygon.set(verts);
+            shape = polygon;
         }
-        // Update the user-visible physics values
-        setPhysics(oldFix.getDensity(), oldFix.getRestitution(), oldFix.getFriction());
-        setFastMoving(oldBody.isBullet());
-        // clone forces
-        mBody.setAngularVelocity(oldBody.getAngularVelocity());
-        mBody.setTransform(mBody.getPosition(), oldBody.getAngle());
-        mBody.setGravityScale(oldBody.getGravityScale());
-        mBody.setLinearDamping(oldBody.getLinearDamping());
-        mBody.setLinearVelocity(oldBody.getLinearVelocity());
-        // disable the old body
-        oldBody.setActive(false);
+        // swap in a fixture with the new shape, but the old fixture's settings
+        FixtureDef fd = new FixtureDef();
+        fd.shape = shape;
+        fd.density = oldFix.getDensity();
+        fd.restitution = oldFix.getRestitution();
+        fd.friction = oldFix.getFriction();
+        fd.isSensor = oldFix.isSensor();
+        Filter filter = oldFix.getFilterData();
+        fd.filter.categoryBits = filter.categoryBits;
+        fd.filter.maskBits = filter.maskBits;
+        fd.filter.groupIndex = filter.groupIndex;
+        mBody.destroyFixture(oldFix);
+        mBody.createFixture(fd);
+        shape.dispose();
+        // move the body so that its bottom left corner is at (x, y)
+        mBody.setTransform(x + width / 2, y + height / 2, mBody.getAngle());
+        saveTransform();
+        invalidateCache();
     }
 
     /**
@@ -540,6 +870,8 @@ public class BaseActor extends Renderable {
      */
     public void setRotation(float rotation) {
         mBody.setTransform(mBody.getPosition(), rotation);
+        saveTransform();
+        invalidateCache();
     }
 
     /**
@@ -548,6 +880,7 @@ public class BaseActor extends Renderable {
      * @param duration Time it takes to complete one rotation
      */
     public void setRotationSpeed(float duration) {
+        neverCache();
         if (mBody.getType() == BodyDef.BodyType.StaticBody)
             mBody.setType(BodyDef.BodyType.KinematicBody);
         mBody.setAngularVelocity(duration);
@@ -561,14 +894,25 @@ public class BaseActor extends Renderable {
     }
 
     /**
-     * Make an actor disappear
+     * Make an actor disappear.  Once the current physics step is done, the actor is destroyed: its
+     * body and joints are freed, and any behaviors it registered with the level stop running.  The
+     * actor should not be used after it is removed, unless it came from an ActorPool, in which case
+     * it goes back to the pool so that it can be handed out again.
      *
      * @param quiet True if the disappear sound should not be played
      */
     public void remove(boolean quiet) {
+        // an actor that was already destroyed, or is waiting in its pool, has nothing to remove
+        if (mBody == null || (mActorPool != null && mDestroyPending))
+            return;
         // set it invisible immediately, so that future calls know to ignore this actor
         mEnabled = false;
         mBody.setActive(false);
+        invalidateCache();
+        if (!mPooled && !mDestroyPending) {
+            mDestroyPending = true;
+            mScene.scheduleDestroy(this);
+        }
 
         // play a sound when we remove this actor?
         if (mDisappearSound != null && !quiet)
@@ -580,6 +924,7 @@ public class BaseActor extends Renderable {
             float x = getXPosition() + mDisappearAnimateOffset.x;
             float y = getYPosition() + mDisappearAnimateOffset.y;
             BaseActor o = new BaseActor(mScene, "", mDisappearAnimateSize.x, mDisappearAnimateSize.y);
+            o.mNeverCache = true;
             o.setBoxPhysics(BodyDef.BodyType.StaticBody, x, y);
             mScene.addActor(o, 0);
             o.mBody.setActive(false);
@@ -593,6 +938,9 @@ public class BaseActor extends Renderable {
      * @return Velocity in X dimension, in meters per second
      */
     public float getXVelocity() {
+        // a destroyed actor isn't moving
+        if (mBody == null)
+            return 0;
         return mBody.getLinearVelocity().x;
     }
 
@@ -602,6 +950,8 @@ public class BaseActor extends Renderable {
      * @return Velocity in Y dimension, in meters per second
      */
     public float getYVelocity() {
+        if (mBody == null)
+            return 0;
         return mBody.getLinearVelocity().y;
     }
 
@@ -689,7 +1039,7 @@ public class BaseActor extends Renderable {
                 return true;
             }
         };
-        mScene.mRepeatEvents.add(whileDownAction);
+        addCallback(mScene.mRepeatEvents, whileDownAction);
     }
 
     /**
@@ -700,6 +1050,7 @@ public class BaseActor extends Renderable {
      * @param loop     When the route completes, should we start it over again?
      */
     public void setRoute(Route route, float velocity, boolean loop) {
+        neverCache();
         // This must be a KinematicBody or a Dynamic Body!
         if (mBody.getType() == BodyDef.BodyType.StaticBody)
             mBody.setType(BodyDef.BodyType.KinematicBody);
@@ -733,20 +1084,18 @@ public class BaseActor extends Renderable {
      */
     public void setImage(String imgName) {
         mAnimator.updateImage(mScene.mMedia, imgName);
+        invalidateCache();
     }
 
     /**
      * Set the z plane for this actor
      *
-     * @param zIndex The z plane. Values range from -2 to 2. The default is 0.
+     * @param zIndex The z plane. Any integer can be used; planes with lower values are drawn
+     *               first. The default is 0.
      */
     public void setZIndex(int zIndex) {
-        // Coerce index into legal range, then move it
-        zIndex = (zIndex < -2) ? -2 : zIndex;
-        zIndex = (zIndex > 2) ? 2 : zIndex;
-        mScene.removeActor(this, mZIndex);
-        mZIndex = zIndex;
-        mScene.addActor(this, mZIndex);
+        mScene.removeActor(this);
+        mScene.addActor(this, zIndex);
     }
 
     /**
@@ -757,6 +1106,7 @@ public class BaseActor extends Renderable {
     public void setDefaultAnimation(Animation animation) {
         mDefaultAnimation = animation;
         mAnimator.setCurrentAnimation(mDefaultAnimation);
+        invalidateCache();
     }
 
     /**
@@ -766,6 +1116,7 @@ public class BaseActor extends Renderable {
      */
     public void setDefaultReverseAnimation(Animation animation) {
         mDefaultReverseAnimation = animation;
+        invalidateCache();
     }
 
     /**
@@ -791,11 +1142,17 @@ public class BaseActor extends Renderable {
     public void setAppearDelay(float delay) {
         mEnabled = false;
         mBody.setActive(false);
+        invalidateCache();
+        final int generation = mGeneration;
         Timer.schedule(new Timer.Task() {
             @Override
             public void run() {
+                // don't bring back an actor that was removed while it was waiting to appear
+                if (mBody == null || mDestroyPending || generation != mGeneration)
+                    return;
                 mEnabled = true;
                 mBody.setActive(true);
+                invalidateCache();
             }
         }, delay);
     }
@@ -807,10 +1164,12 @@ public class BaseActor extends Renderable {
      * @param quiet Should the item should disappear quietly, or play its disappear sound?
      */
     public void setDisappearDelay(float delay, final boolean quiet) {
+        final int generation = mGeneration;
         Timer.schedule(new Timer.Task() {
             @Override
             public void run() {
-                remove(quiet);
+                if (generation == mGeneration)
+                    remove(quiet);
             }
         }, delay);
     }
@@ -825,39 +1184,42 @@ public class BaseActor extends Renderable {
      *                     its bottom left corner stay in the same position
      */
     public void setShrinkOverTime(final float shrinkX, final float shrinkY, final boolean keepCentered) {
-        // NB: we shrink 20 times per second
-        final Timer.Task t = new Timer.Task() {
+        neverCache();
+        // NB: we shrink once per physics step, so find out how much to shrink by each time
+        final float dx = shrinkX / mScene.mConfig.mStepsPerSecond;
+        final float dy = shrinkY / mScene.mConfig.mStepsPerSecond;
+        addCallback(mScene.mRepeatEvents, new LolAction() {
             @Override
-            public void run() {
-                if (mEnabled) {
-                    float x, y;
-                    if (keepCentered) {
-                        x = getXPosition() + shrinkX / 20 / 2;
-                        y = getYPosition() + shrinkY / 20 / 2;
-                    } else {
-                        x = getXPosition();
-                        y = getYPosition();
-                    }
-                    float w = mSize.x - shrinkX / 20;
-                    float h = mSize.y - shrinkY / 20;
-                    // if the area remains >0, resize it and schedule a timer to run again
-                    if ((w > 0.05f) && (h > 0.05f)) {
-                        resize(x, y, w, h);
-                        Timer.schedule(this, .05f);
-                    } else {
-                        remove(false);
-                    }
+            public void go() {
+                if (!mEnabled)
+                    return;
+                float x, y;
+                if (keepCentered) {
+                    x = getXPosition() + dx / 2;
+                    y = getYPosition() + dy / 2;
+                } else {
+                    x = getXPosition();
+                    y = getYPosition();
+                }
+                float w = mSize.x - dx;
+                float h = mSize.y - dy;
+                // if the area remains >0, resize it, otherwise remove the actor and stop shrinking
+                if ((w > 0.05f) && (h > 0.05f)) {
+                    resize(x, y, w, h);
+                } else {
+                    remove(false);
+                    mIsActive = false;
                 }
             }
-        };
-        Timer.schedule(t, .05f);
+        });
     }
 
     /**
      * Indicate that this actor's rotation should change in response to its direction of motion
      */
     public void setRotationByDirection() {
-        mScene.mRepeatEvents.add(new LolAction() {
+        neverCache();
+        addCallback(mScene.mRepeatEvents, new LolAction() {
             @Override
             public void go() {
                 if (mEnabled) {
@@ -865,6 +1227,7 @@ public class BaseActor extends Renderable {
                     float y = mBody.getLinearVelocity().y;
                     double angle = Math.atan2(y, x) + Math.atan2(-1, 0);
                     mBody.setTransform(mBody.getPosition(), (float) angle);
+                    saveTransform();
                 }
             }
         });
@@ -887,5 +1250,6 @@ public class BaseActor extends Renderable {
             mClippingBL.set(x, y);
             mClippingWH.set(w, h);
         }
+        invalidateCache();
     }
 }
@@ -0,0 +1,61 @@
+/**
+ * This is free and unencumbered software released into the public domain.
+ * <p>
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ * <p>
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ * <p>
+ * For more information, please refer to <http://unlicense.org>
+ */
+
+package edu.lehigh.cse.lol;
+
+/**
+ * BufferedTextProducer is a TextProducer for long text that only needs to change now and then,
+ * like a report.  Text displays check for it, and only rebuild their text when its version
+ * changes.  The text is then appended straight into the display's buffer, so no String is made.
+ */
+public abstract class BufferedTextProducer implements TextProducer {
+    /**
+     * Report which version of the text is current
+     *
+     * @return A number that changes whenever the text should be rebuilt
+     */
+    public abstract int getVersion();
+
+    /**
+     * Append the current text to a buffer
+     *
+     * @param sb The buffer to append to
+     */
+    public abstract void appendText(StringBuilder sb);
+
+    /**
+     * Create some text to display, by appending it to a new buffer
+     *
+     * @return The text that should be displayed
+     */
+    @Override
+    public String makeText() {
+        StringBuilder sb = new StringBuilder();
+        appendText(sb);
+        return sb.toString();
+    }
+}
@@ -27,8 +27,6 @@
 
 package edu.lehigh.cse.lol;
 
-import com.badlogic.gdx.physics.box2d.Contact;
-
 /**
  * A callback to run when a WorldActor collides with another WorldActor
  */
@@ -40,5 +38,5 @@ public interface CollisionCallback {
      * @param collideActor The actor who collided with <code>thisActor</code>
      * @param contact      A low-level description of the collision event
      */
-    void go(WorldActor thisActor, WorldActor collideActor, Contact contact);
+    void go(WorldActor thisActor, WorldActor collideActor, ContactEvent contact);
 }
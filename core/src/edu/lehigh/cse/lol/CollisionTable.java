@@ -0,0 +1,236 @@
+/**
+ * This is free and unencumbered software released into the public domain.
+ * <p>
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ * <p>
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ * <p>
+ * For more information, please refer to <http://unlicense.org>
+ */
+
+package edu.lehigh.cse.lol;
+
+/**
+ * CollisionTable decides what code runs when two actors collide.  Every WorldActor has a small
+ * integer collision type, and the table has a CollisionCallback for each pair of types.  When two
+ * actors collide, the handler for (type of A, type of B) runs with A as the first actor.  If
+ * there isn't one, the handler for (type of B, type of A) runs with B as the first actor.  If
+ * there isn't one of those either, the collision is ignored.
+ * <p>
+ * Games can add types, which start out with the same handlers as an existing type, and then
+ * change the handlers for any pair of types.
+ */
+class CollisionTable {
+    /// The handlers, indexed by the type of the first actor and then the type of the second
+    private CollisionCallback[][] mHandlers;
+    /// For each type, the built-in type it is based on
+    private int[] mBaseTypes;
+    /// The number of types
+    private int mNumTypes;
+    /// For each type, the Box2D mask to use when an actor of that type is a sensor (see
+    /// getSensorMask).  It is null when the handlers have changed since it was computed.
+    private short[] mSensorMasks;
+
+    /**
+     * Create a table with just the built-in types
+     */
+    CollisionTable() {
+        reset();
+    }
+
+    /**
+     * Throw away any types that were added, and put back the built-in handlers
+     */
+    void reset() {
+        mNumTypes = WorldActor.NUM_BUILTIN_TYPES;
+        mHandlers = new CollisionCallback[mNumTypes][mNumTypes];
+        mBaseTypes = new int[mNumTypes];
+        for (int i = 0; i < mNumTypes; ++i)
+            mBaseTypes[i] = i;
+        mSensorMasks = null;
+
+        // Heroes handle their collisions with everything except projectiles and other heroes
+        mHandlers[WorldActor.TYPE_HERO][WorldActor.TYPE_ENEMY] = new CollisionCallback() {
+            @Override
+            public void go(WorldActor thisActor, WorldActor collideActor, ContactEvent contact) {
+                ((Hero) thisActor).onCollideWithEnemy((Enemy) collideActor);
+            }
+        };
+        mHandlers[WorldActor.TYPE_HERO][WorldActor.TYPE_DESTINATION] = new CollisionCallback() {
+            @Override
+            public void go(WorldActor thisActor, WorldActor collideActor, ContactEvent contact) {
+                ((Hero) thisActor).onCollideWithDestination((Destination) collideActor);
+            }
+        };
+        mHandlers[WorldActor.TYPE_HERO][WorldActor.TYPE_OBSTACLE] = new CollisionCallback() {
+            @Override
+            public void go(WorldActor thisActor, WorldActor collideActor, ContactEvent contact) {
+                ((Hero) thisActor).onCollideWithObstacle((Obstacle) collideActor, contact);
+            }
+        };
+        mHandlers[WorldActor.TYPE_HERO][WorldActor.TYPE_GOODIE] = new CollisionCallback() {
+            @Override
+            public void go(WorldActor thisActor, WorldActor collideActor, ContactEvent contact) {
+                ((Hero) thisActor).onCollideWithGoodie((Goodie) collideActor);
+            }
+        };
+
+        // Enemies handle obstacles and projectiles
+        mHandlers[WorldActor.TYPE_ENEMY][WorldActor.TYPE_OBSTACLE] = new CollisionCallback() {
+            @Override
+            public void go(WorldActor thisActor, WorldActor collideActor, ContactEvent contact) {
+                ((Enemy) thisActor).onCollideWithObstacle((Obstacle) collideActor, contact);
+            }
+        };
+        mHandlers[WorldActor.TYPE_ENEMY][WorldActor.TYPE_PROJECTILE] = new CollisionCallback() {
+            @Override
+            public void go(WorldActor thisActor, WorldActor collideActor, ContactEvent contact) {
+                ((Enemy) thisActor).onCollideWithProjectile((Projectile) collideActor);
+            }
+        };
+
+        // Projectiles handle everything that is left, except heroes
+        mHandlers[WorldActor.TYPE_PROJECTILE][WorldActor.TYPE_OBSTACLE] = new CollisionCallback() {
+            @Override
+            public void go(WorldActor thisActor, WorldActor collideActor, ContactEvent contact) {
+                ((Projectile) thisActor).onCollideWithObstacle((Obstacle) collideActor, contact);
+            }
+        };
+        mHandlers[WorldActor.TYPE_PROJECTILE][WorldActor.TYPE_PROJECTILE] = new CollisionCallback() {
+            @Override
+            public void go(WorldActor thisActor, WorldActor collideActor, ContactEvent contact) {
+                ((Projectile) thisActor).onCollideWithProjectile((Projectile) collideActor);
+            }
+        };
+        CollisionCallback projectileHit = new CollisionCallback() {
+            @Override
+            public void go(WorldActor thisActor, WorldActor collideActor, ContactEvent contact) {
+                ((Projectile) thisActor).onCollideWithActor(collideActor);
+            }
+        };
+        mHandlers[WorldActor.TYPE_PROJECTILE][WorldActor.TYPE_GOODIE] = projectileHit;
+        mHandlers[WorldActor.TYPE_PROJECTILE][WorldActor.TYPE_DESTINATION] = projectileHit;
+    }
+
+    /**
+     * Add a collision type, which starts out with the same handlers as an existing type
+     *
+     * @param baseType The type to copy
+     * @return The new type
+     */
+    int addType(int baseType) {
+        int type = mNumTypes++;
+        CollisionCallback[][] handlers = new CollisionCallback[mNumTypes][mNumTypes];
+        for (int i = 0; i < type; ++i)
+            System.arraycopy(mHandlers[i], 0, handlers[i], 0, type);
+        int[] baseTypes = new int[mNumTypes];
+        System.arraycopy(mBaseTypes, 0, baseTypes, 0, type);
+        mHandlers = handlers;
+        mBaseTypes = baseTypes;
+
+        // copy the row and the column of the base type
+        for (int i = 0; i < type; ++i) {
+            mHandlers[type][i] = mHandlers[baseType][i];
+            mHandlers[i][type] = mHandlers[i][baseType];
+        }
+        mHandlers[type][type] = mHandlers[baseType][baseType];
+        mBaseTypes[type] = mBaseTypes[baseType];
+        mSensorMasks = null;
+        return type;
+    }
+
+    /**
+     * Check if a type exists and is based on one of the built-in types
+     *
+     * @param type        The type to check
+     * @param builtinType The built-in type
+     * @return True if <code>type</code> is <code>builtinType</code> or was made from it
+     */
+    boolean isTypeOf(int type, int builtinType) {
+        return type >= 0 && type < mNumTypes && mBaseTypes[type] == builtinType;
+    }
+
+    /**
+     * Check if a type exists
+     *
+     * @param type The type to check
+     * @return True if the type is a built-in type or was added
+     */
+    boolean isType(int type) {
+        return type >= 0 && type < mNumTypes;
+    }
+
+    /**
+     * Set the code to run when an actor of one type collides with an actor of another type
+     *
+     * @param typeA   The type of the first actor
+     * @param typeB   The type of the second actor
+     * @param handler The code to run, or null to ignore these collisions
+     */
+    void set(int typeA, int typeB, CollisionCallback handler) {
+        mHandlers[typeA][typeB] = handler;
+        mSensorMasks = null;
+    }
+
+    /**
+     * Get the code to run when an actor of one type collides with an actor of another type
+     *
+     * @param typeA The type of the first actor
+     * @param typeB The type of the second actor
+     * @return The handler, or null if there isn't one for this order of the types
+     */
+    CollisionCallback get(int typeA, int typeB) {
+        return mHandlers[typeA][typeB];
+    }
+
+    /**
+     * Get the Box2D category bits for a type.  Bit 0 is for bodies that aren't WorldActors, and
+     * each built-in type gets the next bit.  Added types share the bit of their built-in type.
+     *
+     * @param type The collision type
+     * @return The category bits
+     */
+    short getCategory(int type) {
+        return (short) (1 << (mBaseTypes[type] + 1));
+    }
+
+    /**
+     * Get the Box2D mask bits for a sensor actor of some type.  A sensor doesn't push anything,
+     * so the only reason for it to touch an actor is if there is a handler for their types.  The
+     * mask has the categories of the types that have a handler with this type, in either order,
+     * along with bit 0, so that bodies that aren't actors are never filtered out.
+     *
+     * @param type The collision type
+     * @return The mask bits
+     */
+    short getSensorMask(int type) {
+        if (mSensorMasks == null) {
+            mSensorMasks = new short[mNumTypes];
+            for (int i = 0; i < mNumTypes; ++i) {
+                int mask = 1;
+                for (int j = 0; j < mNumTypes; ++j)
+                    if (mHandlers[i][j] != null || mHandlers[j][i] != null)
+                        mask |= getCategory(j);
+                mSensorMasks[i] = (short) mask;
+            }
+        }
+        return mSensorMasks[type];
+    }
+}
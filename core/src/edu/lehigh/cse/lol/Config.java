@@ -55,6 +55,30 @@ public class Config {
     /// each WorldActor
     protected boolean mShowDebugBoxes;
 
+    /// When this is true, the physics world advances in fixed-size steps, as many per frame as the
+    /// elapsed time requires, and actors are drawn at a position interpolated between the last two
+    /// steps.  When it is false, the world advances by exactly one step per rendered frame.
+    protected boolean mFixedTimestep = true;
+    /// The number of physics steps that make up one second of game time
+    protected int mStepsPerSecond = 45;
+    /// The most physics steps we will run in a single frame.  If a frame takes longer than this
+    /// many steps, the extra time is dropped, so that a slow device doesn't fall further behind
+    protected int mMaxStepsPerFrame = 5;
+    /// The number of collisions that can be recorded during one physics step before the contact
+    /// queue is full
+    protected int mContactQueueSize = 256;
+    /// When the contact queue is full, should it grow (true), or should the extra collisions be
+    /// dropped (false)?  Either way, the Profiler reports it.
+    protected boolean mGrowContactQueue = true;
+
+    /// How far (in meters) the lines made from a curve in an SVG drawing may stray from the curve.
+    /// Smaller values follow curves more closely, but make more lines.
+    protected float mSvgTolerance = .1f;
+    /// The folder (in local storage) where the lines of each SVG drawing are saved the first time
+    /// it is loaded, so that later loads don't have to parse it.  Files in this folder of the
+    /// assets are used too, so a game can ship with them.  Use "" to turn the cache off.
+    protected String mSvgCacheFolder = "svgcache";
+
     /// Total number of levels. This helps the transition when a level is won
     protected int mNumLevels;
     /// Should the level chooser be activated?
@@ -74,6 +98,14 @@ public class Config {
 
     /// The list of image files that will be used by the game
     protected String[] mImageNames;
+    /// The list of texture atlases (made with the LibGDX TexturePacker) that hold packed images.
+    /// An image in an atlas can be used by the name of the file it was packed from (e.g.,
+    /// "greenball.png"), and does not need to be listed in mImageNames.  Drawing from one atlas
+    /// lets the SpriteBatch draw many actors without switching textures.
+    ///
+    /// NB: pack with rotation and whitespace stripping turned off, since actors are drawn by
+    ///     stretching the whole region to the actor's size
+    protected String[] mAtlasNames = new String[0];
     /// The list of audio files that will be used as sound effects by the game
     protected String[] mSoundNames;
     /// The list of audio files that will be used as (looping) background music by the game
@@ -0,0 +1,128 @@
+/**
+ * This is free and unencumbered software released into the public domain.
+ * <p>
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ * <p>
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ * <p>
+ * For more information, please refer to <http://unlicense.org>
+ */
+
+package edu.lehigh.cse.lol;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Fixture;
+
+/**
+ * ContactEvent describes a collision between two actors.  The physics world records collisions
+ * while it is moving, and reports them once it has finished its step, so a ContactEvent holds a
+ * copy of the parts of the Box2D contact that are still meaningful at that time.
+ * <p>
+ * To avoid making garbage, the same ContactEvent is reused for every collision.  If a callback
+ * needs to keep the event after it returns, it should keep a copy().
+ */
+public class ContactEvent {
+    /// The first actor in the collision (the one whose onCollide code runs)
+    WorldActor mActorA;
+    /// The second actor in the collision
+    WorldActor mActorB;
+    /// The fixture of the first actor that was hit
+    Fixture mFixtureA;
+    /// The fixture of the second actor that was hit
+    Fixture mFixtureB;
+    /// The direction of the collision, pointing from the first actor toward the second
+    final Vector2 mNormal = new Vector2();
+    /// A point where the actors touch, in world coordinates
+    final Vector2 mPoint = new Vector2();
+    /// True if the collision has a point.  Sensors report collisions without any points.
+    boolean mHasPoint;
+    /// False if the collision won't push the actors apart (e.g., pass-through or one-sided actors)
+    boolean mEnabled;
+
+    /**
+     * Get the fixture of an actor that was hit in this collision
+     *
+     * @param actor One of the actors in the collision
+     * @return The actor's fixture, or null if the actor isn't part of this collision
+     */
+    public Fixture getFixture(WorldActor actor) {
+        if (actor == mActorA)
+            return mFixtureA;
+        if (actor == mActorB)
+            return mFixtureB;
+        return null;
+    }
+
+    /**
+     * Get the direction of the collision.  It points from the actor whose collision code is
+     * running (e.g., the hero, when a hero hits an obstacle) toward the other actor.
+     *
+     * @return A unit vector.  Don't change it.
+     */
+    public Vector2 getNormal() {
+        return mNormal;
+    }
+
+    /**
+     * Get a point where the actors touch
+     *
+     * @return The point, in world coordinates.  Don't change it.
+     */
+    public Vector2 getPoint() {
+        return mPoint;
+    }
+
+    /**
+     * Check if the collision has a point.  Collisions with sensors (e.g., goodies) don't.
+     *
+     * @return True if getPoint() is meaningful
+     */
+    public boolean hasPoint() {
+        return mHasPoint;
+    }
+
+    /**
+     * Check if the collision will push the actors apart.  It won't if the actors pass through
+     * each other, or if one of them is one-sided and the other came from the open side.
+     *
+     * @return True if the collision is enabled
+     */
+    public boolean isEnabled() {
+        return mEnabled;
+    }
+
+    /**
+     * Make a copy of this event, which stays valid after the collision callback returns
+     *
+     * @return A new ContactEvent with the same values
+     */
+    public ContactEvent copy() {
+        ContactEvent c = new ContactEvent();
+        c.mActorA = mActorA;
+        c.mActorB = mActorB;
+        c.mFixtureA = mFixtureA;
+        c.mFixtureB = mFixtureB;
+        c.mNormal.set(mNormal);
+        c.mPoint.set(mPoint);
+        c.mHasPoint = mHasPoint;
+        c.mEnabled = mEnabled;
+        return c;
+    }
+}
@@ -0,0 +1,266 @@
+/**
+ * This is free and unencumbered software released into the public domain.
+ * <p>
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ * <p>
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ * <p>
+ * For more information, please refer to <http://unlicense.org>
+ */
+
+package edu.lehigh.cse.lol;
+
+import com.badlogic.gdx.physics.box2d.Fixture;
+
+/**
+ * ContactQueue holds the collisions that happen during a physics step, so that they can be
+ * handled after the step finishes (Box2D doesn't let us change the world while it is stepping).
+ * <p>
+ * The queue is a ring buffer of parallel arrays, which are made once, so that recording a
+ * collision doesn't create any objects.  When the queue is full, it either grows (which does make
+ * garbage, so it is counted), or drops the new collision (which is also counted).
+ */
+class ContactQueue {
+    /// The code to run for each entry
+    private CollisionCallback[] mHandler;
+    /// The first actor of each entry
+    private WorldActor[] mActorA;
+    /// The second actor of each entry
+    private WorldActor[] mActorB;
+    /// The fixture of the first actor, for each entry
+    private Fixture[] mFixtureA;
+    /// The fixture of the second actor, for each entry
+    private Fixture[] mFixtureB;
+    /// The X and Y of the normal of each entry, packed together
+    private float[] mNormal;
+    /// The X and Y of the point of each entry, packed together
+    private float[] mPoint;
+    /// The flags of each entry (HAS_POINT, ENABLED)
+    private byte[] mFlags;
+
+    /// Flag for entries that have a point
+    private static final byte HAS_POINT = 1;
+    /// Flag for entries whose contact is enabled
+    private static final byte ENABLED = 2;
+
+    /// The index of the oldest entry
+    private int mHead;
+    /// The number of entries in the queue
+    private int mCount;
+    /// Should the queue grow when it is full, or drop new entries?
+    private final boolean mGrow;
+
+    /// The number of entries added since the counters were last read
+    private int mAdded;
+    /// The most entries the queue has held at once
+    private int mPeak;
+    /// The number of entries dropped because the queue was full
+    private int mDropped;
+
+    /**
+     * Create a queue
+     *
+     * @param capacity The number of entries the queue can hold before it is full
+     * @param grow     True if the queue should grow when it is full, false if it should drop the
+     *                 entries that don't fit
+     */
+    ContactQueue(int capacity, boolean grow) {
+        mGrow = grow;
+        allocate(Math.max(capacity, 1));
+    }
+
+    /**
+     * Make the arrays for the queue
+     *
+     * @param capacity The number of entries the arrays should hold
+     */
+    private void allocate(int capacity) {
+        mHandler = new CollisionCallback[capacity];
+        mActorA = new WorldActor[capacity];
+        mActorB = new WorldActor[capacity];
+        mFixtureA = new Fixture[capacity];
+        mFixtureB = new Fixture[capacity];
+        mNormal = new float[capacity * 2];
+        mPoint = new float[capacity * 2];
+        mFlags = new byte[capacity];
+    }
+
+    /**
+     * Double the size of the queue.  The entries are moved so that the oldest one is at index 0.
+     */
+    private void grow() {
+        CollisionCallback[] handler = mHandler;
+        WorldActor[] actorA = mActorA;
+        WorldActor[] actorB = mActorB;
+        Fixture[] fixtureA = mFixtureA;
+        Fixture[] fixtureB = mFixtureB;
+        float[] normal = mNormal;
+        float[] point = mPoint;
+        byte[] flags = mFlags;
+        int old = handler.length;
+        allocate(old * 2);
+        for (int i = 0; i < mCount; ++i) {
+            int from = (mHead + i) % old;
+            mHandler[i] = handler[from];
+            mActorA[i] = actorA[from];
+            mActorB[i] = actorB[from];
+            mFixtureA[i] = fixtureA[from];
+            mFixtureB[i] = fixtureB[from];
+            mNormal[2 * i] = normal[2 * from];
+            mNormal[2 * i + 1] = normal[2 * from + 1];
+            mPoint[2 * i] = point[2 * from];
+            mPoint[2 * i + 1] = point[2 * from + 1];
+            mFlags[i] = flags[from];
+        }
+        mHead = 0;
+    }
+
+    /**
+     * Record a collision
+     *
+     * @param handler  The code to run for the collision
+     * @param a        The first actor
+     * @param b        The second actor
+     * @param fixtureA The fixture of the first actor
+     * @param fixtureB The fixture of the second actor
+     * @param normalX  The X component of the normal, pointing from the first actor to the second
+     * @param normalY  The Y component of the normal
+     * @param hasPoint True if the collision has a point
+     * @param pointX   The X coordinate of the point
+     * @param pointY   The Y coordinate of the point
+     * @param enabled  True if the contact is enabled
+     * @return False if the queue was full and the collision was dropped
+     */
+    boolean add(CollisionCallback handler, WorldActor a, WorldActor b, Fixture fixtureA, Fixture fixtureB,
+                float normalX, float normalY, boolean hasPoint, float pointX, float pointY,
+                boolean enabled) {
+        if (mCount == mHandler.length) {
+            if (!mGrow) {
+                mDropped++;
+                return false;
+            }
+            grow();
+        }
+        int i = (mHead + mCount) % mHandler.length;
+        mHandler[i] = handler;
+        mActorA[i] = a;
+        mActorB[i] = b;
+        mFixtureA[i] = fixtureA;
+        mFixtureB[i] = fixtureB;
+        mNormal[2 * i] = normalX;
+        mNormal[2 * i + 1] = normalY;
+        mPoint[2 * i] = pointX;
+        mPoint[2 * i + 1] = pointY;
+        mFlags[i] = (byte) ((hasPoint ? HAS_POINT : 0) | (enabled ? ENABLED : 0));
+        mCount++;
+        mAdded++;
+        if (mCount > mPeak)
+            mPeak = mCount;
+        return true;
+    }
+
+    /**
+     * Take the oldest entry out of the queue
+     *
+     * @param event A ContactEvent to fill with the entry's values
+     * @return The code to run for the entry, or null if the queue is empty
+     */
+    CollisionCallback poll(ContactEvent event) {
+        if (mCount == 0)
+            return null;
+        int i = mHead;
+        CollisionCallback handler = mHandler[i];
+        event.mActorA = mActorA[i];
+        event.mActorB = mActorB[i];
+        event.mFixtureA = mFixtureA[i];
+        event.mFixtureB = mFixtureB[i];
+        event.mNormal.set(mNormal[2 * i], mNormal[2 * i + 1]);
+        event.mPoint.set(mPoint[2 * i], mPoint[2 * i + 1]);
+        event.mHasPoint = (mFlags[i] & HAS_POINT) != 0;
+        event.mEnabled = (mFlags[i] & ENABLED) != 0;
+        // don't keep the actors and fixtures alive after they leave the queue
+        mHandler[i] = null;
+        mActorA[i] = null;
+        mActorB[i] = null;
+        mFixtureA[i] = null;
+        mFixtureB[i] = null;
+        mHead = (mHead + 1) % mHandler.length;
+        mCount--;
+        return handler;
+    }
+
+    /**
+     * Throw away all entries and reset the counters, e.g., when a new level starts
+     */
+    void clear() {
+        while (mCount > 0) {
+            int i = mHead;
+            mHandler[i] = null;
+            mActorA[i] = null;
+            mActorB[i] = null;
+            mFixtureA[i] = null;
+            mFixtureB[i] = null;
+            mHead = (mHead + 1) % mHandler.length;
+            mCount--;
+        }
+        mHead = 0;
+        mAdded = 0;
+        mPeak = 0;
+        mDropped = 0;
+    }
+
+    /**
+     * Get the number of entries added since the last call, and start counting again
+     *
+     * @return The number of collisions recorded
+     */
+    int takeAddedCount() {
+        int added = mAdded;
+        mAdded = 0;
+        return added;
+    }
+
+    /**
+     * Get the most entries the queue has held at once
+     *
+     * @return The peak number of entries
+     */
+    int getPeak() {
+        return mPeak;
+    }
+
+    /**
+     * Get the number of collisions that were dropped because the queue was full
+     *
+     * @return The number of dropped collisions
+     */
+    int getDropped() {
+        return mDropped;
+    }
+
+    /**
+     * Get the number of entries the queue can hold without growing
+     *
+     * @return The capacity of the queue
+     */
+    int getCapacity() {
+        return mHandler.length;
+    }
+}
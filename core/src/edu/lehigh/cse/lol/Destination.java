@@ -28,7 +28,6 @@
 package edu.lehigh.cse.lol;
 
 import com.badlogic.gdx.audio.Sound;
-import com.badlogic.gdx.physics.box2d.Contact;
 
 /**
  * Destinations are actors that the Hero should try to reach. When a Hero reaches a destination, the
@@ -55,25 +54,12 @@ public class Destination extends WorldActor {
      * @param imgName Name of the image to display
      */
     Destination(Lol game, MainScene scene, float width, float height, String imgName) {
-        super(game, scene, imgName, width, height);
+        super(game, scene, imgName, width, height, TYPE_DESTINATION);
         mCapacity = 1;
         mHolding = 0;
         mActivation = new int[4];
     }
 
-    /**
-     * Code to run when a Destination collides with a WorldActor.
-     * <p>
-     * NB: Destinations are at the end of the collision hierarchy, so we don't do anything when
-     * they are in a collision that hasn't already been handled by a higher-ranked WorldActor.
-     *
-     * @param other   Other actor involved in this collision
-     * @param contact A description of the collision
-     */
-    @Override
-    void onCollide(WorldActor other, Contact contact) {
-    }
-
     /**
      * Change the number of goodies that must be collected before the destination accepts any heroes
      * (the default is 0,0,0,0)
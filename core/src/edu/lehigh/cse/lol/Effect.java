@@ -27,49 +27,156 @@
 
 package edu.lehigh.cse.lol;
 
-import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.g2d.ParticleEffect;
+import com.badlogic.gdx.graphics.g2d.ParticleEffectPool.PooledEffect;
+import com.badlogic.gdx.graphics.g2d.ParticleEmitter;
+import com.badlogic.gdx.graphics.g2d.ParticleEmitter.ScaledNumericValue;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.math.collision.BoundingBox;
 
 /**
  * Effects provide a way of describing visual artifacts on the screen that do not have a physics
  * aspect.  An Effect is really just a wrapper around a LibGDX particle system.
+ * <p>
+ * The particle systems come from pools that Media keeps for each effect file, so making an effect
+ * doesn't re-read its file.  When an effect finishes (and doesn't repeat), when it is removed, or
+ * when its scene is reset for another level, its particle system goes back to the pool, and the
+ * effect is taken out of the scene.
  */
 public class Effect extends Renderable {
-    /// The active particle system
+    /// The active particle system, or null once it has been returned to its pool
     ParticleEffect mParticleEffect;
     /// Should the effect repeat after it has run its course?
     private boolean mRepeat;
     /// Is the effect active?
     private boolean mEnabled = true;
+    /// The scene in which the effect is drawn
+    private final LolScene mScene;
+    /// How long the effect runs before it is complete, in seconds, or infinity if it never
+    /// completes on its own
+    private final float mLifetime;
+    /// The time that has passed without updating the effect, because the camera couldn't see it
+    private float mSkippedTime;
+    /// The total time that the effect has run since it started (or was reset)
+    private float mAge;
+    /// The longest that any particle lives, in seconds.  Catching up on skipped time by more than
+    /// this would only make particles that are already dead.
+    private final float mMaxLife;
+    /// The farthest that a particle can get from its emitter, so that we know when particles from
+    /// an emitter that is out of view might come into view
+    private final float mReach;
 
     /**
      * Construct an effect.  The constructor is not public, so that programmers will have to use
      * factory methods to actually create an effect.
+     *
+     * @param scene          The scene in which the effect is drawn
+     * @param particleEffect The particle system, which should come from a pool in Media
      */
-    Effect() {
+    Effect(LolScene scene, ParticleEffect particleEffect) {
+        mScene = scene;
+        mParticleEffect = particleEffect;
+        // figure out when the effect will be done, so that we know when it is safe to stop
+        // waiting for an off-screen effect to finish
+        float lifetime = 0;
+        float maxLife = 0;
+        float reach = 0;
+        for (ParticleEmitter pe : particleEffect.getEmitters()) {
+            float life = largest(pe.getLife()) / 1000;
+            if (pe.isContinuous())
+                lifetime = Float.POSITIVE_INFINITY;
+            else
+                lifetime = Math.max(lifetime, (pe.getDelay().getLowMax()
+                        + pe.getDuration().getLowMax()) / 1000 + life);
+            maxLife = Math.max(maxLife, life);
+            // a particle starts somewhere in the spawn area, and then moves with its velocity,
+            // while gravity and wind accelerate it
+            float spawn = Math.max(largest(pe.getSpawnWidth()), largest(pe.getSpawnHeight())) / 2;
+            float accel = largest(pe.getGravity()) + largest(pe.getWind());
+            reach = Math.max(reach, spawn + largest(pe.getVelocity()) * life
+                    + accel * life * life / 2);
+        }
+        mLifetime = lifetime;
+        mMaxLife = maxLife;
+        mReach = reach;
+    }
+
+    /**
+     * Find the largest magnitude that a particle setting can have
+     *
+     * @param value The setting
+     * @return The largest magnitude, or 0 if the setting isn't used
+     */
+    private static float largest(ScaledNumericValue value) {
+        if (!value.isActive())
+            return 0;
+        return Math.max(Math.abs(value.getLowMin()), Math.abs(value.getLowMax()))
+                + Math.max(Math.abs(value.getHighMin()), Math.abs(value.getHighMax()));
+    }
+
+    /**
+     * Check if the camera might be able to see any of the effect's particles after the next
+     * update: either some particles from the last update are in view, or an emitter is close
+     * enough to the view that its particles could move into it.
+     *
+     * @return True if the effect should be updated and drawn
+     */
+    private boolean mightBeVisible() {
+        // The box is empty before the first particles are emitted, so new effects always run.
+        // NB: BoundingBox.isValid() also wants a depth, which particles don't have
+        BoundingBox bb = mParticleEffect.getBoundingBox();
+        if (bb.min.x > bb.max.x || bb.min.y > bb.max.y)
+            return true;
+        // grow the box to cover everywhere that a new particle could get to
+        float left = bb.min.x, right = bb.max.x, bottom = bb.min.y, top = bb.max.y;
+        for (ParticleEmitter pe : mParticleEffect.getEmitters()) {
+            left = Math.min(left, pe.getX() - mReach);
+            right = Math.max(right, pe.getX() + mReach);
+            bottom = Math.min(bottom, pe.getY() - mReach);
+            top = Math.max(top, pe.getY() + mReach);
+        }
+        return mScene.inView((left + right) / 2, (bottom + top) / 2, (right - left) / 2,
+                (top - bottom) / 2);
     }
 
     /**
      * Every time the world advances by a timestep, we call this code to update the particle effect
-     * and draw it.
+     * and draw it.  If the camera can't see any of the particles, and none could move into view,
+     * the update is skipped, and the skipped time is made up (up to the life of a particle) when
+     * the effect comes back into view.
      */
     @Override
     void onRender(SpriteBatch sb, float delta) {
         // do nothing if the effect is disabled
-        if (!mEnabled)
+        if (!mEnabled || mParticleEffect == null)
+            return;
+        mAge += delta;
+        // If the effect can't be seen, don't update or draw it
+        if (!mightBeVisible()) {
+            mSkippedTime += delta;
+            // an effect that must have finished by now can be completed without ever updating it
+            if (mAge > mLifetime)
+                onComplete();
             return;
-        // render a particle effect
-        if (mParticleEffect != null) {
-            mParticleEffect.update(Gdx.graphics.getDeltaTime());
-            mParticleEffect.draw(sb);
-            // deal with effect completion
-            if (mParticleEffect.isComplete())
-                if (mRepeat)
-                    mParticleEffect.reset();
-                else
-                    mEnabled = false;
         }
+        // a single huge update would emit a burst of particles, so only catch up as far as the
+        // oldest particle that could still be alive
+        mParticleEffect.update(Math.min(mSkippedTime + delta, Math.max(mMaxLife, delta)));
+        mSkippedTime = 0;
+        mParticleEffect.draw(sb);
+        // deal with effect completion
+        if (mParticleEffect.isComplete())
+            onComplete();
+    }
+
+    /**
+     * When the particle system has run its course, either start it over, or get rid of it
+     */
+    private void onComplete() {
+        if (mRepeat)
+            reset();
+        else
+            remove();
     }
 
     /**
@@ -94,7 +201,23 @@ public class Effect extends Renderable {
      * Reset the effect, so that it starts over
      */
     public void reset() {
-        if (mParticleEffect != null)
-            mParticleEffect.reset();
+        if (mParticleEffect == null)
+            return;
+        mParticleEffect.reset();
+        mAge = 0;
+        mSkippedTime = 0;
+    }
+
+    /**
+     * Stop the effect, and take it out of the scene.  Once an effect is removed (or finishes
+     * without repeating), it can't be used again.
+     */
+    public void remove() {
+        if (mParticleEffect == null)
+            return;
+        mScene.removeActor(this);
+        if (mParticleEffect instanceof PooledEffect)
+            ((PooledEffect) mParticleEffect).free();
+        mParticleEffect = null;
     }
 }
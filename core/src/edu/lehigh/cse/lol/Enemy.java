@@ -27,8 +27,6 @@
 
 package edu.lehigh.cse.lol;
 
-import com.badlogic.gdx.physics.box2d.Contact;
-
 /**
  * Enemies are things to be avoided or defeated by the Hero. Enemies do damage to heroes when they
  * collide with heroes, and enemies can be defeated by heroes, in a variety of ways.
@@ -60,28 +58,25 @@ public class Enemy extends WorldActor {
      * @param imgName Image to display
      */
     Enemy(Lol game, MainScene scene, float width, float height, String imgName) {
-        super(game, scene, imgName, width, height);
+        super(game, scene, imgName, width, height, TYPE_ENEMY);
         mDamage = 2;
         mOnDefeatHeroText = "";
     }
 
     /**
-     * Code to run when an Enemy collides with a WorldActor.
-     * <p>
-     * Based on our WorldActor numbering scheme, the only concerns are collisions with Obstacles
-     * and Projectiles
-     *
-     * @param other   Other actor involved in this collision
-     * @param contact A description of the collision
+     * Put this enemy back into the state it was in when it was made, so that its ActorPool can
+     * hand it out again
      */
     @Override
-    void onCollide(WorldActor other, Contact contact) {
-        // collision with obstacles
-        if (other instanceof Obstacle)
-            onCollideWithObstacle((Obstacle) other, contact);
-        // collision with projectiles
-        if (other instanceof Projectile)
-            onCollideWithProjectile((Projectile) other);
+    void recycle() {
+        super.recycle();
+        mDamage = 2;
+        mOnDefeatHeroText = "";
+        mDefeatByCrawl = false;
+        mDefeatByJump = false;
+        mImmuneToInvincibility = false;
+        mAlwaysDoesDamage = false;
+        mDefeatCallback = null;
     }
 
     /**
@@ -90,7 +85,7 @@ public class Enemy extends WorldActor {
      * @param obstacle The obstacle with which this Enemy collided
      * @param contact A description of the collision
      */
-    private void onCollideWithObstacle(final Obstacle obstacle, Contact contact) {
+    void onCollideWithObstacle(final Obstacle obstacle, ContactEvent contact) {
         // handle any callbacks the obstacle has
         if (obstacle.mEnemyCollision != null)
             obstacle.mEnemyCollision.go(obstacle, this, contact);
@@ -101,7 +96,7 @@ public class Enemy extends WorldActor {
      *
      * @param projectile The projectile with which this Enemy collided
      */
-    private void onCollideWithProjectile(Projectile projectile) {
+    void onCollideWithProjectile(Projectile projectile) {
         // ignore inactive projectiles
         if (!projectile.mEnabled)
             return;
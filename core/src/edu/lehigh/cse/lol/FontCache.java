@@ -0,0 +1,370 @@
+/**
+ * This is free and unencumbered software released into the public domain.
+ * <p>
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ * <p>
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ * <p>
+ * For more information, please refer to <http://unlicense.org>
+ */
+
+package edu.lehigh.cse.lol;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.PixmapIO;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.BitmapFont.BitmapFontData;
+import com.badlogic.gdx.graphics.g2d.BitmapFont.Glyph;
+import com.badlogic.gdx.graphics.g2d.PixmapPacker;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator;
+import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator.FreeTypeBitmapFontData;
+import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator.FreeTypeFontParameter;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+/**
+ * FontCache saves the fonts that FreeType makes, so that they don't have to be made again the next
+ * time the game starts.  Rasterizing a TrueType font is slow, and it happens just as the first
+ * screen is being shown, so it is a noticeable part of the game's start-up time.
+ * <p>
+ * A cached font is a small binary file of metrics, plus one PNG per glyph page.  Its name is made
+ * from a hash of the font file, the font size, and a hash of the characters in the font, so
+ * changing any of them makes a new entry instead of reusing a stale one.  When a font is needed,
+ * we look for it first among the game's assets (where the pre-baking step puts it), then in local
+ * storage (where the game put it the last time it ran), and only then run FreeType.
+ */
+public class FontCache {
+    /// The folder that holds cached fonts, in both the assets and local storage
+    private static final String CACHE_DIR = "fontcache/";
+    /// The first four bytes of a metrics file: "LOLF"
+    private static final int MAGIC = 0x4C4F4C46;
+    /// The version of the metrics file format.  Change this whenever the format changes.
+    private static final int VERSION = 1;
+    /// The largest glyph page we will make
+    private static final int MAX_PAGE_SIZE = 1024;
+
+    /// A copy of the game-wide configuration object
+    private final Config mConfig;
+    /// The hash of each font file's contents, so that we only read each file once
+    private final TreeMap<String, String> mFileHashes = new TreeMap<>();
+
+    /**
+     * Create a FontCache
+     *
+     * @param config The game-wide configuration object
+     */
+    FontCache(Config config) {
+        mConfig = config;
+    }
+
+    /**
+     * Make a font ahead of time, and save it in local storage, so that it can be shipped with the
+     * game's assets.  The headless FontBaker uses this at build time.
+     *
+     * @param config       The game-wide configuration object
+     * @param fontFileName The filename for the font, relative to the assets folder
+     * @param fontSize     The font size
+     * @return The name of the metrics file that was written
+     */
+    public static String bake(Config config, String fontFileName, int fontSize) {
+        FontCache cache = new FontCache(config);
+        cache.generate(fontFileName, fontSize).dispose();
+        return CACHE_DIR + cache.getKey(fontFileName, fontSize) + ".lolf";
+    }
+
+    /**
+     * Get a font, loading it from the cache if possible, and making (and caching) it otherwise
+     *
+     * @param fontFileName The filename for the font, relative to the assets folder
+     * @param fontSize     The font size
+     * @return A font object that can be used to render text
+     */
+    BitmapFont getFont(String fontFileName, int fontSize) {
+        String key = getKey(fontFileName, fontSize);
+        BitmapFont f = load(Gdx.files.internal(CACHE_DIR), key);
+        if (f == null && Gdx.files.isLocalStorageAvailable())
+            f = load(Gdx.files.local(CACHE_DIR), key);
+        if (f == null)
+            f = generate(fontFileName, fontSize);
+        return f;
+    }
+
+    /**
+     * Compute the name of a font's cache entry
+     *
+     * @param fontFileName The filename for the font
+     * @param fontSize     The font size
+     * @return A name that changes whenever the font file, size, or character set changes
+     */
+    private String getKey(String fontFileName, int fontSize) {
+        String fileHash = mFileHashes.get(fontFileName);
+        if (fileHash == null) {
+            CRC32 crc = new CRC32();
+            crc.update(Gdx.files.internal(fontFileName).readBytes());
+            fileHash = Long.toHexString(crc.getValue());
+            mFileHashes.put(fontFileName, fileHash);
+        }
+        String name = Gdx.files.internal(fontFileName).nameWithoutExtension();
+        return name + "-" + fileHash + "-" + fontSize + "-"
+                + Integer.toHexString(FreeTypeFontGenerator.DEFAULT_CHARS.hashCode());
+    }
+
+    /**
+     * Use FreeType to make a font, and save it in local storage
+     *
+     * @param fontFileName The filename for the font
+     * @param fontSize     The font size
+     * @return The font
+     */
+    private BitmapFont generate(String fontFileName, int fontSize) {
+        // We provide the packer, so that its pages are still around to be saved once the font is
+        // made.  It is sized the same way FreeType would size it.
+        int chars = FreeTypeFontGenerator.DEFAULT_CHARS.length();
+        int pageSize = Math.min(MAX_PAGE_SIZE,
+                MathUtils.nextPowerOfTwo((int) Math.ceil(Math.sqrt(fontSize * fontSize * chars))));
+        PixmapPacker packer = new PixmapPacker(pageSize, pageSize, Pixmap.Format.RGBA8888, 1, false,
+                new PixmapPacker.SkylineStrategy());
+
+        // NB: if this crashes, the user will get a reasonably good error message
+        FreeTypeFontParameter parameter = new FreeTypeFontParameter();
+        parameter.size = fontSize;
+        parameter.minFilter = Texture.TextureFilter.Linear;
+        parameter.magFilter = Texture.TextureFilter.Linear;
+        parameter.packer = packer;
+        FreeTypeFontGenerator generator = new FreeTypeFontGenerator(Gdx.files.internal(fontFileName));
+        generator.scaleForPixelHeight(fontSize);
+        FreeTypeBitmapFontData data = generator.generateData(parameter);
+        generator.dispose();
+        // The generator keeps its own list of page regions private, but the packer can make another.
+        // The regions share the pages' textures, which the font owns, so disposing the font frees
+        // them (and the pixmaps behind them).
+        Array<TextureRegion> regions = new Array<>();
+        packer.updateTextureRegions(regions, parameter.minFilter, parameter.magFilter, false);
+        BitmapFont f = new BitmapFont(data, regions, true);
+        f.setOwnsTexture(true);
+
+        if (Gdx.files.isLocalStorageAvailable()) {
+            String key = getKey(fontFileName, fontSize);
+            try {
+                save(Gdx.files.local(CACHE_DIR), key, data, packer);
+            } catch (Exception e) {
+                Lol.message(mConfig, "ERROR", "Unable to cache font '" + key + "': " + e);
+            }
+        }
+        // Every page has a texture by now, so this only marks the packer as finished
+        packer.dispose();
+        return f;
+    }
+
+    /**
+     * Write a font's glyph pages and metrics to a folder.  The metrics file is written last, so a
+     * cache entry is never found half-written.
+     *
+     * @param dir    The folder to write to
+     * @param key    The name of the cache entry
+     * @param data   The font's metrics and glyphs
+     * @param packer The packer that holds the font's glyph pages
+     */
+    private static void save(FileHandle dir, String key, BitmapFontData data, PixmapPacker packer)
+            throws IOException {
+        Array<PixmapPacker.Page> pages = packer.getPages();
+        for (int i = 0; i < pages.size; ++i)
+            PixmapIO.writePNG(dir.child(key + "_" + i + ".png"), pages.get(i).getPixmap());
+
+        // gather the glyphs, since BitmapFontData stores them in a sparse two-level table
+        ArrayList<Glyph> glyphs = new ArrayList<>();
+        for (Glyph[] page : data.glyphs)
+            if (page != null)
+                for (Glyph g : page)
+                    if (g != null)
+                        glyphs.add(g);
+
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                dir.child(key + ".lolf").write(false)));
+        try {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(pages.size);
+            out.writeFloat(data.padTop);
+            out.writeFloat(data.padRight);
+            out.writeFloat(data.padBottom);
+            out.writeFloat(data.padLeft);
+            out.writeFloat(data.lineHeight);
+            out.writeFloat(data.capHeight);
+            out.writeFloat(data.ascent);
+            out.writeFloat(data.descent);
+            out.writeFloat(data.down);
+            out.writeFloat(data.scaleX);
+            out.writeFloat(data.scaleY);
+            out.writeFloat(data.spaceWidth);
+            out.writeFloat(data.xHeight);
+            out.writeFloat(data.cursorX);
+            out.writeBoolean(data.missingGlyph != null);
+            if (data.missingGlyph != null)
+                writeGlyph(out, data.missingGlyph);
+            out.writeInt(glyphs.size());
+            for (Glyph g : glyphs)
+                writeGlyph(out, g);
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Write one glyph, including its kerning pairs
+     *
+     * @param out The stream to write to
+     * @param g   The glyph
+     */
+    private static void writeGlyph(DataOutputStream out, Glyph g) throws IOException {
+        out.writeInt(g.id);
+        out.writeInt(g.srcX);
+        out.writeInt(g.srcY);
+        out.writeInt(g.width);
+        out.writeInt(g.height);
+        out.writeInt(g.xoffset);
+        out.writeInt(g.yoffset);
+        out.writeInt(g.xadvance);
+        out.writeInt(g.page);
+        out.writeBoolean(g.fixedWidth);
+        // kerning is a sparse table of 512-entry pages, indexed by the second character
+        int count = 0;
+        if (g.kerning != null)
+            for (byte[] page : g.kerning)
+                if (page != null)
+                    for (byte amount : page)
+                        if (amount != 0)
+                            count++;
+        out.writeInt(count);
+        if (count == 0)
+            return;
+        for (int p = 0; p < g.kerning.length; ++p) {
+            if (g.kerning[p] == null)
+                continue;
+            for (int i = 0; i < g.kerning[p].length; ++i) {
+                if (g.kerning[p][i] != 0) {
+                    out.writeInt(p * g.kerning[p].length + i);
+                    out.writeByte(g.kerning[p][i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Read one glyph, including its kerning pairs
+     *
+     * @param in The stream to read from
+     * @return The glyph
+     */
+    private static Glyph readGlyph(DataInputStream in) throws IOException {
+        Glyph g = new Glyph();
+        g.id = in.readInt();
+        g.srcX = in.readInt();
+        g.srcY = in.readInt();
+        g.width = in.readInt();
+        g.height = in.readInt();
+        g.xoffset = in.readInt();
+        g.yoffset = in.readInt();
+        g.xadvance = in.readInt();
+        g.page = in.readInt();
+        g.fixedWidth = in.readBoolean();
+        int count = in.readInt();
+        for (int i = 0; i < count; ++i) {
+            int ch = in.readInt();
+            g.setKerning(ch, in.readByte());
+        }
+        return g;
+    }
+
+    /**
+     * Load a font from a folder of cached fonts
+     *
+     * @param dir The folder to look in
+     * @param key The name of the cache entry
+     * @return The font, or null if the folder doesn't have a usable copy of it
+     */
+    private BitmapFont load(FileHandle dir, String key) {
+        FileHandle metrics = dir.child(key + ".lolf");
+        if (!metrics.exists())
+            return null;
+        DataInputStream in = new DataInputStream(new BufferedInputStream(metrics.read()));
+        Array<TextureRegion> regions = new Array<>();
+        try {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION)
+                return null;
+            int numPages = in.readInt();
+            BitmapFontData data = new BitmapFontData();
+            data.padTop = in.readFloat();
+            data.padRight = in.readFloat();
+            data.padBottom = in.readFloat();
+            data.padLeft = in.readFloat();
+            data.lineHeight = in.readFloat();
+            data.capHeight = in.readFloat();
+            data.ascent = in.readFloat();
+            data.descent = in.readFloat();
+            data.down = in.readFloat();
+            data.scaleX = in.readFloat();
+            data.scaleY = in.readFloat();
+            data.spaceWidth = in.readFloat();
+            data.xHeight = in.readFloat();
+            data.cursorX = in.readFloat();
+            if (in.readBoolean())
+                data.missingGlyph = readGlyph(in);
+            int numGlyphs = in.readInt();
+            for (int i = 0; i < numGlyphs; ++i) {
+                Glyph g = readGlyph(in);
+                data.setGlyph(g.id, g);
+            }
+            for (int i = 0; i < numPages; ++i) {
+                Texture t = new Texture(dir.child(key + "_" + i + ".png"));
+                t.setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
+                regions.add(new TextureRegion(t));
+            }
+            BitmapFont f = new BitmapFont(data, regions, true);
+            f.setOwnsTexture(true);
+            return f;
+        } catch (Exception e) {
+            // A damaged entry is not fatal: we'll just make the font again, and overwrite it
+            Lol.message(mConfig, "ERROR", "Unable to load cached font '" + key + "': " + e);
+            for (TextureRegion r : regions)
+                r.getTexture().dispose();
+            return null;
+        } finally {
+            try {
+                in.close();
+            } catch (IOException e) {
+                // nothing to do
+            }
+        }
+    }
+}
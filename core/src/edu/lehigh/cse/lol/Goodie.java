@@ -27,8 +27,6 @@
 
 package edu.lehigh.cse.lol;
 
-import com.badlogic.gdx.physics.box2d.Contact;
-
 /**
  * Goodies are actors that a hero can collect.
  * <p>
@@ -55,7 +53,7 @@ public class Goodie extends WorldActor {
      * @param imgName image to use for this Goodie
      */
     Goodie(Lol game, MainScene scene, float width, float height, String imgName) {
-        super(game, scene, imgName, width, height);
+        super(game, scene, imgName, width, height, TYPE_GOODIE);
         mScore[0] = 1;
         mScore[1] = 0;
         mScore[2] = 0;
@@ -63,16 +61,18 @@ public class Goodie extends WorldActor {
     }
 
     /**
-     * Code to run when a Goodie collides with a WorldActor.
-     * <p>
-     * NB: Goodies are at the end of the collision hierarchy, so we don't do anything when
-     * they are in a collision that hasn't already been handled by a higher-ranked WorldActor.
-     *
-     * @param other   Other object involved in this collision
-     * @param contact A description of the contact that caused this collision
+     * Put this goodie back into the state it was in when it was made, so that its ActorPool can
+     * hand it out again
      */
     @Override
-    void onCollide(WorldActor other, Contact contact) {
+    void recycle() {
+        super.recycle();
+        mScore[0] = 1;
+        mScore[1] = 0;
+        mScore[2] = 0;
+        mScore[3] = 0;
+        mStrengthBoost = 0;
+        mInvincibilityDuration = 0;
     }
 
     /**
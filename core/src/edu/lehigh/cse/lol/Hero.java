@@ -31,7 +31,6 @@ import com.badlogic.gdx.audio.Sound;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.BodyDef.BodyType;
-import com.badlogic.gdx.physics.box2d.Contact;
 
 /**
  * The Hero is the focal point of a game. While it is technically possible to have many heroes, or
@@ -92,8 +91,10 @@ public class Hero extends WorldActor {
      * @param imgName The name of the file that has the default image for this hero
      */
     Hero(Lol game, MainScene scene, float width, float height, String imgName) {
-        super(game, scene, imgName, width, height);
+        super(game, scene, imgName, width, height, TYPE_HERO);
         mStrength = 1;
+        // heroes change animations and move on their own, so never put them in a static cache
+        mNeverCache = true;
     }
 
     /**
@@ -177,6 +178,7 @@ public class Hero extends WorldActor {
         }
         mCrawling = true;
         mBody.setTransform(mBody.getPosition(), -3.14159f / 2);
+        saveTransform();
         if (mCrawlAnimation != null)
             mAnimator.setCurrentAnimation(mCrawlAnimation);
     }
@@ -190,6 +192,7 @@ public class Hero extends WorldActor {
         }
         mCrawling = false;
         mBody.setTransform(mBody.getPosition(), 0);
+        saveTransform();
         mAnimator.setCurrentAnimation(mDefaultAnimation);
     }
 
@@ -203,37 +206,16 @@ public class Hero extends WorldActor {
             mCurrentRotation += delta;
             mBody.setAngularVelocity(0);
             mBody.setTransform(mBody.getPosition(), mCurrentRotation);
+            saveTransform();
         }
     }
 
-    /**
-     * Code to run when a Hero collides with a WorldActor.
-     *
-     * The Hero is the dominant participant in all collisions. Whenever the hero collides with
-     * something, we need to figure out what to do
-     *
-     * @param other   Other object involved in this collision
-     * @param contact A description of the contact that caused this collision
-     */
-    @Override
-    void onCollide(WorldActor other, Contact contact) {
-        // NB: we currently ignore Projectile and Hero
-        if (other instanceof Enemy)
-            onCollideWithEnemy((Enemy) other);
-        else if (other instanceof Destination)
-            onCollideWithDestination((Destination) other);
-        else if (other instanceof Obstacle)
-            onCollideWithObstacle((Obstacle) other, contact);
-        else if (other instanceof Goodie)
-            onCollideWithGoodie((Goodie) other);
-    }
-
     /**
      * Dispatch method for handling Hero collisions with Destinations
      *
      * @param destination The destination with which this hero collided
      */
-    private void onCollideWithDestination(Destination destination) {
+    void onCollideWithDestination(Destination destination) {
         // The hero must have enough goodies, and the destination must have room
         boolean match = true;
         for (int i = 0; i < 4; ++i)
@@ -253,7 +235,7 @@ public class Hero extends WorldActor {
      *
      * @param enemy The enemy with which this hero collided
      */
-    private void onCollideWithEnemy(Enemy enemy) {
+    void onCollideWithEnemy(Enemy enemy) {
         // if the enemy always defeats the hero, no matter what, then defeat the hero
         if (enemy.mAlwaysDoesDamage) {
             remove(false);
@@ -309,7 +291,7 @@ public class Hero extends WorldActor {
      *
      * @param o The obstacle with which this hero collided
      */
-    private void onCollideWithObstacle(Obstacle o, Contact contact) {
+    void onCollideWithObstacle(Obstacle o, ContactEvent contact) {
         // do we need to play a sound?
         o.playCollideSound();
 
@@ -334,7 +316,7 @@ public class Hero extends WorldActor {
      *
      * @param g The goodie with which this hero collided
      */
-    private void onCollideWithGoodie(Goodie g) {
+    void onCollideWithGoodie(Goodie g) {
         // hide the goodie, count it, and update strength
         g.remove(false);
         mGame.mManager.onGoodieCollected(g);
@@ -67,8 +67,8 @@ public class HudScene extends LolScene {
         // Render all actors and text
         sb.setProjectionMatrix(mCamera.combined);
         sb.begin();
-        for (ArrayList<Renderable> a : mRenderables) {
-            for (Renderable r : a) {
+        for (int i = 0; i < mRenderables.size(); ++i) {
+            for (Renderable r = mRenderables.get(i).mHead; r != null; r = r.mNext) {
                 r.render(sb, delta);
             }
         }
@@ -0,0 +1,328 @@
+/**
+ * This is free and unencumbered software released into the public domain.
+ * <p>
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ * <p>
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ * <p>
+ * For more information, please refer to <http://unlicense.org>
+ */
+
+
+package edu.lehigh.cse.lol;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.math.Vector2;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * InputLog records the input a player gives during one level (gestures, touches, and tilt), so that
+ * the same play session can be replayed later.  Every event is keyed by the number of physics steps
+ * that had run when it happened.  Since the physics world advances in fixed steps, feeding the
+ * events back at the same step numbers reproduces the session, which makes it possible to compare
+ * frame times across builds on exactly the same workload.
+ * <p>
+ * The log format is a header (magic number, version, level index, random seed), followed by one
+ * record per event: a type byte, the number of steps since the previous record (as a variable-
+ * length integer), and four floats.
+ */
+class InputLog {
+    /// Event types.  The first group are gestures, the second are raw touches
+    static final byte TAP = 0;
+    static final byte FLING = 1;
+    static final byte PAN = 2;
+    static final byte PAN_STOP = 3;
+    static final byte ZOOM = 4;
+    static final byte DOWN = 5;
+    static final byte UP = 6;
+    static final byte DRAG = 7;
+    /// A tilt reading, as computed by MainScene.handleTilt before it is clamped
+    static final byte TILT = 8;
+
+    /// The magic number at the start of every log ("LOLR")
+    private static final int MAGIC = 0x4C4F4C52;
+    /// The version of the log format
+    private static final int VERSION = 1;
+
+    /// Modes of the log: doing nothing, waiting for a level to start, or active
+    private static final int OFF = 0;
+    private static final int RECORD_PENDING = 1;
+    private static final int RECORDING = 2;
+    private static final int REPLAY_PENDING = 3;
+    private static final int REPLAYING = 4;
+    /// The current mode
+    private int mMode = OFF;
+
+    /// The name of the file the log is written to or read from, relative to the local storage
+    /// directory
+    private String mFileName;
+    /// The number of physics steps since the level started
+    private int mStep;
+    /// The step number of the last record written or read
+    private int mLastStep;
+
+    /// When recording, the buffer that holds the log until it is written out
+    private ByteArrayOutputStream mBytes;
+    /// When recording, the stream for writing records into mBytes
+    private DataOutputStream mOut;
+
+    /// When replaying, the stream for reading records
+    private DataInputStream mIn;
+    /// When replaying, the level the log was recorded on
+    private int mLevel;
+    /// When replaying, the seed of the level's random number generator
+    private long mSeed;
+    /// When replaying, whether the next record has been read into the fields below
+    private boolean mHaveNext;
+    /// The step number of the next record
+    int mNextStep;
+    /// The type of the next record
+    byte mType;
+    /// The values of the next record
+    float mA, mB, mC, mD;
+
+    /**
+     * Start recording.  The log begins when the next playable level starts, and is written to the
+     * file when that level ends.
+     *
+     * @param fileName The file to write
+     */
+    void startRecording(String fileName) {
+        mFileName = fileName;
+        mMode = RECORD_PENDING;
+    }
+
+    /**
+     * Start replaying.  The log takes over when the level it was recorded on starts.
+     *
+     * @param fileName The file to read
+     */
+    void startReplay(String fileName) {
+        mFileName = fileName;
+        mMode = REPLAY_PENDING;
+    }
+
+    /**
+     * Open the log for replay, and read its header
+     *
+     * @return True if the log is usable
+     */
+    private boolean openReplay() {
+        FileHandle file = Gdx.files.local(mFileName);
+        try {
+            mIn = new DataInputStream(file.read(4096));
+            if (mIn.readInt() != MAGIC || mIn.readInt() != VERSION)
+                throw new IOException("not an input log");
+            mLevel = mIn.readInt();
+            mSeed = mIn.readLong();
+            return true;
+        } catch (Exception e) {
+            Gdx.app.error("InputLog", "Unable to read input log " + mFileName, e);
+            mMode = OFF;
+            return false;
+        }
+    }
+
+    /**
+     * Check if events should come from the log instead of from the player
+     *
+     * @return True if the log is being replayed
+     */
+    boolean isReplaying() {
+        return mMode == REPLAYING;
+    }
+
+    /**
+     * When a playable level starts, begin recording or replaying, if we're waiting to
+     *
+     * @param index The index of the level that is starting
+     * @param world The level's main scene
+     */
+    void onLevelStart(int index, MainScene world) {
+        // if a level was being recorded or replayed, it's done
+        if (mMode == RECORDING || mMode == REPLAYING) {
+            finish();
+            return;
+        }
+        mStep = 0;
+        mLastStep = 0;
+        if (mMode == RECORD_PENDING) {
+            // pick a seed, so that the level's random numbers can be reproduced
+            long seed = System.nanoTime();
+            world.mGenerator.setSeed(seed);
+            mBytes = new ByteArrayOutputStream(64 * 1024);
+            mOut = new DataOutputStream(mBytes);
+            try {
+                mOut.writeInt(MAGIC);
+                mOut.writeInt(VERSION);
+                mOut.writeInt(index);
+                mOut.writeLong(seed);
+            } catch (IOException e) {
+                // ByteArrayOutputStream does not throw
+            }
+            mMode = RECORDING;
+        } else if (mMode == REPLAY_PENDING) {
+            if (mIn == null && !openReplay())
+                return;
+            if (index != mLevel)
+                return;
+            world.mGenerator.setSeed(mSeed);
+            mHaveNext = false;
+            mMode = REPLAYING;
+        }
+    }
+
+    /**
+     * Count a physics step
+     */
+    void onStep() {
+        mStep++;
+    }
+
+    /**
+     * Record an event, if we are recording
+     *
+     * @param type The type of event
+     * @param a    The first value of the event
+     * @param b    The second value of the event
+     * @param c    The third value of the event
+     * @param d    The fourth value of the event
+     */
+    void record(byte type, float a, float b, float c, float d) {
+        if (mMode != RECORDING)
+            return;
+        try {
+            mOut.writeByte(type);
+            // write the step delta as an unsigned LEB128 integer; it is almost always 0 or 1
+            int delta = mStep - mLastStep;
+            mLastStep = mStep;
+            while ((delta & ~0x7F) != 0) {
+                mOut.writeByte((delta & 0x7F) | 0x80);
+                delta >>>= 7;
+            }
+            mOut.writeByte(delta);
+            mOut.writeFloat(a);
+            mOut.writeFloat(b);
+            mOut.writeFloat(c);
+            mOut.writeFloat(d);
+        } catch (IOException e) {
+            // ByteArrayOutputStream does not throw
+        }
+    }
+
+    /**
+     * When replaying, check if the next event in the log should happen now.  If it should, the
+     * event is in mType, mA, mB, mC, and mD, and the caller must consume it by calling next().
+     *
+     * @param type The type of event the caller wants, or -1 for any input event other than tilt
+     * @return True if an event of the requested kind is due
+     */
+    boolean isDue(int type) {
+        if (mMode != REPLAYING)
+            return false;
+        if (!mHaveNext && !readNext())
+            return false;
+        // a tilt reading from an earlier step was never asked for, so skip it
+        while (mType == TILT && mNextStep < mStep) {
+            if (!readNext())
+                return false;
+        }
+        if (mNextStep > mStep)
+            return false;
+        return (type == -1) ? (mType != TILT) : (mType == type);
+    }
+
+    /**
+     * Consume the event that isDue reported
+     */
+    void next() {
+        mHaveNext = false;
+    }
+
+    /**
+     * Read the next record from the log
+     *
+     * @return False if the log has run out
+     */
+    private boolean readNext() {
+        try {
+            mType = mIn.readByte();
+            int delta = 0;
+            int shift = 0;
+            int b;
+            do {
+                b = mIn.readUnsignedByte();
+                delta |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            mNextStep = mLastStep + delta;
+            mLastStep = mNextStep;
+            mA = mIn.readFloat();
+            mB = mIn.readFloat();
+            mC = mIn.readFloat();
+            mD = mIn.readFloat();
+            mHaveNext = true;
+            return true;
+        } catch (IOException e) {
+            // end of the log
+            finish();
+            return false;
+        }
+    }
+
+    /**
+     * Get the tilt for the current step, either by recording the value the device gave, or by
+     * replacing it with the value from the log
+     *
+     * @param tilt The tilt reading from the device.  When replaying, it is overwritten.
+     */
+    void onTilt(Vector2 tilt) {
+        if (mMode == RECORDING) {
+            record(TILT, tilt.x, tilt.y, 0, 0);
+        } else if (isDue(TILT)) {
+            tilt.set(mA, mB);
+            next();
+        }
+    }
+
+    /**
+     * Stop recording or replaying.  A recording is written to its file.
+     */
+    void finish() {
+        if (mMode == RECORDING) {
+            Gdx.files.local(mFileName).writeBytes(mBytes.toByteArray(), false);
+            mOut = null;
+            mBytes = null;
+        } else if (mIn != null) {
+            try {
+                mIn.close();
+            } catch (IOException e) {
+                // nothing to do
+            }
+            mIn = null;
+        }
+        mMode = OFF;
+    }
+}
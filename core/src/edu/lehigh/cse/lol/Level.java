@@ -31,8 +31,11 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.g2d.ParticleEffect;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.BodyDef;
+import com.badlogic.gdx.physics.box2d.Fixture;
+import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Timer;
 
 /**
@@ -201,6 +204,83 @@ public class Level {
         mGame.mManager.mForeground.mBgCam.zoom = zoom;
     }
 
+    /**
+     * Group the actors in each z plane by the texture they are drawn from, so that the game makes
+     * fewer draw calls.  Actors that overlap when they are added keep their order, but actors that
+     * move on top of each other later might be drawn in a different order than they were added.
+     * If that matters, put them in different z planes.  The Profiler's flush count shows whether
+     * this helps.
+     *
+     * @param sort True to turn on texture sorting, false to draw actors in the order they were
+     *             added
+     */
+    public void setTextureSorting(boolean sort) {
+        mGame.mManager.mWorld.setTextureSorting(sort);
+    }
+
+    /**
+     * Put moving actors that are far from the camera to sleep, so that big levels don't spend time
+     * simulating things the player can't see.  Sleeping actors stop moving and stop following
+     * their routes until they come back within the margins.  Actors that must keep going no matter
+     * where they are (for example, an enemy that races the hero across the level) can opt out
+     * with BaseActor.setAlwaysActive.
+     *
+     * @param marginX How far (in meters) beyond the left and right edges of the screen an actor
+     *                stays awake, or a negative number to turn this off
+     * @param marginY How far (in meters) beyond the top and bottom edges of the screen an actor
+     *                stays awake
+     */
+    public void setActivationMargin(float marginX, float marginY) {
+        mGame.mManager.mWorld.setActivationMargin(marginX, marginY);
+    }
+
+    /**
+     * Make a new collision type for this level.  It starts out behaving just like an existing
+     * type, and then setCollisionHandler can change what happens when it collides with other
+     * types.  Use WorldActor.setCollisionType to give it to actors.
+     *
+     * @param baseType The type to copy (e.g., WorldActor.TYPE_OBSTACLE, or a type made earlier)
+     * @return The new type
+     */
+    public int makeCollisionType(int baseType) {
+        CollisionTable table = mGame.mManager.mWorld.mCollisions;
+        if (!table.isType(baseType)) {
+            Lol.message(mConfig, "ERROR", "Unknown collision type " + baseType);
+            return baseType;
+        }
+        return table.addType(baseType);
+    }
+
+    /**
+     * Set the code to run when an actor of one collision type collides with an actor of another.
+     * The callback gets the actor of the first type as <code>thisActor</code>.  When two actors
+     * collide, the handler for their types in that order is used if there is one, and otherwise
+     * the handler for the reverse order.
+     *
+     * @param typeA   The collision type of the first actor
+     * @param typeB   The collision type of the second actor
+     * @param handler The code to run, or null to make collisions between these types do nothing
+     */
+    public void setCollisionHandler(int typeA, int typeB, CollisionCallback handler) {
+        CollisionTable table = mGame.mManager.mWorld.mCollisions;
+        if (!table.isType(typeA) || !table.isType(typeB)) {
+            Lol.message(mConfig, "ERROR", "Unknown collision type " + typeA + " or " + typeB);
+            return;
+        }
+        table.set(typeA, typeB, handler);
+        // sensors may need to see (or stop seeing) actors of these types
+        mGame.mManager.mWorld.updateFilters();
+    }
+
+    /**
+     * Get the profiler, which reports how long each phase of the recent frames took
+     *
+     * @return The game's Profiler
+     */
+    public Profiler getProfiler() {
+        return mGame.mProfiler;
+    }
+
     /**
      * Register a callback so that custom code will run when the level is won
      *
@@ -490,100 +570,116 @@ public class Level {
     /**
      * Generate text indicating the current FPS
      */
-    public final TextProducer DisplayFPS = new TextProducer() {
+    public final TextProducer DisplayFPS = new NumberProducer() {
         @Override
-        public String makeText() {
-            return "" + Gdx.graphics.getFramesPerSecond();
+        public int makeNumber() {
+            return Gdx.graphics.getFramesPerSecond();
+        }
+    };
+
+    /**
+     * Generate a table of the time taken by each phase of recent frames.  The percentiles are
+     * sorted out of the recent frames, so the table is only rebuilt every half second or so.
+     */
+    public final TextProducer DisplayProfile = new BufferedTextProducer() {
+        @Override
+        public int getVersion() {
+            return mGame.mProfiler.getFrameCount() / 30;
+        }
+
+        @Override
+        public void appendText(StringBuilder sb) {
+            mGame.mProfiler.report(sb);
         }
     };
 
     /**
      * Generate text indicating the current count of Type 1 Goodies
      */
-    public final TextProducer DisplayGoodies1 = new TextProducer() {
+    public final TextProducer DisplayGoodies1 = new NumberProducer() {
         @Override
-        public String makeText() {
-            return "" + mGame.mManager.mGoodiesCollected[0];
+        public int makeNumber() {
+            return mGame.mManager.mGoodiesCollected[0];
         }
     };
 
     /**
      * Generate text indicating the current count of Type 2 Goodies
      */
-    public final TextProducer DisplayGoodies2 = new TextProducer() {
+    public final TextProducer DisplayGoodies2 = new NumberProducer() {
         @Override
-        public String makeText() {
-            return "" + mGame.mManager.mGoodiesCollected[1];
+        public int makeNumber() {
+            return mGame.mManager.mGoodiesCollected[1];
         }
     };
 
     /**
      * Generate text indicating the current count of Type 3 Goodies
      */
-    public final TextProducer DisplayGoodies3 = new TextProducer() {
+    public final TextProducer DisplayGoodies3 = new NumberProducer() {
         @Override
-        public String makeText() {
-            return "" + mGame.mManager.mGoodiesCollected[2];
+        public int makeNumber() {
+            return mGame.mManager.mGoodiesCollected[2];
         }
     };
 
     /**
      * Generate text indicating the current count of Type 4 Goodies
      */
-    public final TextProducer DisplayGoodies4 = new TextProducer() {
+    public final TextProducer DisplayGoodies4 = new NumberProducer() {
         @Override
-        public String makeText() {
-            return "" + mGame.mManager.mGoodiesCollected[3];
+        public int makeNumber() {
+            return mGame.mManager.mGoodiesCollected[3];
         }
     };
 
     /**
      * Generate text indicating the time until the level is lost
      */
-    public final TextProducer DisplayLoseCountdown = new TextProducer() {
+    public final TextProducer DisplayLoseCountdown = new NumberProducer() {
         @Override
-        public String makeText() {
-            return "" + (int) mGame.mManager.mLoseCountDownRemaining;
+        public int makeNumber() {
+            return (int) mGame.mManager.mLoseCountDownRemaining;
         }
     };
 
     /**
      * Generate text indicating the time until the level is won
      */
-    public final TextProducer DisplayWinCountdown = new TextProducer() {
+    public final TextProducer DisplayWinCountdown = new NumberProducer() {
         @Override
-        public String makeText() {
-            return "" + (int) mGame.mManager.mWinCountRemaining;
+        public int makeNumber() {
+            return (int) mGame.mManager.mWinCountRemaining;
         }
     };
 
     /**
      * Generate text indicating the number of defeated enemies
      */
-    public final TextProducer DisplayEnemiesDefeated = new TextProducer() {
+    public final TextProducer DisplayEnemiesDefeated = new NumberProducer() {
         @Override
-        public String makeText() {
-            return "" + mGame.mManager.mEnemiesDefeated;
+        public int makeNumber() {
+            return mGame.mManager.mEnemiesDefeated;
         }
     };
 
     /**
      * Generate text indicating the value of the stopwatch
      */
-    public final TextProducer DisplayStopwatch = new TextProducer() {
+    public final TextProducer DisplayStopwatch = new NumberProducer() {
         @Override
-        public String makeText() {
-            return "" + (int) mGame.mManager.mStopWatchProgress;
+        public int makeNumber() {
+            return (int) mGame.mManager.mStopWatchProgress;
         }
     };
 
     /**
      * Generate text indicating the remaining projectiles
      */
-    public final TextProducer DisplayRemainingProjectiles = new TextProducer() {
+    public final TextProducer DisplayRemainingProjectiles = new NumberProducer() {
         @Override
-        public String makeText() {
-            return "" + mGame.mManager.mWorld.mProjectilePool.mProjectilesRemaining;
+        public int makeNumber() {
+            return mGame.mManager.mWorld.mProjectilePool.mProjectilesRemaining;
         }
     };
 
@@ -594,10 +690,10 @@ public class Level {
      * @return A TextProducer who produces the hero's strength
      */
     public TextProducer DisplayStrength(final Hero h) {
-        return new TextProducer() {
+        return new NumberProducer() {
             @Override
-            public String makeText() {
-                return "" + h.getStrength();
+            public int makeNumber() {
+                return h.getStrength();
             }
         };
     }
@@ -609,10 +705,10 @@ public class Level {
      * @return A TextProducer who reports the current value
      */
     public TextProducer DisplayLevelFact(final String key) {
-        return new TextProducer() {
+        return new NumberProducer() {
             @Override
-            public String makeText() {
-                return "" + getLevelFact(key, -1);
+            public int makeNumber() {
+                return getLevelFact(key, -1);
             }
         };
     }
@@ -624,10 +720,10 @@ public class Level {
      * @return A TextProducer who reports the current value
      */
     public TextProducer DisplaySessionFact(final String key) {
-        return new TextProducer() {
+        return new NumberProducer() {
             @Override
-            public String makeText() {
-                return "" + getSessionFact(key, -1);
+            public int makeNumber() {
+                return getSessionFact(key, -1);
             }
         };
     }
@@ -639,10 +735,10 @@ public class Level {
      * @return A TextProducer who reports the current value
      */
     public TextProducer DisplayGameFact(final String key) {
-        return new TextProducer() {
+        return new NumberProducer() {
             @Override
-            public String makeText() {
-                return "" + getGameFact(key, -1);
+            public int makeNumber() {
+                return getGameFact(key, -1);
             }
         };
     }
@@ -656,11 +752,11 @@ public class Level {
      * @return A TextProducer that reports the current value
      */
     public TextProducer DisplayDistance(final WorldActor actor) {
-        return new TextProducer() {
+        return new NumberProducer() {
             @Override
-            public String makeText() {
+            public int makeNumber() {
                 mGame.mManager.mDistance = (int) actor.getXPosition();
-                return "" + mGame.mManager.mDistance;
+                return mGame.mManager.mDistance;
             }
         };
     }
@@ -765,6 +861,9 @@ public class Level {
         return new TouchEventHandler() {
             @Override
             public boolean go(float x, float y) {
+                // a hero that has been removed from the level can't jump
+                if (hero.mBody == null)
+                    return true;
                 hero.jump();
                 return true;
             }
@@ -788,6 +887,8 @@ public class Level {
                                               final float velocityY) {
         return new TouchEventHandler() {
             public boolean go(float x, float y) {
+                if (hero.mBody == null)
+                    return true;
                 mGame.mManager.mWorld.mProjectilePool.throwFixed(hero, offsetX, offsetY, velocityX,
                         velocityY);
                 return true;
@@ -810,6 +911,8 @@ public class Level {
                                                     final float offsetY) {
         return new TouchEventHandler() {
             public boolean go(float worldX, float worldY) {
+                if (hero.mBody == null)
+                    return true;
                 mGame.mManager.mWorld.mProjectilePool.throwAt(hero.mBody.getPosition().x,
                         hero.mBody.getPosition().y, worldX, worldY, hero, offsetX, offsetY);
                 return true;
@@ -909,6 +1012,9 @@ public class Level {
         return new LolAction() {
             @Override
             public void go() {
+                // controls outlive the actors they move, so do nothing once the actor is removed
+                if (actor.mBody == null)
+                    return;
                 Vector2 v = actor.mBody.getLinearVelocity();
                 v.x = xRate;
                 actor.updateVelocity(v.x, v.y);
@@ -929,6 +1035,8 @@ public class Level {
         return new LolAction() {
             @Override
             public void go() {
+                if (actor.mBody == null)
+                    return;
                 Vector2 v = actor.mBody.getLinearVelocity();
                 v.y = yRate;
                 actor.updateVelocity(v.x, v.y);
@@ -952,6 +1060,8 @@ public class Level {
         return new LolAction() {
             @Override
             public void go() {
+                if (actor.mBody == null)
+                    return;
                 actor.updateVelocity(xRate, yRate);
             }
         };
@@ -974,6 +1084,8 @@ public class Level {
         return new LolAction() {
             @Override
             public void go() {
+                if (actor.mBody == null)
+                    return;
                 actor.updateVelocity(xRate, yRate);
                 actor.mBody.setLinearDamping(dampening);
             }
@@ -991,6 +1103,8 @@ public class Level {
         return new LolAction() {
             @Override
             public void go() {
+                if (hero.mBody == null)
+                    return;
                 if (crawlState)
                     hero.crawlOn();
                 else
@@ -1010,6 +1124,8 @@ public class Level {
         return new LolAction() {
             @Override
             public void go() {
+                if (hero.mBody == null)
+                    return;
                 hero.increaseRotation(rate);
             }
         };
@@ -1037,6 +1153,8 @@ public class Level {
 
             @Override
             public void go() {
+                if (hero.mBody == null)
+                    return;
                 long now = System.currentTimeMillis();
                 if (mLastThrow + milliDelay < now) {
                     mLastThrow = now;
@@ -1102,7 +1220,8 @@ public class Level {
         c.mToggleHandler.mSource = c;
         c.mPanHandler.mSource = c;
 
-        mGame.mManager.mWorld.mRepeatEvents.add(new LolAction() {
+        // the hero owns the throwing, so that it stops when the hero is removed
+        h.addCallback(mGame.mManager.mWorld.mRepeatEvents, new LolAction() {
             long mLastThrow;
 
             @Override
@@ -1494,12 +1613,9 @@ public class Level {
      * @return the Effect, so that it can be modified further
      */
     public Effect makeParticleSystem(String filename, int zIndex, float x, float y) {
-        Effect e = new Effect();
-
-        // create the particle effect system.
-        ParticleEffect pe = new ParticleEffect();
-        pe.load(Gdx.files.internal(filename), Gdx.files.internal(""));
-        e.mParticleEffect = pe;
+        // get a particle effect system from the pool for this file
+        ParticleEffect pe = mMedia.getParticleEffect(filename);
+        Effect e = new Effect(mGame.mManager.mWorld, pe);
 
         // update the effect's coordinates to reflect world coordinates
         pe.getEmitters().first().setPosition(x, y);
@@ -1850,6 +1966,91 @@ public class Level {
         return g;
     }
 
+    /**
+     * Make a pool of enemies.  Levels that keep making enemies (e.g., in waves) should take them
+     * from a pool, so that defeated enemies can be re-used instead of making new ones.
+     *
+     * @param size     The number of enemies to make now
+     * @param width    The width of each enemy
+     * @param height   The height of each enemy
+     * @param imgName  The name of the image to display
+     * @param isCircle Should the enemies have an underlying circle or box shape?
+     * @return The pool.  Use its get() method in place of makeEnemyAsBox or makeEnemyAsCircle.
+     */
+    public ActorPool<Enemy> makeEnemyPool(int size, float width, float height, String imgName,
+                                          boolean isCircle) {
+        // circle enemies are as wide as they are tall
+        if (isCircle)
+            width = height = Math.max(width, height);
+        ActorPool<Enemy> pool = new ActorPool<Enemy>(mGame.mManager.mWorld, width, height, imgName,
+                isCircle) {
+            @Override
+            Enemy makeActor() {
+                return new Enemy(mGame, mScene, mWidth, mHeight, mImgName);
+            }
+
+            @Override
+            void onGet(Enemy actor) {
+                mGame.mManager.mEnemiesCreated++;
+            }
+        };
+        pool.fill(size);
+        return pool;
+    }
+
+    /**
+     * Make a pool of obstacles, so that obstacles can be re-used instead of making new ones
+     *
+     * @param size     The number of obstacles to make now
+     * @param width    The width of each obstacle
+     * @param height   The height of each obstacle
+     * @param imgName  The name of the image to display
+     * @param isCircle Should the obstacles have an underlying circle or box shape?
+     * @return The pool.  Use its get() method in place of makeObstacleAsBox or
+     * makeObstacleAsCircle.
+     */
+    public ActorPool<Obstacle> makeObstaclePool(int size, float width, float height,
+                                                String imgName, boolean isCircle) {
+        ActorPool<Obstacle> pool = new ActorPool<Obstacle>(mGame.mManager.mWorld, width, height,
+                imgName, isCircle) {
+            @Override
+            Obstacle makeActor() {
+                return new Obstacle(mGame, mScene, mWidth, mHeight, mImgName);
+            }
+        };
+        pool.fill(size);
+        return pool;
+    }
+
+    /**
+     * Make a pool of goodies, so that goodies can be re-used instead of making new ones.  Each
+     * goodie has a default score of [1,0,0,0] when it is taken from the pool.
+     *
+     * @param size     The number of goodies to make now
+     * @param width    The width of each goodie
+     * @param height   The height of each goodie
+     * @param imgName  The name of the image to display
+     * @param isCircle Should the goodies have an underlying circle or box shape?
+     * @return The pool.  Use its get() method in place of makeGoodieAsBox or makeGoodieAsCircle.
+     */
+    public ActorPool<Goodie> makeGoodiePool(int size, float width, float height, String imgName,
+                                            boolean isCircle) {
+        ActorPool<Goodie> pool = new ActorPool<Goodie>(mGame.mManager.mWorld, width, height,
+                imgName, isCircle) {
+            @Override
+            Goodie makeActor() {
+                return new Goodie(mGame, mScene, mWidth, mHeight, mImgName);
+            }
+
+            @Override
+            void onGet(Goodie actor) {
+                actor.setCollisionsEnabled(false);
+            }
+        };
+        pool.fill(size);
+        return pool;
+    }
+
     /**
      * Make a Hero with an underlying rectangular shape
      *
@@ -2072,8 +2273,10 @@ public class Level {
 
     /**
      * Load an SVG line drawing generated from Inkscape. The SVG will be loaded as a bunch of
-     * Obstacles. Note that not all Inkscape drawings will work as expected... if you need more
-     * power than this provides, you'll have to modify Svg.java
+     * Obstacles. Curves are turned into lines (see Config.mSvgTolerance), and the lines are cached
+     * (see Config.mSvgCacheFolder), so loading the same drawing again is fast. Note that not all
+     * Inkscape drawings will work as expected... if you need more power than this provides, you'll
+     * have to modify Svg.java
      *
      * @param svgName    Name of the svg file to load. It should be in the assets folder
      * @param stretchX   Stretch the drawing in the X dimension by this percentage
@@ -2089,6 +2292,39 @@ public class Level {
         s.parse(svgName);
     }
 
+    /**
+     * Load an SVG line drawing generated from Inkscape as a single Obstacle. Each path in the
+     * drawing becomes one ChainShape fixture of a static body, which is much cheaper than making a
+     * separate Obstacle for every line segment. Closed paths (those ending with "z") become loops.
+     *
+     * @param svgName    Name of the svg file to load. It should be in the assets folder
+     * @param stretchX   Stretch the drawing in the X dimension by this percentage
+     * @param stretchY   Stretch the drawing in the Y dimension by this percentage
+     * @param transposeX Shift the drawing in the X dimension. NB: shifting occurs after stretching
+     * @param transposeY Shift the drawing in the Y dimension. NB: shifting occurs after stretching
+     * @param simplify   True to drop points that are on a straight line between their neighbors
+     * @param imgName    The image to use when drawing the lines, or "" to not draw them
+     * @param callback   A callback for customizing the fixture of each path, or null
+     * @return The Obstacle for the whole drawing, or null if the file had no usable paths
+     */
+    public Obstacle importLineDrawingAsChains(String svgName, float stretchX, float stretchY,
+                                              float transposeX, float transposeY, boolean simplify,
+                                              String imgName, SvgPathEvent callback) {
+        Svg s = new Svg(this, stretchX, stretchY, transposeX, transposeY, simplify);
+        s.parse(svgName);
+        if (s.mPaths.isEmpty())
+            return null;
+        MainScene world = mGame.mManager.mWorld;
+        LineDrawing d = new LineDrawing(mGame, world, s.mPaths, s.mPathLoops, imgName);
+        world.addActor(d, 0);
+        if (callback != null) {
+            Array<Fixture> fixtures = d.mBody.getFixtureList();
+            for (int i = 0; i < fixtures.size; ++i)
+                callback.go(d, fixtures.get(i));
+        }
+        return d;
+    }
+
     /**
      * Use this to manage the state of Mute
      */
@@ -2124,8 +2360,8 @@ public class Level {
      * @param width   Width of the picture
      * @param height  Height of this picture
      * @param imgName Name of the picture to display
-     * @param zIndex  The z index of the image. There are 5 planes: -2, -2, 0, 1, and 2. By default,
-     *                everything goes to plane 0
+     * @param zIndex  The z index of the image. Any integer can be used, and lower planes are drawn
+     *                first. By default, everything goes to plane 0
      */
     public void drawPicture(final float x, final float y, final float width, final float height,
                             final String imgName, int zIndex) {
@@ -2271,4 +2507,51 @@ public class Level {
     public Animation makeAnimation(int timePerFrame, boolean repeat, String... imgNames) {
         return new Animation(this.mMedia, timePerFrame, repeat, imgNames);
     }
+
+    /**
+     * Create a new animation from the cells of a sprite sheet, showing each cell for the same
+     * amount of time.  The sheet is split into a grid of equal-sized cells, which are numbered from
+     * 0, across each row, starting at the top.
+     *
+     * @param timePerFrame The time to show each cell
+     * @param repeat       True if the animation should repeat when it reaches the end
+     * @param sheetName    The name of the sprite sheet image
+     * @param columns      The number of columns of cells in the sheet
+     * @param rows         The number of rows of cells in the sheet
+     * @param cells        The cells to show, in order.  If none are given, every cell of the sheet
+     *                     is shown.
+     * @return The animation
+     */
+    public Animation makeSheetAnimation(int timePerFrame, boolean repeat, String sheetName,
+                                        int columns, int rows, int... cells) {
+        if (cells.length == 0) {
+            TextureRegion[] sheet = mMedia.getSheetCells(sheetName, columns, rows);
+            // Media has reported the problem; show a single blank frame instead
+            if (sheet == null)
+                sheet = new TextureRegion[1];
+            return new Animation(this.mMedia, timePerFrame, repeat, sheet);
+        }
+        TextureRegion[] frames = new TextureRegion[cells.length];
+        for (int i = 0; i < cells.length; ++i)
+            frames[i] = mMedia.getSheetCell(sheetName, columns, rows, cells[i]);
+        return new Animation(this.mMedia, timePerFrame, repeat, frames);
+    }
+
+    /**
+     * Create a new animation from a numbered sequence of texture atlas regions, showing each one
+     * for the same amount of time.  If the atlas was packed from "walk_0.png", "walk_1.png", and so
+     * on, then the name of the sequence is "walk".
+     *
+     * @param timePerFrame The time to show each region
+     * @param repeat       True if the animation should repeat when it reaches the end
+     * @param regionName   The name that the regions share
+     * @return The animation
+     */
+    public Animation makeAtlasAnimation(int timePerFrame, boolean repeat, String regionName) {
+        TextureRegion[] frames = mMedia.getImageSequence(regionName);
+        // with no regions, make a one-frame animation that shows nothing
+        if (frames == null)
+            frames = new TextureRegion[1];
+        return new Animation(this.mMedia, timePerFrame, repeat, frames);
+    }
 }
@@ -0,0 +1,172 @@
+/**
+ * This is free and unencumbered software released into the public domain.
+ * <p>
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ * <p>
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ * <p>
+ * For more information, please refer to <http://unlicense.org>
+ */
+
+package edu.lehigh.cse.lol;
+
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.physics.box2d.BodyDef;
+import com.badlogic.gdx.physics.box2d.ChainShape;
+import com.badlogic.gdx.physics.box2d.FixtureDef;
+import com.badlogic.gdx.utils.BooleanArray;
+
+import java.util.ArrayList;
+
+/**
+ * A LineDrawing is an obstacle made from the paths of an SVG line drawing.  Each path is one
+ * ChainShape fixture (a loop, if the path was closed), and all of them share a single static
+ * body.  The outline is drawn by this actor, as one thin stretched image per segment, so that the
+ * whole drawing costs one texture bind.
+ */
+class LineDrawing extends Obstacle {
+    /// The thickness of the drawn outline, in meters
+    private static final float THICKNESS = .1f;
+
+    /// The image to stretch over each segment, or null if the outline shouldn't be drawn
+    private final TextureRegion mOutline;
+    /// For each segment, the X and Y of its center (relative to the body), its length, and its
+    /// angle in degrees
+    private final float[] mSegments;
+    /// The number of segments
+    private final int mNumSegments;
+
+    /**
+     * Make an obstacle from a set of paths
+     *
+     * @param game    The currently active game
+     * @param scene   The scene into which the drawing is being placed
+     * @param paths   The points of each path, in meters, as x,y pairs
+     * @param closed  For each path, true if it should be a loop
+     * @param imgName The image to draw the outline with, or "" for an invisible drawing
+     */
+    LineDrawing(Lol game, MainScene scene, ArrayList<float[]> paths, BooleanArray closed,
+                String imgName) {
+        super(game, scene, 0, 0, "");
+        mOutline = imgName.equals("") ? null : scene.mMedia.getImage(imgName);
+
+        // find the bounding box, and count the segments
+        float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE;
+        float maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE;
+        int segments = 0;
+        for (int p = 0; p < paths.size(); ++p) {
+            float[] pts = paths.get(p);
+            for (int i = 0; i < pts.length; i += 2) {
+                minX = Math.min(minX, pts[i]);
+                maxX = Math.max(maxX, pts[i]);
+                minY = Math.min(minY, pts[i + 1]);
+                maxY = Math.max(maxY, pts[i + 1]);
+            }
+            segments += pts.length / 2 - (closed.get(p) ? 0 : 1);
+        }
+        mSize.set(maxX - minX, maxY - minY);
+        float cx = (minX + maxX) / 2;
+        float cy = (minY + maxY) / 2;
+
+        // make one static body at the center of the drawing, with a chain for each path
+        BodyDef bd = new BodyDef();
+        bd.type = BodyDef.BodyType.StaticBody;
+        bd.position.set(cx, cy);
+        mBody = scene.mWorld.createBody(bd);
+        FixtureDef fd = new FixtureDef();
+        mSegments = new float[segments * 4];
+        mNumSegments = segments;
+        int s = 0;
+        for (int p = 0; p < paths.size(); ++p) {
+            float[] pts = paths.get(p);
+            for (int i = 0; i < pts.length; i += 2) {
+                pts[i] -= cx;
+                pts[i + 1] -= cy;
+            }
+            ChainShape chain = new ChainShape();
+            if (closed.get(p))
+                chain.createLoop(pts);
+            else
+                chain.createChain(pts);
+            fd.shape = chain;
+            mBody.createFixture(fd);
+            chain.dispose();
+
+            // remember each segment, for drawing
+            int n = pts.length / 2;
+            int last = closed.get(p) ? n : n - 1;
+            for (int i = 0; i < last; ++i) {
+                float x1 = pts[2 * i], y1 = pts[2 * i + 1];
+                float x2 = pts[(2 * i + 2) % pts.length], y2 = pts[(2 * i + 3) % pts.length];
+                mSegments[s++] = (x1 + x2) / 2;
+                mSegments[s++] = (y1 + y2) / 2;
+                mSegments[s++] = (float) Math.sqrt((x2 - x1) * (x2 - x1) + (y2 - y1) * (y2 - y1));
+                mSegments[s++] = MathUtils.atan2(y2 - y1, x2 - x1) * MathUtils.radiansToDegrees;
+            }
+        }
+        mBody.setUserData(this);
+        saveTransform();
+        updateFilter();
+        // the static cache only knows how to draw one image per actor
+        mNeverCache = true;
+    }
+
+    /**
+     * Draw the outline.  Every segment uses the same image, so the SpriteBatch doesn't flush
+     * between them.
+     *
+     * @param sb    The SpriteBatch to use for drawing
+     * @param delta The time since the last render
+     */
+    @Override
+    void onRender(SpriteBatch sb, float delta) {
+        if (mOutline == null || mDormant)
+            return;
+        float x = mBody.getPosition().x;
+        float y = mBody.getPosition().y;
+        float angle = mBody.getAngle();
+        float halfW = mSize.x / 2 + THICKNESS;
+        float halfH = mSize.y / 2 + THICKNESS;
+        if (angle != 0)
+            halfW = halfH = (float) Math.sqrt(halfW * halfW + halfH * halfH);
+        if (!mScene.inView(x, y, halfW, halfH))
+            return;
+        float cos = MathUtils.cos(angle);
+        float sin = MathUtils.sin(angle);
+        float degrees = angle * MathUtils.radiansToDegrees;
+        for (int i = 0; i < mNumSegments * 4; i += 4) {
+            float len = mSegments[i + 2];
+            float sx = x + mSegments[i] * cos - mSegments[i + 1] * sin;
+            float sy = y + mSegments[i] * sin + mSegments[i + 1] * cos;
+            sb.draw(mOutline, sx - len / 2, sy - THICKNESS / 2, len / 2, THICKNESS / 2, len,
+                    THICKNESS, 1, 1, mSegments[i + 3] + degrees);
+        }
+    }
+
+    /**
+     * A line drawing's shape comes from its paths, so it can't be resized
+     */
+    @Override
+    public void resize(float x, float y, float width, float height) {
+        Lol.message(mScene.mConfig, "ERROR", "A line drawing can't be resized");
+    }
+}
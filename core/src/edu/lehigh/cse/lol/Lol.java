@@ -68,6 +68,20 @@ public class Lol implements ApplicationListener {
     /// repeatedly, once for each screen to revert.
     private boolean mKeyDown;
 
+    /// The Profiler tracks how long each phase of each frame takes
+    final Profiler mProfiler = new Profiler();
+
+    /// The handler for gestures
+    private LolGestureManager mGestures;
+    /// The handler for touches that aren't gestures
+    private LolInputManager mInputs;
+    /// The log for recording input, or for replaying it
+    final InputLog mInputLog = new InputLog();
+
+    /// The amount of frame time that has not yet been consumed by fixed-size physics steps.  It is
+    /// reset whenever the screen changes, so that a new level doesn't inherit the old one's time.
+    float mStepAccumulator;
+
     /**
      * Look up a fact that was stored for the current game session. If no such fact exists,
      * defaultVal will be returned.
@@ -133,6 +147,73 @@ public class Lol implements ApplicationListener {
         mConfig = config;
     }
 
+    /**
+     * Get the profiler, which reports how long each phase of the recent frames took
+     *
+     * @return The game's Profiler
+     */
+    public Profiler getProfiler() {
+        return mProfiler;
+    }
+
+    /**
+     * Record the player's input during the next playable level, so that it can be replayed later.
+     * The recording is saved to a file in local storage when the level ends, or the game exits.
+     *
+     * @param fileName The name of the file to save
+     */
+    public void recordInput(String fileName) {
+        mInputLog.startRecording(fileName);
+    }
+
+    /**
+     * Replay input that was saved by recordInput().  When the level that was recorded starts, the
+     * recorded input is fed to the game, step by step.
+     *
+     * @param fileName The name of the file in local storage
+     */
+    public void replayInput(String fileName) {
+        mInputLog.startReplay(fileName);
+    }
+
+    /**
+     * During a replay, deliver any recorded input events that are due, exactly as if they had come
+     * from the player
+     */
+    private void replayInput() {
+        while (mInputLog.isDue(-1)) {
+            byte type = mInputLog.mType;
+            float a = mInputLog.mA, b = mInputLog.mB, c = mInputLog.mC, d = mInputLog.mD;
+            mInputLog.next();
+            switch (type) {
+                case InputLog.TAP:
+                    mGestures.tap(a, b, (int) c, (int) d);
+                    break;
+                case InputLog.FLING:
+                    mGestures.fling(a, b, (int) c);
+                    break;
+                case InputLog.PAN:
+                    mGestures.pan(a, b, c, d);
+                    break;
+                case InputLog.PAN_STOP:
+                    mGestures.panStop(a, b, (int) c, (int) d);
+                    break;
+                case InputLog.ZOOM:
+                    mGestures.zoom(a, b);
+                    break;
+                case InputLog.DOWN:
+                    mInputs.touchDown((int) a, (int) b, (int) c, (int) d);
+                    break;
+                case InputLog.UP:
+                    mInputs.touchUp((int) a, (int) b, (int) c, (int) d);
+                    break;
+                case InputLog.DRAG:
+                    mInputs.touchDragged((int) a, (int) b, (int) c);
+                    break;
+            }
+        }
+    }
+
     /**
      * A hack for stopping events when a pause screen is opened
      *
@@ -148,6 +229,9 @@ public class Lol implements ApplicationListener {
      * We can call this method from the render loop to poll for back presses
      */
     private void handleKeyDown() {
+        // a back press during a replay would make the session differ from the recording
+        if (mInputLog.isReplaying())
+            return;
         // if neither BACK nor ESCAPE is being pressed, do nothing, but recognize future presses
         if (!Gdx.input.isKeyPressed(Keys.BACK) && !Gdx.input.isKeyPressed(Keys.ESCAPE)) {
             mKeyDown = false;
@@ -176,6 +260,7 @@ public class Lol implements ApplicationListener {
          */
         @Override
         public boolean tap(float x, float y, int count, int button) {
+            mInputLog.record(InputLog.TAP, x, y, count, button);
             // Give each pop-up scene a chance to go the tap
             if (mManager.mWinScene.onTap(x, y, Lol.this))
                 return true;
@@ -201,6 +286,7 @@ public class Lol implements ApplicationListener {
          */
         @Override
         public boolean fling(float velocityX, float velocityY, int button) {
+            mInputLog.record(InputLog.FLING, velocityX, velocityY, button, 0);
             return mManager.mWorld.handleFling(velocityX, velocityY);
         }
 
@@ -214,6 +300,7 @@ public class Lol implements ApplicationListener {
          */
         @Override
         public boolean pan(float x, float y, float deltaX, float deltaY) {
+            mInputLog.record(InputLog.PAN, x, y, deltaX, deltaY);
             // check if we panned a control
             if (mManager.mHud.handlePan(x, y, deltaX, deltaY, mManager.mWorld.mCamera))
                 return true;
@@ -232,6 +319,7 @@ public class Lol implements ApplicationListener {
          */
         @Override
         public boolean panStop(float x, float y, int pointer, int button) {
+            mInputLog.record(InputLog.PAN_STOP, x, y, pointer, button);
             // check if we panStopped a control
             return mManager.mHud.handlePanStop(x, y, mManager.mWorld.mCamera) ||
                     mManager.mWorld.handlePanStop(x, y);
@@ -245,6 +333,7 @@ public class Lol implements ApplicationListener {
          */
         @Override
         public boolean zoom(float initialDistance, float distance) {
+            mInputLog.record(InputLog.ZOOM, initialDistance, distance, 0, 0);
             return mManager.mHud.handleZoom(initialDistance, distance);
         }
     }
@@ -264,6 +353,7 @@ public class Lol implements ApplicationListener {
          */
         @Override
         public boolean touchDown(int screenX, int screenY, int pointer, int button) {
+            mInputLog.record(InputLog.DOWN, screenX, screenY, pointer, button);
             return mManager.mHud.handleDown(screenX, screenY, mManager.mWorld.mCamera)
                     || mManager.mWorld.handleDown(screenX, screenY);
         }
@@ -278,6 +368,7 @@ public class Lol implements ApplicationListener {
          */
         @Override
         public boolean touchUp(int screenX, int screenY, int pointer, int button) {
+            mInputLog.record(InputLog.UP, screenX, screenY, pointer, button);
             // check if we down-pressed a control
             return mManager.mHud.handleUp(screenX, screenY, mManager.mWorld.mCamera) ||
                     mManager.mWorld.handleUp(screenX, screenY);
@@ -293,6 +384,7 @@ public class Lol implements ApplicationListener {
          */
         @Override
         public boolean touchDragged(int screenX, int screenY, int pointer) {
+            mInputLog.record(InputLog.DRAG, screenX, screenY, pointer, 0);
             return mManager.mWorld.handleDrag(screenX, screenY);
         }
     }
@@ -324,9 +416,29 @@ public class Lol implements ApplicationListener {
 
         // Configure the input handlers.  We process gestures first, and if no gesture occurs, then
         // we look for a non-gesture touch event
+        mGestures = new LolGestureManager();
+        mInputs = new LolInputManager();
         InputMultiplexer mux = new InputMultiplexer();
-        mux.addProcessor(new GestureDetector(new LolGestureManager()));
-        mux.addProcessor(new LolInputManager());
+        // During a replay, the log is the only source of input, so live touches are dropped before
+        // the gesture detector can see them
+        mux.addProcessor(new InputAdapter() {
+            @Override
+            public boolean touchDown(int screenX, int screenY, int pointer, int button) {
+                return mInputLog.isReplaying();
+            }
+
+            @Override
+            public boolean touchUp(int screenX, int screenY, int pointer, int button) {
+                return mInputLog.isReplaying();
+            }
+
+            @Override
+            public boolean touchDragged(int screenX, int screenY, int pointer) {
+                return mInputLog.isReplaying();
+            }
+        });
+        mux.addProcessor(new GestureDetector(mGestures));
+        mux.addProcessor(mInputs);
         Gdx.input.setInputProcessor(mux);
 
         // configure the volume
@@ -349,8 +461,15 @@ public class Lol implements ApplicationListener {
      */
     @Override
     public void dispose() {
-        if (mManager != null)
+        if (mManager != null) {
             mManager.mWorld.pauseMusic();
+            // release the physics worlds... the game can't run without them, so drop the manager
+            mManager.dispose();
+            mManager = null;
+        }
+
+        // save any input that is being recorded
+        mInputLog.finish();
 
         // dispose of all fonts, TextureRegions, etc...
         //
@@ -361,7 +480,7 @@ public class Lol implements ApplicationListener {
     }
 
     /**
-     * This code is called every 1/45th of a second to update the game state and re-draw the screen
+     * This code is called once per frame to update the game state and re-draw the screen
      * <p>
      * NB: This is an internal method. User code should never call this.
      */
@@ -373,8 +492,14 @@ public class Lol implements ApplicationListener {
 
         float delta = Gdx.graphics.getDeltaTime();
 
-        // Check for back press
+        // Check for back press, and deliver any input that is being replayed
+        mProfiler.beginFrame();
         handleKeyDown();
+        // a back press on the splash screen shuts the game down
+        if (mManager == null)
+            return;
+        replayInput();
+        mProfiler.end(Profiler.Phase.INPUT);
 
         // Make sure the music is playing... Note that we start music before the PreScene shows
         mManager.mWorld.playMusic();
@@ -404,27 +529,11 @@ public class Lol implements ApplicationListener {
         // Update the win/lose timers
         mManager.updateTimeCounts();
 
-        // handle accelerometer stuff... note that accelerometer is effectively disabled during a
-        // popup... we could change that by moving this to the top, but that's probably not going to
-        // produce logical behavior
-        mManager.mWorld.handleTilt();
-
-        // Advance the physics world by 1/45 of a second.
-        //
-        // NB: in Box2d, This is the recommended rate for phones, though it seems like we should be
-        //     using /delta/ instead of 1/45f
-        mManager.mWorld.mWorld.step(1 / 45f, 8, 3);
-
-        // now handle any events that occurred on account of the world movement or screen touches
-        for (LolAction pe : mManager.mWorld.mOneTimeEvents)
-            pe.go();
-        mManager.mWorld.mOneTimeEvents.clear();
-
-        // handle repeat events
-        for (LolAction pe : mManager.mWorld.mRepeatEvents) {
-            if (pe.mIsActive)
-                pe.go();
-        }
+        // Advance the physics world, and run any events that result from the movement
+        advanceWorld(delta);
+        ContactQueue contacts = mManager.mWorld.mContacts;
+        mProfiler.setContactCounts(contacts.takeAddedCount(), contacts.getPeak(),
+                contacts.getDropped(), contacts.getCapacity());
 
         // check for end of game
         if (mManager.mEndGameEvent != null)
@@ -432,36 +541,130 @@ public class Lol implements ApplicationListener {
 
         // prepare the main camera... we do it here, so that the parallax code knows where to
         // draw...
+        mProfiler.begin();
         mManager.mWorld.adjustCamera();
         mManager.mWorld.mCamera.update();
+        mProfiler.end(Profiler.Phase.CAMERA);
 
         // The world is now static for this time step... we can display it!
 
         // clear the screen
+        mProfiler.begin();
         Gdx.gl.glClearColor(mManager.mBackground.mColor.r, mManager.mBackground.mColor.g, mManager.mBackground.mColor.b, 1);
         Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
 
         // draw parallax backgrounds
         mManager.mBackground.renderLayers(mManager.mWorld.mCamera.position.x,
                 mManager.mWorld.mCamera.position.y, mSpriteBatch, delta);
+        mProfiler.end(Profiler.Phase.BACKGROUND);
 
         // render the actors
+        mProfiler.begin();
+        int renderCalls = mSpriteBatch.totalRenderCalls;
         mManager.mWorld.render(mSpriteBatch, delta);
+        mProfiler.setDrawCounts(mManager.mWorld.mDrawnCount, mManager.mWorld.mCulledCount,
+                mSpriteBatch.totalRenderCalls - renderCalls);
+        mProfiler.end(Profiler.Phase.WORLD);
 
         // draw parallax foregrounds
+        mProfiler.begin();
         mManager.mForeground.renderLayers(mManager.mWorld.mCamera.position.x,
                 mManager.mWorld.mCamera.position.y, mSpriteBatch, delta);
 
-        // DEBUG: draw outlines of physics actors
+        // DEBUG: draw outlines of physics actors.  They go on top of the foreground, so their time
+        // is counted with it.
         //
         // TODO: pass the debug renderer to the Scenes?
         if (mConfig.mShowDebugBoxes)
             mDebugRender.render(mManager.mWorld.mWorld, mManager.mWorld.mCamera.combined);
+        mProfiler.end(Profiler.Phase.FOREGROUND);
 
         // draw Controls
+        mProfiler.begin();
         mManager.mHud.render(mSpriteBatch, delta);
         if (mConfig.mShowDebugBoxes)
             mDebugRender.render(mManager.mHud.mWorld, mManager.mHud.mCamera.combined);
+        mProfiler.end(Profiler.Phase.HUD);
+        mProfiler.endFrame();
+    }
+
+    /**
+     * Advance the physics world of the main scene, either by a single step, or by as many
+     * fixed-size steps as fit in the time that has elapsed (see Config.mFixedTimestep)
+     *
+     * @param delta The time since the last render
+     */
+    private void advanceWorld(float delta) {
+        float step = 1f / mConfig.mStepsPerSecond;
+
+        // In the simple case, we take one step per frame, regardless of how long the frame took
+        if (!mConfig.mFixedTimestep) {
+            stepWorld(step);
+            mManager.mWorld.mStepAlpha = 1;
+            return;
+        }
+
+        // Otherwise, take as many steps as the accumulated time permits, but no more than the
+        // configured maximum.  We also stop as soon as the level ends.
+        mStepAccumulator += delta;
+        int steps = 0;
+        while (mStepAccumulator >= step && steps < mConfig.mMaxStepsPerFrame
+                && mManager.mEndGameEvent == null) {
+            mManager.mWorld.saveTransforms();
+            stepWorld(step);
+            mStepAccumulator -= step;
+            steps++;
+        }
+        // If we couldn't catch up, drop the backlog instead of carrying it into the next frame
+        if (mStepAccumulator >= step)
+            mStepAccumulator %= step;
+        // Tell the world how far we are between the last step and the next one
+        mManager.mWorld.mStepAlpha = mStepAccumulator / step;
+    }
+
+    /**
+     * Advance the physics world of the main scene by a single step, and then run any events that
+     * occurred on account of the world movement or screen touches
+     *
+     * @param step The amount of time to simulate, in seconds
+     */
+    private void stepWorld(float step) {
+        // handle accelerometer stuff... note that accelerometer is effectively disabled during a
+        // popup... we could change that by moving this to the top, but that's probably not going to
+        // produce logical behavior
+        mProfiler.begin();
+        replayInput();
+        mManager.mWorld.handleTilt(mInputLog);
+        mProfiler.end(Profiler.Phase.INPUT);
+
+        // NB: Box2d clears forces after every step, so tilt must be re-applied for each step
+        mProfiler.begin();
+        mManager.mWorld.mWorld.step(step, 8, 3);
+        mInputLog.onStep();
+        mProfiler.countStep();
+        mProfiler.end(Profiler.Phase.STEP);
+
+        // now handle any events that occurred on account of the world movement or screen touches
+        mProfiler.begin();
+        mManager.mWorld.dispatchContacts();
+        for (LolAction pe : mManager.mWorld.mOneTimeEvents)
+            pe.go();
+        mManager.mWorld.mOneTimeEvents.clear();
+        mProfiler.end(Profiler.Phase.ONE_TIME_EVENTS);
+
+        // handle repeat events
+        mProfiler.begin();
+        for (LolAction pe : mManager.mWorld.mRepeatEvents) {
+            // actions that belong to a sleeping actor wait until it wakes up
+            if (pe.mIsActive && (pe.mActor == null || !pe.mActor.mDormant))
+                pe.go();
+        }
+        mProfiler.end(Profiler.Phase.REPEAT_EVENTS);
+
+        // destroy the actors that were removed during this step, now that the physics world and
+        // the event lists are no longer in use
+        mManager.mWorld.destroyActors();
+        mManager.mHud.destroyActors();
     }
 
     /**
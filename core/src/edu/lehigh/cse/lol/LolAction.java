@@ -35,6 +35,9 @@ abstract public class LolAction {
     /// A flag to disable and re-enable actions.  This is especially useful when a LolAction is on
     /// a repeating timer.
     public boolean mIsActive = true;
+    /// The actor that registered this action, if any.  The action doesn't run while that actor is
+    /// dormant (see MainScene.setActivationMargin).
+    BaseActor mActor;
 
     /**
      * The go() method encapsulates the code that should be run
@@ -178,7 +178,7 @@ class LolManager {
     }
 
     /**
-     * Create all scenes for a playable level.
+     * Create all scenes for a playable level.  This happens once; see resetScenes().
      */
     private void createScenes() {
         // Create the easy scenes
@@ -207,16 +207,53 @@ class LolManager {
         mPauseScene.setAsPauseScene();
     }
 
+    /**
+     * Empty all scenes, so that they can be used for the next screen.  The scenes, and their
+     * physics worlds, are made once and then re-used, because each physics world holds native
+     * memory that would otherwise pile up as levels are played.
+     */
+    private void resetScenes() {
+        mWorld.reset();
+        mHud.reset();
+        mBackground.reset();
+        mForeground.reset();
+        mWinScene.reset();
+        mWinScene.setDefaultText(mConfig.mDefaultWinText);
+        mLoseScene.reset();
+        mLoseScene.setDefaultText(mConfig.mDefaultLoseText);
+        mPreScene.reset();
+        mPauseScene.reset();
+    }
+
+    /**
+     * Release the native memory held by the scenes' physics worlds.  This should only be called
+     * when the game is shutting down.
+     */
+    void dispose() {
+        mWorld.dispose();
+        mHud.dispose();
+        mWinScene.dispose();
+        mLoseScene.dispose();
+        mPreScene.dispose();
+        mPauseScene.dispose();
+    }
+
     /**
      * Before we call programmer code to load a new scene, we call this to ensure that everything is
      * in a clean state.
      */
     private void onScreenChange() {
         mWorld.pauseMusic();
-        createScenes();
-        // When debug mode is on, print the frames per second
-        if (mConfig.mShowDebugBoxes)
-            mLevel.addDisplay(800, 15, mConfig.mDefaultFontFace, mConfig.mDefaultFontColor, 12, "fps: ", "", mLevel.DisplayFPS, 2);
+        resetScenes();
+        // don't let time left over from the last screen turn into extra steps on this one
+        mGame.mStepAccumulator = 0;
+        // When debug mode is on, print the frames per second near the bottom right corner, and the
+        // time spent in each phase of the recent frames in the bottom left corner.  HUD
+        // coordinates are in meters, so the FPS position is converted from pixels.
+        if (mConfig.mShowDebugBoxes) {
+            mLevel.addDisplay(800 / mConfig.mPixelMeterRatio, 15 / mConfig.mPixelMeterRatio, mConfig.mDefaultFontFace, mConfig.mDefaultFontColor, 12, "fps: ", "", mLevel.DisplayFPS, 2);
+            mLevel.addDisplay(0.5f, 0.5f, mConfig.mDefaultFontFace, mConfig.mDefaultFontColor, 12, "", "", mLevel.DisplayProfile, 2);
+        }
     }
 
     /**
@@ -294,6 +331,7 @@ class LolManager {
         mMode = PLAY;
         onScreenChange();
         resetScores();
+        mGame.mInputLog.onLevelStart(index, mWorld);
         mConfig.mLevels.display(index, mLevel);
     }
 
@@ -410,6 +448,9 @@ class LolManager {
                         return;
                     mGameOver = true;
 
+                    // the level is over, so any recording or replay of it is done
+                    mGame.mInputLog.finish();
+
                     // Run the level-complete callback
                     if (win && mWinCallback != null)
                         mWinCallback.go();
@@ -29,18 +29,21 @@ package edu.lehigh.cse.lol;
 
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.OrthographicCamera;
-import com.badlogic.gdx.graphics.g2d.BitmapFont;
-import com.badlogic.gdx.graphics.g2d.GlyphLayout;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.physics.box2d.Body;
 import com.badlogic.gdx.physics.box2d.BodyDef;
 import com.badlogic.gdx.physics.box2d.Fixture;
 import com.badlogic.gdx.physics.box2d.QueryCallback;
 import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.Array;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
 
 /**
  * LolScene is the parent of all Scene types
@@ -59,8 +62,8 @@ abstract class LolScene {
 
     /// The physics world in which all actors interact
     final World mWorld;
-    /// Anything in the world that can be rendered, in 5 planes [-2, -1, 0, 1, 2]
-    final ArrayList<ArrayList<Renderable>> mRenderables;
+    /// Anything in the world that can be rendered, in z planes that are drawn from lowest to highest
+    final RenderLayers mRenderables;
 
     /// This camera is for drawing actors that exist in the physics world
     final OrthographicCamera mCamera;
@@ -74,8 +77,6 @@ abstract class LolScene {
     /// When there is a touch of an actor in the physics world, this is how we find it
     BaseActor mHitActor = null;
 
-    /// Use this for determining bounds of text boxes
-    private final GlyphLayout mGlyphLayout;
 
     /// Actions that run in response to a screen tap
     final ArrayList<TouchEventHandler> mTapHandlers;
@@ -84,6 +85,32 @@ abstract class LolScene {
     /// Events that get processed on every render
     final ArrayList<LolAction> mRepeatEvents;
 
+    /// Actors that have been removed, and will be destroyed once the current physics step is done
+    private final ArrayList<BaseActor> mDestroyQueue = new ArrayList<>();
+    /// The lists that hold callbacks of the actors being destroyed.  This and mDoomedCallbacks
+    /// are kept between uses, to avoid garbage collection.
+    private final Set<ArrayList<?>> mDoomedLists =
+            Collections.newSetFromMap(new IdentityHashMap<ArrayList<?>, Boolean>());
+    /// The callbacks of the actors being destroyed
+    private final Set<Object> mDoomedCallbacks =
+            Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+    /// Scratch space for walking the bodies of the world (e.g., to destroy them when the scene is
+    /// reset).  This is kept between uses, to avoid garbage collection.
+    final Array<Body> mBodies = new Array<>();
+
+    /// How far (from 0 to 1) the current frame is between the previous physics step and the most
+    /// recent one.  Actors use this to interpolate their position when they are drawn.
+    float mStepAlpha = 1;
+
+    /// The part of the world that the camera can see in the current frame, as an axis-aligned box.
+    /// Scenes that don't cull leave it infinite, so that everything is drawn.
+    float mViewLeft = Float.NEGATIVE_INFINITY, mViewBottom = Float.NEGATIVE_INFINITY;
+    float mViewRight = Float.POSITIVE_INFINITY, mViewTop = Float.POSITIVE_INFINITY;
+    /// The number of objects drawn in the current frame
+    int mDrawnCount;
+    /// The number of objects skipped in the current frame, because the camera couldn't see them
+    int mCulledCount;
+
     /**
      * Construct a new scene
      *
@@ -113,10 +140,7 @@ abstract class LolScene {
         mWorld = new World(new Vector2(0, 0), true);
 
         // set up the containers for holding anything we can render
-        mRenderables = new ArrayList<>(5);
-        for (int i = 0; i < 5; ++i) {
-            mRenderables.add(new ArrayList<Renderable>());
-        }
+        mRenderables = new RenderLayers();
 
         // set up the callback for finding out who in the physics world was touched
         mTouchVec = new Vector3();
@@ -137,7 +161,6 @@ abstract class LolScene {
         };
 
         // prepare other collections
-        mGlyphLayout = new GlyphLayout();
         mTapHandlers = new ArrayList<>();
     }
 
@@ -145,26 +168,70 @@ abstract class LolScene {
      * Add an actor to the level, putting it into the appropriate z plane
      *
      * @param actor  The actor to add
-     * @param zIndex The z plane. valid values are -2, -1, 0, 1, and 2. 0 is the default.
+     * @param zIndex The z plane. Any integer can be used, and 0 is the default.
      */
     void addActor(Renderable actor, int zIndex) {
-        // Coerce index into legal range, then add the actor
-        zIndex = (zIndex < -2) ? -2 : zIndex;
-        zIndex = (zIndex > 2) ? 2 : zIndex;
-        mRenderables.get(zIndex + 2).add(actor);
+        mRenderables.add(actor, zIndex);
+    }
+
+    /**
+     * Note that an actor changed in a way that affects how it is drawn.  Scenes that cache the
+     * images of actors that don't move use this to know when to rebuild the cache.
+     *
+     * @param actor The actor that changed
+     */
+    void invalidateCache(BaseActor actor) {
     }
 
     /**
      * Remove an actor from its z plane
      *
-     * @param actor  The actor to remove
-     * @param zIndex The z plane where it is expected to be
+     * @param actor The actor to remove
+     */
+    void removeActor(Renderable actor) {
+        mRenderables.remove(actor);
+    }
+
+    /**
+     * Arrange for an actor that was removed to be destroyed after the current physics step
+     *
+     * @param actor The actor to destroy
+     */
+    void scheduleDestroy(BaseActor actor) {
+        mDestroyQueue.add(actor);
+    }
+
+    /**
+     * Destroy every actor in the destroy queue.  This must not be called during a physics step,
+     * or while any of the scene's lists of callbacks is being iterated.
+     */
+    void destroyActors() {
+        if (mDestroyQueue.isEmpty())
+            return;
+        for (int i = 0; i < mDestroyQueue.size(); ++i)
+            mDestroyQueue.get(i).destroy(mDoomedLists, mDoomedCallbacks);
+        mDestroyQueue.clear();
+        // take all of the destroyed actors' callbacks out of each list in a single pass
+        for (ArrayList<?> list : mDoomedLists)
+            removeAll(list, mDoomedCallbacks);
+        mDoomedLists.clear();
+        mDoomedCallbacks.clear();
+    }
+
+    /**
+     * Remove some elements from a list, keeping the rest in order
+     *
+     * @param list   The list
+     * @param doomed The elements to remove
      */
-    void removeActor(Renderable actor, int zIndex) {
-        // Coerce index into legal range, then remove the actor
-        zIndex = (zIndex < -2) ? -2 : zIndex;
-        zIndex = (zIndex > 2) ? 2 : zIndex;
-        mRenderables.get(zIndex + 2).remove(actor);
+    private static <T> void removeAll(ArrayList<T> list, Set<Object> doomed) {
+        int kept = 0;
+        for (int i = 0; i < list.size(); ++i) {
+            T t = list.get(i);
+            if (!doomed.contains(t))
+                list.set(kept++, t);
+        }
+        list.subList(kept, list.size()).clear();
     }
 
     /**
@@ -216,21 +283,24 @@ abstract class LolScene {
     }
 
     /**
-     * Draw some text, centered on a specific coordinate
+     * Check if an object can be seen by the camera, and count it as drawn or culled.  Objects that
+     * can't be seen should still update their state (animations, routes, etc.), but should not
+     * submit anything to the SpriteBatch.
      *
-     * @param centerX The x coordinate of the center point, in meters
-     * @param centerY The y coordinate of the center point, in meters
-     * @param message The text to display
-     * @param bf      The BitmapFont object to use for the text's font
-     * @param sb      The SpriteBatch used to render the text
+     * @param centerX     The X coordinate of the center of the object
+     * @param centerY     The Y coordinate of the center of the object
+     * @param halfWidth   Half the width of a box that contains the object, in any rotation
+     * @param halfHeight  Half the height of a box that contains the object, in any rotation
+     * @return True if the object should be drawn
      */
-    private void renderTextCentered(float centerX, float centerY, String message, BitmapFont bf, SpriteBatch sb) {
-        bf.getData().setScale(1 / mConfig.mPixelMeterRatio);
-        mGlyphLayout.setText(bf, message);
-        final float x = centerX - mGlyphLayout.width / 2;
-        final float y = centerY + mGlyphLayout.height / 2;
-        bf.draw(sb, message, x, y);
-        bf.getData().setScale(1);
+    boolean inView(float centerX, float centerY, float halfWidth, float halfHeight) {
+        if (centerX + halfWidth < mViewLeft || centerX - halfWidth > mViewRight
+                || centerY + halfHeight < mViewBottom || centerY - halfHeight > mViewTop) {
+            mCulledCount++;
+            return false;
+        }
+        mDrawnCount++;
+        return true;
     }
 
     /**
@@ -243,31 +313,55 @@ abstract class LolScene {
     abstract boolean render(SpriteBatch sb, float delta);
 
     /**
-     * Draw some text, based on a bottom-left corner
-     *
-     * @param x       The X coordinate of the bottom left corner (in pixels)
-     * @param y       The Y coordinate of the bottom left corner (in pixels)
-     * @param message The text to display
-     * @param bf      The BitmapFont object to use for the text's font
-     * @param sb      The SpriteBatch used to render the text
-     */
-    private void renderText(float x, float y, String message, BitmapFont bf, SpriteBatch sb) {
-        // NB: LibGDX uses top-left for text, so we need to convert to bottom-left
-        bf.getData().setScale(1 / mConfig.mPixelMeterRatio);
-        mGlyphLayout.setText(bf, message);
-        bf.draw(sb, message, x, y + mGlyphLayout.height);
-        bf.getData().setScale(1);
-    }
-
-    /**
-     * Reset a scene by clearing all of its lists
+     * Reset a scene, so that it can be used again: destroy every body in its physics world, clear
+     * all of its lists, and put the camera back where it started.  This must not be called during
+     * a physics step.
      */
     void reset() {
+        // every body is about to be destroyed, including those of actors waiting to be destroyed
+        mDestroyQueue.clear();
+        mWorld.getBodies(mBodies);
+        for (int i = 0; i < mBodies.size; ++i) {
+            Body body = mBodies.get(i);
+            // an actor must not use its body once the body is gone
+            Object actor = body.getUserData();
+            if (actor instanceof BaseActor)
+                ((BaseActor) actor).mBody = null;
+            // NB: this also destroys the body's joints
+            mWorld.destroyBody(body);
+        }
+        mBodies.clear();
+        mWorld.setGravity(Vector2.Zero);
+        mHitActor = null;
+        mStepAlpha = 1;
+
+        // put the camera back the way the constructor set it up
+        float w = mConfig.mWidth / mConfig.mPixelMeterRatio;
+        float h = mConfig.mHeight / mConfig.mPixelMeterRatio;
+        mCamera.position.set(w / 2, h / 2, 0);
+        mCamera.up.set(0, 1, 0);
+        mCamera.direction.set(0, 0, -1);
+        mCamera.zoom = 1;
+        mCamBound.set(w, h);
+
         mTapHandlers.clear();
         mOneTimeEvents.clear();
         mRepeatEvents.clear();
-        for (ArrayList<Renderable> a : mRenderables)
-            a.clear();
+        // effects that are still running give their particle systems back to the pools, so that
+        // the next level can reuse them (NB: removal leaves mNext alone, so the loop can continue)
+        for (int i = 0; i < mRenderables.size(); ++i)
+            for (Renderable r = mRenderables.get(i).mHead; r != null; r = r.mNext)
+                if (r instanceof Effect)
+                    ((Effect) r).remove();
+        mRenderables.clear();
+    }
+
+    /**
+     * Release the native memory held by this scene's physics world.  The scene can't be used
+     * afterwards.
+     */
+    void dispose() {
+        mWorld.dispose();
     }
 
     /**
@@ -314,18 +408,10 @@ abstract class LolScene {
     public Renderable addText(final float x, final float y, String fontName, String fontColor,
                               int fontSize, final String prefix, final String suffix,
                               final TextProducer tp, int zIndex) {
-        // Choose a font color and get the BitmapFont
-        final Color mColor = Color.valueOf(fontColor);
-        final BitmapFont mFont = mMedia.getFont(fontName, fontSize);
-        // Create a renderable that updates its text on every render, and add it to the scene
-        Renderable d = new Renderable() {
-            @Override
-            void onRender(SpriteBatch sb, float delta) {
-                mFont.setColor(mColor);
-                String txt = prefix + tp.makeText() + suffix;
-                renderText(x, y, txt, mFont, sb);
-            }
-        };
+        // Create a renderable that checks its text on every render, and add it to the scene
+        Renderable d = new TextDisplay(mMedia.getFont(fontName, fontSize),
+                Color.valueOf(fontColor), 1 / mConfig.mPixelMeterRatio, x, y, false, prefix,
+                suffix, tp);
         addActor(d, zIndex);
         return d;
     }
@@ -347,18 +433,10 @@ abstract class LolScene {
     public Renderable addTextCentered(final float centerX, final float centerY, String fontName,
                                       String fontColor, int fontSize, final String prefix,
                                       final String suffix, final TextProducer tp, int zIndex) {
-        // Choose a font color and get the BitmapFont
-        final Color mColor = Color.valueOf(fontColor);
-        final BitmapFont mFont = mMedia.getFont(fontName, fontSize);
-        // Create a renderable that updates its text on every render, and add it to the scene
-        Renderable d = new Renderable() {
-            @Override
-            void onRender(SpriteBatch sb, float delta) {
-                mFont.setColor(mColor);
-                String txt = prefix + tp.makeText() + suffix;
-                renderTextCentered(centerX, centerY, txt, mFont, sb);
-            }
-        };
+        // Create a renderable that checks its text on every render, and add it to the scene
+        Renderable d = new TextDisplay(mMedia.getFont(fontName, fontSize),
+                Color.valueOf(fontColor), 1 / mConfig.mPixelMeterRatio, centerX, centerY, true,
+                prefix, suffix, tp);
         addActor(d, zIndex);
         return d;
     }
@@ -31,11 +31,14 @@ import com.badlogic.gdx.Application;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
 import com.badlogic.gdx.audio.Music;
+import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.BodyDef.BodyType;
 import com.badlogic.gdx.physics.box2d.Contact;
 import com.badlogic.gdx.physics.box2d.ContactImpulse;
 import com.badlogic.gdx.physics.box2d.ContactListener;
+import com.badlogic.gdx.physics.box2d.Fixture;
 import com.badlogic.gdx.physics.box2d.Manifold;
 import com.badlogic.gdx.physics.box2d.WorldManifold;
 import com.badlogic.gdx.physics.box2d.joints.DistanceJoint;
@@ -60,6 +63,33 @@ class MainScene extends LolScene {
 
     /// All actors whose behavior should change due to tilt
     final ArrayList<WorldActor> mTiltActors;
+    /// The most recent tilt reading, so that it can be recorded or replaced by a replay
+    private final Vector2 mTiltReading = new Vector2();
+    /// Draws the actors that never move, so that they don't have to be drawn one at a time
+    final StaticCache mStaticCache = new StaticCache();
+    /// When this is true, actors in each z plane are grouped by texture, so that the SpriteBatch
+    /// doesn't have to flush every time consecutive actors use different textures
+    private boolean mTextureSorting;
+    /// The collisions that happened during the current physics step, which will be handled once
+    /// the step finishes
+    final ContactQueue mContacts;
+    /// The event that is passed to collision code, which is refilled for each collision
+    private final ContactEvent mContactEvent = new ContactEvent();
+    /// The code to run for each pair of actor types when they collide
+    final CollisionTable mCollisions = new CollisionTable();
+    /// The code that attaches an actor to a sticky actor it hit
+    private final CollisionCallback mStickyHandler = new CollisionCallback() {
+        @Override
+        public void go(WorldActor thisActor, WorldActor collideActor, ContactEvent contact) {
+            makeStickyJoints(thisActor, collideActor, contact.mPoint);
+        }
+    };
+    /// When this is true, moving actors that are far from the camera have their bodies turned off
+    private boolean mActivationWindow;
+    /// How far beyond the left and right edges of the view an actor can be and still stay active
+    private float mActivationMarginX;
+    /// How far beyond the top and bottom edges of the view an actor can be and still stay active
+    private float mActivationMarginY;
     /// Magnitude of the maximum gravity the accelerometer can create
     Vector2 mTiltMax;
     /// Track if we have an override for gravity to be translated into velocity
@@ -109,6 +139,7 @@ class MainScene extends LolScene {
         Timer.instance().clear();
 
         // Set up collision handlers
+        mContacts = new ContactQueue(config.mContactQueueSize, config.mGrowContactQueue);
         configureCollisionHandlers();
 
         // reset the per-level object store
@@ -127,8 +158,10 @@ class MainScene extends LolScene {
 
     /**
      * The main render loop calls this to determine what to do when there is a phone tilt
+     *
+     * @param log The input log, which records the tilt, or supplies it during a replay
      */
-    void handleTilt() {
+    void handleTilt(InputLog log) {
         if (mTiltMax == null)
             return;
 
@@ -167,6 +200,11 @@ class MainScene extends LolScene {
                 yGravity = -15f;
         }
 
+        // Let the log record the reading, or replace it
+        log.onTilt(mTiltReading.set(xGravity, yGravity));
+        xGravity = mTiltReading.x;
+        yGravity = mTiltReading.y;
+
         // Apply the gravity multiplier
         xGravity *= mTiltMultiplier;
         yGravity *= mTiltMultiplier;
@@ -223,7 +261,7 @@ class MainScene extends LolScene {
      * @param other   The other actor... it should always be a hero for now
      * @param contact A description of the contact event
      */
-    private void handleSticky(final WorldActor sticky, final WorldActor other, Contact contact) {
+    private void handleSticky(WorldActor sticky, WorldActor other, Contact contact) {
         // don't create a joint if we've already got one
         if (other.mDJoint != null)
             return;
@@ -236,27 +274,120 @@ class MainScene extends LolScene {
                 || (sticky.mIsSticky[1] && other.getXPosition() + other.mSize.x <= sticky.getXPosition())
                 || (sticky.mIsSticky[3] && other.getXPosition() >= sticky.getXPosition() + sticky.mSize.x)
                 || (sticky.mIsSticky[2] && other.getYPosition() + other.mSize.y <= sticky.getYPosition())) {
-            // create distance and weld joints... somehow, the combination is needed to get this to
-            // work. Note that this function runs during the box2d step, so we need to make the
-            // joint in a callback that runs later
-            final Vector2 v = contact.getWorldManifold().getPoints()[0];
-            mOneTimeEvents.add(new LolAction() {
-                @Override
-                public void go() {
-                    other.mBody.setLinearVelocity(0, 0);
-                    DistanceJointDef d = new DistanceJointDef();
-                    d.initialize(sticky.mBody, other.mBody, v, v);
-                    d.collideConnected = true;
-                    other.mDJoint = (DistanceJoint) mWorld.createJoint(d);
-                    WeldJointDef w = new WeldJointDef();
-                    w.initialize(sticky.mBody, other.mBody, v);
-                    w.collideConnected = true;
-                    other.mWJoint = (WeldJoint) mWorld.createJoint(w);
-                }
-            });
+            // this function runs during the box2d step, so we need to make the joints later.  We
+            // save the point now, since the manifold won't be valid then.
+            Vector2 v = contact.getWorldManifold().getPoints()[0];
+            mContacts.add(mStickyHandler, sticky, other, null, null, 0, 0, true, v.x, v.y, true);
         }
     }
 
+    /**
+     * Attach an actor to a sticky actor that it hit
+     *
+     * @param sticky The sticky actor
+     * @param other  The actor that hit it
+     * @param v      The point where they touched
+     */
+    private void makeStickyJoints(WorldActor sticky, WorldActor other, Vector2 v) {
+        // the actors may have touched more than once during the step
+        if (other.mDJoint != null)
+            return;
+        // create distance and weld joints... somehow, the combination is needed to get this to
+        // work.
+        other.mBody.setLinearVelocity(0, 0);
+        DistanceJointDef d = new DistanceJointDef();
+        d.initialize(sticky.mBody, other.mBody, v, v);
+        d.collideConnected = true;
+        other.mDJoint = (DistanceJoint) mWorld.createJoint(d);
+        WeldJointDef w = new WeldJointDef();
+        w.initialize(sticky.mBody, other.mBody, v);
+        w.collideConnected = true;
+        other.mWJoint = (WeldJoint) mWorld.createJoint(w);
+    }
+
+    /**
+     * Check if a contact between two actors should be disabled, because they pass through each
+     * other, or because one is one-sided and the other is coming from the open side
+     *
+     * @param gfoA     One actor
+     * @param gfoB     The other actor
+     * @param manifold The world manifold of the contact
+     * @return True if the contact should not push the actors apart
+     */
+    private static boolean isContactDisabled(WorldActor gfoA, WorldActor gfoB,
+                                             WorldManifold manifold) {
+        // if the actors have the same passthrough ID, and it's  not zero, then disable the
+        // contact
+        if (gfoA.mPassThroughId != 0 && gfoA.mPassThroughId == gfoB.mPassThroughId)
+            return true;
+
+        // is either one-sided? If not, we're done
+        WorldActor oneSided;
+        WorldActor other;
+        if (gfoA.mIsOneSided > -1) {
+            oneSided = gfoA;
+            other = gfoB;
+        } else if (gfoB.mIsOneSided > -1) {
+            oneSided = gfoB;
+            other = gfoA;
+        } else {
+            return false;
+        }
+
+        // if we're here, see if we should be disabling a one-sided obstacle collision
+        int numPoints = manifold.getNumberOfContactPoints();
+        for (int i = 0; i < numPoints; i++) {
+            Vector2 vector2 = other.mBody.getLinearVelocityFromWorldPoint(manifold.getPoints()[i]);
+            // disable based on the value of isOneSided and the vector between the actors
+            if (oneSided.mIsOneSided == 0 && vector2.y < 0)
+                return true;
+            else if (oneSided.mIsOneSided == 2 && vector2.y > 0)
+                return true;
+            else if (oneSided.mIsOneSided == 1 && vector2.x > 0)
+                return true;
+            else if (oneSided.mIsOneSided == 3 && vector2.x < 0)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Check if an actor is sticky on any side
+     *
+     * @param actor The actor to check
+     * @return True if the actor is sticky
+     */
+    private static boolean isSticky(WorldActor actor) {
+        return actor.mIsSticky[0] || actor.mIsSticky[1] || actor.mIsSticky[2] || actor.mIsSticky[3];
+    }
+
+    /**
+     * Recompute the collision filter of every actor, because the collision handlers changed
+     */
+    void updateFilters() {
+        mWorld.getBodies(mBodies);
+        for (int i = 0; i < mBodies.size; ++i) {
+            Object actor = mBodies.get(i).getUserData();
+            if (actor instanceof WorldActor)
+                ((WorldActor) actor).updateFilter();
+        }
+        mBodies.clear();
+    }
+
+    /**
+     * Run the collision code for every collision that was recorded during the last physics step
+     */
+    void dispatchContacts() {
+        CollisionCallback handler;
+        while ((handler = mContacts.poll(mContactEvent)) != null)
+            handler.go(mContactEvent.mActorA, mContactEvent.mActorB, mContactEvent);
+        // don't keep the last actors alive
+        mContactEvent.mActorA = null;
+        mContactEvent.mActorB = null;
+        mContactEvent.mFixtureA = null;
+        mContactEvent.mFixtureB = null;
+    }
+
     /**
      * Configure physics for the current level
      */
@@ -269,52 +400,50 @@ class MainScene extends LolScene {
              * @param contact A description of the contact event
              */
             @Override
-            public void beginContact(final Contact contact) {
+            public void beginContact(Contact contact) {
                 // Get the bodies, make sure both are actors
-                Object a = contact.getFixtureA().getBody().getUserData();
-                Object b = contact.getFixtureB().getBody().getUserData();
+                Fixture fa = contact.getFixtureA();
+                Fixture fb = contact.getFixtureB();
+                Object a = fa.getBody().getUserData();
+                Object b = fb.getBody().getUserData();
                 if (!(a instanceof WorldActor) || !(b instanceof WorldActor))
                     return;
 
-                // the order is Hero, Enemy, Goodie, Projectile, Obstacle, Destination
-                //
-                // Of those, Hero, Enemy, and Projectile are the only ones with
-                // a non-empty onCollide
-                final WorldActor c0;
-                final WorldActor c1;
-                if (a instanceof Hero) {
-                    c0 = (WorldActor) a;
-                    c1 = (WorldActor) b;
-                } else if (b instanceof Hero) {
-                    c0 = (WorldActor) b;
-                    c1 = (WorldActor) a;
-                } else if (a instanceof Enemy) {
-                    c0 = (WorldActor) a;
-                    c1 = (WorldActor) b;
-                } else if (b instanceof Enemy) {
-                    c0 = (WorldActor) b;
-                    c1 = (WorldActor) a;
-                } else if (a instanceof Projectile) {
-                    c0 = (WorldActor) a;
-                    c1 = (WorldActor) b;
-                } else if (b instanceof Projectile) {
-                    c0 = (WorldActor) b;
-                    c1 = (WorldActor) a;
-                } else {
-                    return;
+                // Find the code to run for this pair of actor types, in either order.  If there
+                // isn't any, we can skip the collision.
+                WorldActor gfoA = (WorldActor) a;
+                WorldActor gfoB = (WorldActor) b;
+                boolean swap = false;
+                CollisionCallback handler =
+                        mCollisions.get(gfoA.mCollisionType, gfoB.mCollisionType);
+                if (handler == null) {
+                    handler = mCollisions.get(gfoB.mCollisionType, gfoA.mCollisionType);
+                    if (handler == null)
+                        return;
+                    swap = true;
                 }
 
-                // Schedule an event to run as soon as the physics world finishes its step.
+                // Record the collision, so that it can be handled as soon as the physics world
+                // finishes its step.
                 //
                 // NB: this is called from render, while world is updating.  We can't modify the
-                // world or its actors until the update finishes, so we have to schedule
-                // collision-based updates to run after the world update.
-                mOneTimeEvents.add(new LolAction() {
-                    @Override
-                    public void go() {
-                        c0.onCollide(c1, contact);
-                    }
-                });
+                // world or its actors until the update finishes, so we have to save
+                // collision-based updates to run after the world update.  The contact and its
+                // manifold are only valid during this call, so we copy what we need.
+                WorldManifold manifold = contact.getWorldManifold();
+                boolean hasPoint = manifold.getNumberOfContactPoints() > 0;
+                Vector2 n = manifold.getNormal();
+                Vector2 p = manifold.getPoints()[0];
+                float nx = hasPoint ? (swap ? -n.x : n.x) : 0;
+                float ny = hasPoint ? (swap ? -n.y : n.y) : 0;
+                boolean enabled = isSticky(gfoA) || isSticky(gfoB)
+                        || !isContactDisabled(gfoA, gfoB, manifold);
+                if (swap)
+                    mContacts.add(handler, gfoB, gfoA, fb, fa, nx, ny, hasPoint,
+                            p.x, p.y, enabled);
+                else
+                    mContacts.add(handler, gfoA, gfoB, fa, fb, nx, ny, hasPoint,
+                            p.x, p.y, enabled);
             }
 
             /**
@@ -343,50 +472,22 @@ class MainScene extends LolScene {
                 WorldActor gfoA = (WorldActor) a;
                 WorldActor gfoB = (WorldActor) b;
 
+                // most contacts don't involve any special actors, so we can stop right away
+                if (!gfoA.mSpecialContacts && !gfoB.mSpecialContacts)
+                    return;
+
                 // go sticky obstacles... only do something if at least one actor is a sticky actor
-                if (gfoA.mIsSticky[0] || gfoA.mIsSticky[1] || gfoA.mIsSticky[2] || gfoA.mIsSticky[3]) {
+                if (isSticky(gfoA)) {
                     handleSticky(gfoA, gfoB, contact);
                     return;
-                } else if (gfoB.mIsSticky[0] || gfoB.mIsSticky[1] || gfoB.mIsSticky[2] || gfoB.mIsSticky[3]) {
+                } else if (isSticky(gfoB)) {
                     handleSticky(gfoB, gfoA, contact);
                     return;
                 }
 
-                // if the actors have the same passthrough ID, and it's  not zero, then disable the
-                // contact
-                if (gfoA.mPassThroughId != 0 && gfoA.mPassThroughId == gfoB.mPassThroughId) {
+                // pass-through and one-sided actors don't always push each other apart
+                if (isContactDisabled(gfoA, gfoB, contact.getWorldManifold()))
                     contact.setEnabled(false);
-                    return;
-                }
-
-                // is either one-sided? If not, we're done
-                WorldActor oneSided = null;
-                WorldActor other;
-                if (gfoA.mIsOneSided > -1) {
-                    oneSided = gfoA;
-                    other = gfoB;
-                } else if (gfoB.mIsOneSided > -1) {
-                    oneSided = gfoB;
-                    other = gfoA;
-                } else {
-                    return;
-                }
-
-                // if we're here, see if we should be disabling a one-sided obstacle collision
-                WorldManifold worldManiFold = contact.getWorldManifold();
-                int numPoints = worldManiFold.getNumberOfContactPoints();
-                for (int i = 0; i < numPoints; i++) {
-                    Vector2 vector2 = other.mBody.getLinearVelocityFromWorldPoint(worldManiFold.getPoints()[i]);
-                    // disable based on the value of isOneSided and the vector between the actors
-                    if (oneSided.mIsOneSided == 0 && vector2.y < 0)
-                        contact.setEnabled(false);
-                    else if (oneSided.mIsOneSided == 2 && vector2.y > 0)
-                        contact.setEnabled(false);
-                    else if (oneSided.mIsOneSided == 1 && vector2.x > 0)
-                        contact.setEnabled(false);
-                    else if (oneSided.mIsOneSided == 3 && vector2.x < 0)
-                        contact.setEnabled(false);
-                }
             }
 
             /**
@@ -438,9 +539,9 @@ class MainScene extends LolScene {
     void adjustCamera() {
         if (mChaseActor == null)
             return;
-        // figure out the actor's position
-        float x = mChaseActor.mBody.getWorldCenter().x + mChaseActor.mCameraOffset.x;
-        float y = mChaseActor.mBody.getWorldCenter().y + mChaseActor.mCameraOffset.y;
+        // figure out the actor's position, as it will be drawn in this frame
+        float x = mChaseActor.getRenderX() + mChaseActor.mCameraOffset.x;
+        float y = mChaseActor.getRenderY() + mChaseActor.mCameraOffset.y;
 
         // if x or y is too close to MAX,MAX, stick with max acceptable values
         if (x > mCamBound.x - mConfig.mWidth * mCamera.zoom / mConfig.mPixelMeterRatio / 2)
@@ -592,6 +693,244 @@ class MainScene extends LolScene {
         }
     }
 
+    /**
+     * Before advancing the physics world, remember where every actor is, so that rendering can
+     * interpolate between this position and the one produced by the next step
+     */
+    void saveTransforms() {
+        for (int i = 0; i < mRenderables.size(); ++i) {
+            for (Renderable r = mRenderables.get(i).mHead; r != null; r = r.mNext) {
+                if (r instanceof BaseActor)
+                    ((BaseActor) r).saveTransform();
+            }
+        }
+    }
+
+    /**
+     * Add an actor to the level, and let the static cache know that its plane has changed
+     *
+     * @param actor  The actor to add
+     * @param zIndex The z plane. Any integer can be used, and 0 is the default.
+     */
+    @Override
+    void addActor(Renderable actor, int zIndex) {
+        RenderLayers.Layer layer = mRenderables.getLayer(zIndex);
+        if (mTextureSorting)
+            layer.insertAfter(findSortedSlot(layer, actor), actor);
+        else
+            layer.append(actor);
+        mStaticCache.invalidate(actor, layer.mId);
+    }
+
+    /**
+     * Put moving actors that are far from the camera to sleep.  A sleeping actor's body is turned
+     * off, so that Box2D doesn't simulate it or check it for collisions, and its routes and other
+     * repeating behaviors are paused.  It wakes up as soon as it comes back within the margins.
+     *
+     * @param marginX How far beyond the left and right edges of the view an actor stays awake, or
+     *                a negative number to turn this off
+     * @param marginY How far beyond the top and bottom edges of the view an actor stays awake
+     */
+    void setActivationMargin(float marginX, float marginY) {
+        mActivationMarginX = marginX;
+        mActivationMarginY = marginY;
+        mActivationWindow = marginX >= 0 && marginY >= 0;
+        if (mActivationWindow)
+            return;
+        // wake everyone up
+        for (int i = 0; i < mRenderables.size(); ++i) {
+            for (Renderable r = mRenderables.get(i).mHead; r != null; r = r.mNext) {
+                if (r instanceof BaseActor && ((BaseActor) r).mDormant) {
+                    BaseActor a = (BaseActor) r;
+                    a.mDormant = false;
+                    if (a.mEnabled && a.mBody != null)
+                        a.mBody.setActive(true);
+                }
+            }
+        }
+    }
+
+    /**
+     * Turn off the bodies of moving actors that have gone far from the camera, and turn back on
+     * the bodies of sleeping actors that have come close to it.  Static actors are left alone,
+     * since Box2D doesn't spend any time simulating them.
+     */
+    private void updateActivation() {
+        float left = mViewLeft - mActivationMarginX;
+        float right = mViewRight + mActivationMarginX;
+        float bottom = mViewBottom - mActivationMarginY;
+        float top = mViewTop + mActivationMarginY;
+        for (int i = 0; i < mRenderables.size(); ++i) {
+            for (Renderable r = mRenderables.get(i).mHead; r != null; r = r.mNext) {
+                if (!(r instanceof BaseActor))
+                    continue;
+                BaseActor a = (BaseActor) r;
+                if (!a.mEnabled || a.mBody == null || a.mBody.getType() == BodyType.StaticBody)
+                    continue;
+                // use a box that contains the actor in any rotation
+                float half = (a.mSize.x + a.mSize.y) / 2;
+                float x = a.mBody.getPosition().x;
+                float y = a.mBody.getPosition().y;
+                boolean near = a.mAlwaysActive || (x + half >= left && x - half <= right
+                        && y + half >= bottom && y - half <= top);
+                if (near && a.mDormant) {
+                    a.mDormant = false;
+                    a.mBody.setActive(true);
+                } else if (!near && !a.mDormant) {
+                    a.mDormant = true;
+                    a.mBody.setActive(false);
+                }
+            }
+        }
+    }
+
+    /**
+     * Turn texture sorting on or off.  When it is turned on, the actors already in the world are
+     * re-inserted, in their current order, so that they are grouped too.
+     *
+     * @param sort True to group the actors in each plane by texture
+     */
+    void setTextureSorting(boolean sort) {
+        mTextureSorting = sort;
+        if (!sort)
+            return;
+        ArrayList<Renderable> old = new ArrayList<>();
+        for (int i = 0; i < mRenderables.size(); ++i) {
+            RenderLayers.Layer layer = mRenderables.get(i);
+            old.clear();
+            for (Renderable r = layer.mHead; r != null; r = r.mNext)
+                old.add(r);
+            layer.clear();
+            for (Renderable r : old)
+                layer.insertAfter(findSortedSlot(layer, r), r);
+        }
+    }
+
+    /**
+     * Find where a new actor should go in a plane, so that it is drawn right after the last actor
+     * that uses the same texture.  The actor can only move ahead of actors that it doesn't overlap,
+     * so that sprites that overlap when they are added are still drawn in the order they were
+     * added.  Anything that isn't an actor with a texture (e.g., an Effect) stays where it is, and
+     * nothing moves ahead of it.
+     *
+     * @param layer The plane
+     * @param actor The actor being added
+     * @return The Renderable that the actor should be inserted after
+     */
+    private static Renderable findSortedSlot(RenderLayers.Layer layer, Renderable actor) {
+        Renderable end = layer.mTail;
+        if (!(actor instanceof BaseActor))
+            return end;
+        BaseActor a = (BaseActor) actor;
+        Texture t = a.mAnimator.getTexture();
+        if (t == null || a.mBody == null)
+            return end;
+        for (Renderable r = end; r != null; r = r.mPrev) {
+            if (!(r instanceof BaseActor))
+                return end;
+            BaseActor b = (BaseActor) r;
+            if (b.mAnimator.getTexture() == t)
+                return r;
+            if (b.mBody == null || overlaps(a, b))
+                return end;
+        }
+        return end;
+    }
+
+    /**
+     * Check if the images of two actors might overlap.  We use the circle around each actor's
+     * image, so that the check is correct no matter how the actors are rotated.
+     *
+     * @param a The first actor
+     * @param b The second actor
+     * @return True if the actors might overlap
+     */
+    private static boolean overlaps(BaseActor a, BaseActor b) {
+        float dx = a.mBody.getPosition().x - b.mBody.getPosition().x;
+        float dy = a.mBody.getPosition().y - b.mBody.getPosition().y;
+        float r = (a.mSize.len() + b.mSize.len()) / 2;
+        return dx * dx + dy * dy < r * r;
+    }
+
+    /**
+     * Remove an actor from its z plane, and let the static cache know that the plane has changed
+     *
+     * @param actor The actor to remove
+     */
+    @Override
+    void removeActor(Renderable actor) {
+        RenderLayers.Layer layer = mRenderables.remove(actor);
+        if (layer != null)
+            mStaticCache.invalidate(actor, layer.mId);
+    }
+
+    /**
+     * When an actor changes, make sure the static cache doesn't draw a stale image of it
+     *
+     * @param actor The actor that changed
+     */
+    @Override
+    void invalidateCache(BaseActor actor) {
+        mStaticCache.invalidate(actor);
+    }
+
+    /**
+     * Reset the scene, so that it can be used for another level
+     */
+    @Override
+    void reset() {
+        super.reset();
+        Timer.instance().clear();
+        mLevelFacts.clear();
+        mLevelActors.clear();
+        mTiltActors.clear();
+        mDownHandlers.clear();
+        mUpHandlers.clear();
+        mFlingHandlers.clear();
+        mPanStopHandlers.clear();
+        mPanHandlers.clear();
+        mStaticCache.clear();
+        mContacts.clear();
+        mCollisions.reset();
+        mTextureSorting = false;
+        mActivationWindow = false;
+        mTiltMax = null;
+        mTiltVelocityOverride = false;
+        mTiltMultiplier = 1;
+        mChaseActor = null;
+        mProjectilePool = null;
+        mMusic = null;
+        mMusicPlaying = false;
+    }
+
+    /**
+     * Release the resources held by this scene, when the game is shutting down
+     */
+    @Override
+    void dispose() {
+        mStaticCache.dispose();
+        super.dispose();
+    }
+
+    /**
+     * Compute the part of the world that the camera can see.  The visible rectangle is scaled by
+     * the zoom, and if the camera is rotated, we use the axis-aligned box that contains the rotated
+     * rectangle.
+     */
+    private void computeView() {
+        float halfW = mCamera.viewportWidth * mCamera.zoom / 2;
+        float halfH = mCamera.viewportHeight * mCamera.zoom / 2;
+        // the camera's up vector gives the sine and cosine of its rotation
+        float cos = Math.abs(mCamera.up.y);
+        float sin = Math.abs(mCamera.up.x);
+        float extentX = halfW * cos + halfH * sin;
+        float extentY = halfW * sin + halfH * cos;
+        mViewLeft = mCamera.position.x - extentX;
+        mViewRight = mCamera.position.x + extentX;
+        mViewBottom = mCamera.position.y - extentY;
+        mViewTop = mCamera.position.y + extentY;
+    }
+
     /**
      * Draw the actors in this world
      *
@@ -599,11 +938,20 @@ class MainScene extends LolScene {
      * @param delta The time since the last render
      */
     boolean render(SpriteBatch sb, float delta) {
-        // Render the actors in order from z=-2 through z=2
+        computeView();
+        if (mActivationWindow)
+            updateActivation();
+        mDrawnCount = 0;
+        mCulledCount = 0;
+
+        // Render the actors in order, from the lowest z plane to the highest.  In each plane, the
+        // cached static actors go first.
         sb.setProjectionMatrix(mCamera.combined);
         sb.begin();
-        for (ArrayList<Renderable> a : mRenderables) {
-            for (Renderable r : a) {
+        for (int i = 0; i < mRenderables.size(); ++i) {
+            RenderLayers.Layer layer = mRenderables.get(i);
+            mStaticCache.draw(layer, sb, mCamera);
+            for (Renderable r = layer.mHead; r != null; r = r.mNext) {
                 r.render(sb, delta);
             }
         }
@@ -27,24 +27,42 @@
 
 package edu.lehigh.cse.lol;
 
+import com.badlogic.gdx.Application;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.audio.Music;
 import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.ParticleEffect;
+import com.badlogic.gdx.graphics.g2d.ParticleEffectPool;
+import com.badlogic.gdx.graphics.g2d.ParticleEmitter;
+import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas.TextureAtlasData;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
-import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator;
-import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator.FreeTypeFontParameter;
+import com.badlogic.gdx.utils.Array;
 
+import java.io.DataInputStream;
+import java.io.IOException;
 import java.util.TreeMap;
 
 /**
  * Media provides a mechanism for registering all of our images, sounds, and fonts
  * <p>
+ * Images can come from individual files, or from texture atlases.  Either way, they are looked up
+ * by file name, so the rest of the code doesn't need to know where an image came from.
+ * <p>
  * Strictly speaking, we can re-create fonts on the fly whenever we need to. Caching them here is an
  * optimization, and it helps if we ever want to build to HTML5, which doesn't support FreeType.
+ * Fonts are also cached on disk, by the FontCache, so that FreeType only runs the first time the
+ * game uses each font.
  */
 class Media {
+    /// The most unused particle systems to keep for each particle effect file
+    private static final int PARTICLE_POOL_SIZE = 32;
+
     /// Store the fonts used by this game
     private final TreeMap<String, BitmapFont> mFonts = new TreeMap<>();
     /// Store the sounds used by this game
@@ -53,8 +71,23 @@ class Media {
     private final TreeMap<String, Music> mTunes = new TreeMap<>();
     /// Store the images used by this game
     private final TreeMap<String, TextureRegion> mImages = new TreeMap<>();
+    /// The numbered images from texture atlases (e.g., "walk_0.png", "walk_1.png"), grouped by
+    /// the name they share, and sorted by number
+    private final TreeMap<String, TreeMap<Integer, TextureRegion>> mSequences = new TreeMap<>();
+    /// Sprite sheets that have been split into cells, indexed by name, columns, and rows
+    private final TreeMap<String, TextureRegion[]> mSheets = new TreeMap<>();
+    /// A pool of particle systems for each particle effect file, so that each file is only read
+    /// once, and finished particle systems can be reused
+    private final TreeMap<String, ParticleEffectPool> mParticlePools = new TreeMap<>();
+    /// The texture atlases that images were loaded from, so that their textures can be released
+    private final Array<TextureAtlas> mAtlases = new Array<>();
     /// A copy of the game-wide configuration object
     private Config mConfig;
+    /// When running on the headless backend, there is nothing to draw to, so every image shares
+    /// this 1x1 texture instead of loading its own
+    private Texture mPlaceholder;
+    /// The on-disk cache of fonts that FreeType has already made
+    private final FontCache mFontCache;
 
     /**
      * Construct a Media object by loading all images and sounds
@@ -63,8 +96,24 @@ class Media {
      */
     Media(Config config) {
         mConfig = config;
+        mFontCache = new FontCache(config);
+        if (Gdx.app.getType() == Application.ApplicationType.HeadlessDesktop)
+            mPlaceholder = new Texture(1, 1, Pixmap.Format.RGBA8888);
+        for (String atlasName : config.mAtlasNames) {
+            if (mPlaceholder == null)
+                loadAtlas(Gdx.files.internal(atlasName));
+            else
+                loadAtlasPlaceholders(Gdx.files.internal(atlasName));
+        }
         for (String imgName : config.mImageNames) {
-            TextureRegion tr = new TextureRegion(new Texture(Gdx.files.internal(imgName)));
+            // images that were packed into an atlas don't need their own texture
+            if (mImages.containsKey(imgName))
+                continue;
+            TextureRegion tr;
+            if (mPlaceholder == null)
+                tr = new TextureRegion(new Texture(Gdx.files.internal(imgName)));
+            else
+                tr = makePlaceholder(Gdx.files.internal(imgName));
             mImages.put(imgName, tr);
         }
         for (String soundName : config.mSoundNames) {
@@ -80,16 +129,142 @@ class Media {
         }
     }
 
+    /**
+     * Load a texture atlas, and register each of its regions as an image.
+     * <p>
+     * Actors draw their images as plain TextureRegions, which would draw a region that the packer
+     * rotated sideways, so rotated regions are skipped.  If the image is also listed in
+     * mImageNames, its own file is used instead.
+     *
+     * @param file The atlas file
+     */
+    private void loadAtlas(FileHandle file) {
+        TextureAtlas atlas = new TextureAtlas(file);
+        mAtlases.add(atlas);
+        for (TextureAtlas.AtlasRegion region : atlas.getRegions()) {
+            if (region.rotate) {
+                reportRotated(region.name, file);
+                continue;
+            }
+            mImages.put(getRegionFileName(region.name, region.index), region);
+            addToSequence(region.name, region.index, region);
+        }
+    }
+
+    /**
+     * On the headless backend, read the regions of a texture atlas without loading its pages, and
+     * register a placeholder of the right size for each region.
+     *
+     * @param file The atlas file
+     */
+    private void loadAtlasPlaceholders(FileHandle file) {
+        TextureAtlasData data = new TextureAtlasData(file, file.parent(), false);
+        for (TextureAtlasData.Region region : data.getRegions()) {
+            if (region.rotate) {
+                reportRotated(region.name, file);
+                continue;
+            }
+            TextureRegion tr = new TextureRegion(mPlaceholder, region.width, region.height);
+            mImages.put(getRegionFileName(region.name, region.index), tr);
+            addToSequence(region.name, region.index, tr);
+        }
+    }
+
+    /**
+     * Explain why an atlas region can't be used
+     *
+     * @param name The name of the region
+     * @param file The atlas file
+     */
+    private void reportRotated(String name, FileHandle file) {
+        Lol.message(mConfig, "ERROR", "Skipping rotated region '" + name + "' in atlas '"
+                + file.name() + "'; pack the atlas with rotation turned off");
+    }
+
+    /**
+     * Remember a numbered atlas region, so that it can be found as a frame of an animation
+     *
+     * @param name   The name of the region
+     * @param index  The index of the region, or -1 if it doesn't have one
+     * @param region The region
+     */
+    private void addToSequence(String name, int index, TextureRegion region) {
+        if (index == -1)
+            return;
+        TreeMap<Integer, TextureRegion> sequence = mSequences.get(name);
+        if (sequence == null) {
+            sequence = new TreeMap<>();
+            mSequences.put(name, sequence);
+        }
+        sequence.put(index, region);
+    }
+
+    /**
+     * Recover the name of the file that an atlas region was packed from.  The TexturePacker drops
+     * the extension, and turns a trailing "_N" into an index.
+     *
+     * @param name  The name of the region
+     * @param index The index of the region, or -1 if it doesn't have one
+     * @return The file name, assuming the image was a PNG
+     */
+    private static String getRegionFileName(String name, int index) {
+        return (index == -1) ? name + ".png" : name + "_" + index + ".png";
+    }
+
+    /**
+     * Make a stand-in for an image, without decoding it.  The region has the same dimensions as the
+     * image, so that code that measures images (e.g., parallax tiling) behaves the same, but it
+     * refers to the shared placeholder texture.
+     *
+     * @param file The image file.  If it is a PNG, we read its dimensions from its header.
+     * @return A TextureRegion of the placeholder texture
+     */
+    private TextureRegion makePlaceholder(FileHandle file) {
+        int width = 1;
+        int height = 1;
+        // The PNG signature is 8 bytes, then the IHDR chunk length and type (8 more bytes), and then
+        // the width and height as big-endian 32-bit integers
+        if (file.extension().equalsIgnoreCase("png")) {
+            DataInputStream in = new DataInputStream(file.read());
+            try {
+                in.skipBytes(16);
+                width = in.readInt();
+                height = in.readInt();
+            } catch (IOException e) {
+                Lol.message(mConfig, "ERROR", "Error reading size of image '" + file.name() + "'");
+            } finally {
+                try {
+                    in.close();
+                } catch (IOException e) {
+                    // nothing to do
+                }
+            }
+        }
+        return new TextureRegion(mPlaceholder, width, height);
+    }
+
     /**
      * Clear out all assets when a game is disposed.
      * <p>
      * Dispose doesn't always mean "the game is closed forever", and the app might resurrect.  When
      * it does, LibGDX restores any sound/music/image assets.  However, it does not restore fonts.
-     * Since we use FreeType to create BitmapFonts on the fly, we can just drop the font collection
-     * when the app disposes, and then we'll recreate fonts on the fly when the app restarts.
+     * Since we create BitmapFonts on the fly, we dispose of them (and the glyph textures they own)
+     * when the app disposes, and then we'll recreate fonts on the fly when the app restarts.  (In
+     * most cases, "recreate" just means reloading them from the FontCache.)
+     * <p>
+     * Texture atlases own their textures, so we release them here.  A resurrected app makes a new
+     * Media object, which loads the atlases again.
      */
     void onDispose() {
+        for (BitmapFont f : mFonts.values())
+            f.dispose();
         mFonts.clear();
+        for (TextureAtlas atlas : mAtlases)
+            atlas.dispose();
+        mAtlases.clear();
+        mImages.clear();
+        mSequences.clear();
+        mSheets.clear();
     }
 
     /**
@@ -113,22 +288,47 @@ class Media {
             return f;
         }
 
-        // Generate the font, save it, and return it
-        //
-        // NB: if this crashes, the user will get a reasonably good error message
-        FreeTypeFontParameter parameter = new FreeTypeFontParameter();
-        parameter.size = fontSize;
-        parameter.minFilter = Texture.TextureFilter.Linear;
-        parameter.magFilter = Texture.TextureFilter.Linear;
-        FreeTypeFontGenerator generator = new FreeTypeFontGenerator(Gdx.files.internal(fontFileName));
-        generator.scaleForPixelHeight(fontSize);
-        f = generator.generateFont(parameter);
+        // On the headless backend, nobody will see the text, so the built-in font is good enough
+        if (mPlaceholder != null) {
+            f = new BitmapFont();
+            f.setUseIntegerPositions(false);
+            mFonts.put(key, f);
+            return f;
+        }
+
+        // Load the font from the on-disk cache, or generate it if it isn't cached yet
+        f = mFontCache.getFont(fontFileName, fontSize);
         f.setUseIntegerPositions(false); // NB: when we switch to HTML builds, this helps
-        generator.dispose();
         mFonts.put(key, f);
         return f;
     }
 
+    /**
+     * Get a particle system from the pool for a particle effect file.  The first time a file is
+     * used, it is read, along with the images it uses.  After that, particle systems are copied
+     * from that first one, or reused once they are freed.
+     *
+     * @param fileName The file holding the particle definition
+     * @return A particle system, which should be freed when it is no longer needed
+     */
+    ParticleEffectPool.PooledEffect getParticleEffect(String fileName) {
+        ParticleEffectPool pool = mParticlePools.get(fileName);
+        if (pool == null) {
+            ParticleEffect prototype = new ParticleEffect();
+            if (mPlaceholder == null) {
+                prototype.load(Gdx.files.internal(fileName), Gdx.files.internal(""));
+            } else {
+                // On the headless backend, the emitters draw the placeholder instead of their images
+                prototype.loadEmitters(Gdx.files.internal(fileName));
+                for (ParticleEmitter emitter : prototype.getEmitters())
+                    emitter.setSprite(new Sprite(mPlaceholder));
+            }
+            pool = new ParticleEffectPool(prototype, 4, PARTICLE_POOL_SIZE);
+            mParticlePools.put(fileName, pool);
+        }
+        return pool.obtain();
+    }
+
     /**
      * Get a previously loaded Sound object
      *
@@ -175,6 +375,78 @@ class Media {
         return ret;
     }
 
+    /**
+     * Get the cells of a sprite sheet.  The sheet is split into a grid of equal-sized cells, which
+     * all refer to the sheet's texture.  The sheet can be an image file, or a region of an atlas.
+     *
+     * @param sheetName Name of the sprite sheet image
+     * @param columns   The number of columns of cells in the sheet
+     * @param rows      The number of rows of cells in the sheet
+     * @return The cells, in order across each row, starting at the top, or null if there is no
+     * such image, or it can't be split that way
+     */
+    TextureRegion[] getSheetCells(String sheetName, int columns, int rows) {
+        String key = sheetName + "--" + columns + "x" + rows;
+        TextureRegion[] cells = mSheets.get(key);
+        if (cells != null)
+            return cells;
+        TextureRegion sheet = getImage(sheetName);
+        if (sheet == null)
+            return null;
+        // every cell must be at least one pixel in each direction
+        if (columns < 1 || rows < 1 || columns > sheet.getRegionWidth()
+                || rows > sheet.getRegionHeight()) {
+            Lol.message(mConfig, "ERROR", "Sprite sheet '" + sheetName + "' can't be split into "
+                    + columns + " columns and " + rows + " rows");
+            return null;
+        }
+        TextureRegion[][] grid = sheet.split(sheet.getRegionWidth() / columns,
+                sheet.getRegionHeight() / rows);
+        cells = new TextureRegion[columns * rows];
+        for (int r = 0; r < rows; ++r)
+            for (int c = 0; c < columns; ++c)
+                cells[r * columns + c] = grid[r][c];
+        mSheets.put(key, cells);
+        return cells;
+    }
+
+    /**
+     * Get one cell of a sprite sheet
+     *
+     * @param sheetName Name of the sprite sheet image
+     * @param columns   The number of columns of cells in the sheet
+     * @param rows      The number of rows of cells in the sheet
+     * @param cell      The cell, counting from 0 across each row, starting at the top
+     * @return The cell, or null if there is no such sheet or cell
+     */
+    TextureRegion getSheetCell(String sheetName, int columns, int rows, int cell) {
+        TextureRegion[] cells = getSheetCells(sheetName, columns, rows);
+        if (cells == null)
+            return null;
+        if (cell < 0 || cell >= cells.length) {
+            Lol.message(mConfig, "ERROR", "Sprite sheet '" + sheetName + "' has no cell " + cell
+                    + "; its cells are numbered 0 to " + (cells.length - 1));
+            return null;
+        }
+        return cells[cell];
+    }
+
+    /**
+     * Get a numbered sequence of regions from the texture atlases.  The TexturePacker turns files
+     * such as "walk_0.png", "walk_1.png", ... into regions named "walk", with indices 0, 1, ...
+     *
+     * @param name The name that the regions share (e.g., "walk")
+     * @return The regions, sorted by index, or null if there are none
+     */
+    TextureRegion[] getImageSequence(String name) {
+        TreeMap<Integer, TextureRegion> sequence = mSequences.get(name);
+        if (sequence == null) {
+            Lol.message(mConfig, "ERROR", "Error retrieving image sequence '" + name + "'");
+            return null;
+        }
+        return sequence.values().toArray(new TextureRegion[sequence.size()]);
+    }
+
     /**
      * On a volume change event, make sure all Music objects are updated
      */
@@ -29,7 +29,6 @@ package edu.lehigh.cse.lol;
 
 import com.badlogic.gdx.audio.Sound;
 import com.badlogic.gdx.math.Vector2;
-import com.badlogic.gdx.physics.box2d.Contact;
 import com.badlogic.gdx.utils.Timer;
 import com.badlogic.gdx.utils.Timer.Task;
 
@@ -64,7 +63,23 @@ public class Obstacle extends WorldActor {
      * @param imgName Name of the image file to use
      */
     protected Obstacle(Lol game, MainScene level, float width, float height, String imgName) {
-        super(game, level, imgName, width, height);
+        super(game, level, imgName, width, height, TYPE_OBSTACLE);
+    }
+
+    /**
+     * Put this obstacle back into the state it was in when it was made, so that its ActorPool can
+     * hand it out again
+     */
+    @Override
+    void recycle() {
+        super.recycle();
+        mHeroCollision = null;
+        mEnemyCollision = null;
+        mProjectileCollision = null;
+        mNoJumpReenable = false;
+        mCollideSound = null;
+        mCollideSoundDelay = 0;
+        mLastCollideSoundTime = 0;
     }
 
     /**
@@ -82,18 +97,6 @@ public class Obstacle extends WorldActor {
         mCollideSound.play(Lol.getGameFact(mScene.mConfig, "volume", 1));
     }
 
-    /**
-     * Code to run when an Obstacle collides with a WorldActor.
-     *
-     * The Obstacle always comes last in the collision hierarchy, so no code is needed here
-     *
-     * @param other   Other object involved in this collision
-     * @param contact A description of the contact that caused this collision
-     */
-    @Override
-    void onCollide(WorldActor other, Contact contact) {
-    }
-
     /**
      * Make the Obstacle into a pad that changes the hero's speed when the hero glides over it.
      * <p>
@@ -109,7 +112,7 @@ public class Obstacle extends WorldActor {
         // register a callback to multiply the hero's speed by factor
         mHeroCollision = new CollisionCallback() {
             @Override
-            public void go(WorldActor self, WorldActor h, Contact c) {
+            public void go(WorldActor self, WorldActor h, ContactEvent c) {
                 Vector2 v = h.mBody.getLinearVelocity();
                 v.scl(factor);
                 h.updateVelocity(v.x, v.y);
@@ -131,7 +134,7 @@ public class Obstacle extends WorldActor {
         // register a callback to change the hero's speed
         mHeroCollision = new CollisionCallback() {
             @Override
-            public void go(WorldActor self, final WorldActor h, Contact c) {
+            public void go(WorldActor self, final WorldActor h, ContactEvent c) {
                 // boost the speed
                 Vector2 v = h.mBody.getLinearVelocity();
                 v.x += boostAmountX;
@@ -184,7 +187,7 @@ public class Obstacle extends WorldActor {
         // register a callback
         mHeroCollision = new CollisionCallback() {
             @Override
-            public void go(WorldActor self, final WorldActor ps, final Contact c) {
+            public void go(WorldActor self, final WorldActor ps, ContactEvent c) {
                 // Make sure the contact is active (it's not if this is a pass-through event)
                 if (c.isEnabled()) {
                     // check if callback is activated, if so run Callback code
@@ -196,10 +199,12 @@ public class Obstacle extends WorldActor {
                         if (delay <= 0) {
                             callback.go(Obstacle.this, ps, c);
                         } else {
+                            // the event is reused for the next collision, so keep a copy
+                            final ContactEvent saved = c.copy();
                             Timer.schedule(new Task() {
                                 @Override
                                 public void run() {
-                                    callback.go(Obstacle.this, ps, c);
+                                    callback.go(Obstacle.this, ps, saved);
                                 }
                             }, delay);
                         }
@@ -219,15 +224,17 @@ public class Obstacle extends WorldActor {
     public void setEnemyCollisionCallback(final float delay, final CollisionCallback callback) {
         mEnemyCollision = new CollisionCallback() {
             @Override
-            public void go(WorldActor self, final WorldActor ps, final Contact c) {
+            public void go(WorldActor self, final WorldActor ps, ContactEvent c) {
                 // run the callback after a delay, or immediately?
                 if (delay <= 0) {
                     callback.go(Obstacle.this, ps, c);
                 } else {
+                    // the event is reused for the next collision, so keep a copy
+                    final ContactEvent saved = c.copy();
                     Timer.schedule(new Task() {
                         @Override
                         public void run() {
-                            callback.go(Obstacle.this, ps, c);
+                            callback.go(Obstacle.this, ps, saved);
                         }
                     }, delay);
                 }
@@ -27,7 +27,11 @@
 
 package edu.lehigh.cse.lol;
 
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.MathUtils;
 
 /**
  * This object holds the configuration information for a Parallax layer.
@@ -55,6 +59,9 @@ class ParallaxLayer {
     boolean mAutoX;
     /// For tracking previous mAuto movement
     float mLastX;
+    /// Can the image be tiled by repeating its texture coordinates, instead of being drawn once per
+    /// tile?  0 means we haven't checked yet, 1 means yes, and -1 means no.
+    private int mCanWrap;
 
     /**
      * Construct a ParallaxLayer by getting everything ready for a ParallaxLayer to use it
@@ -79,4 +86,53 @@ class ParallaxLayer {
         mAutoX = false;
         mLastX = 0;
     }
+
+    /**
+     * Check if a row of tiles can be drawn as a single quad, by repeating the texture in the X
+     * dimension
+     *
+     * @param step The distance between the left edges of neighboring tiles
+     * @return True if the row can be drawn as one quad
+     */
+    boolean canWrapX(float step) {
+        return step == mWidth && canWrap(true);
+    }
+
+    /**
+     * Check if a column of tiles can be drawn as a single quad, by repeating the texture in the Y
+     * dimension
+     *
+     * @return True if the column can be drawn as one quad
+     */
+    boolean canWrapY() {
+        return canWrap(false);
+    }
+
+    /**
+     * The first time this is called, figure out if the image can be tiled by repeating its texture
+     * coordinates, and if so, set its texture to repeat.  This only works if the image is a whole
+     * texture (not a region of an atlas), and OpenGL ES 2 can only repeat textures whose sides are
+     * powers of two.
+     *
+     * @param inX True to repeat in the X dimension, false for Y
+     * @return True if the image can be tiled by repeating its texture coordinates
+     */
+    private boolean canWrap(boolean inX) {
+        if (mCanWrap == 0) {
+            Texture t = mImage.getTexture();
+            boolean whole = mImage.getU() == 0 && mImage.getV() == 0 && mImage.getU2() == 1
+                    && mImage.getV2() == 1;
+            boolean canRepeat = Gdx.app.getType() == Application.ApplicationType.Desktop
+                    || Gdx.gl30 != null
+                    || (MathUtils.isPowerOfTwo(t.getWidth()) && MathUtils.isPowerOfTwo(t.getHeight()));
+            mCanWrap = (whole && canRepeat) ? 1 : -1;
+            if (mCanWrap == 1) {
+                if (inX)
+                    t.setWrap(Texture.TextureWrap.Repeat, t.getVWrap());
+                else
+                    t.setWrap(t.getUWrap(), Texture.TextureWrap.Repeat);
+            }
+        }
+        return mCanWrap == 1;
+    }
 }
@@ -63,7 +63,23 @@ class ParallaxScene {
     }
 
     /**
-     * Render all of the layers of this parallax scene
+     * Remove all layers and put the camera back where it started, so that the scene can be used
+     * for another level
+     */
+    void reset() {
+        mLayers.clear();
+        mColor.set(1, 1, 1, 1);
+        mBgCam.position.set(mConfig.mWidth / 2, mConfig.mHeight / 2, 0);
+        mBgCam.zoom = 1;
+    }
+
+    /**
+     * Render all of the layers of this parallax scene.
+     * <p>
+     * All layers are drawn in a single SpriteBatch pass.  A layer's parallax is just a translation
+     * of the camera, scaled by the layer's speed, so instead of giving each layer its own
+     * projection matrix, we use one matrix for the whole scene, and shift each layer's images on
+     * the CPU.  The matrix only changes when the zoom does.
      *
      * @param worldCenterX The center X coordinate of the main physics world
      * @param worldCenterY The center Y coordinate of the main physics world
@@ -71,22 +87,17 @@ class ParallaxScene {
      * @param elapsed      The time since the last render
      */
     void renderLayers(float worldCenterX, float worldCenterY, SpriteBatch sb, float elapsed) {
+        if (mLayers.isEmpty())
+            return;
         // center camera on world camera
         mBgCam.position.set(worldCenterX, worldCenterY, 0);
-        mBgCam.update();
+        sb.setProjectionMatrix(mBgCam.getMatrix());
+        sb.begin();
 
         // draw the layers
         for (ParallaxLayer pl : mLayers) {
-            // each layer has a different projection, based on its speed
-            sb.setProjectionMatrix(mBgCam.calculateParallaxMatrix(pl.mXSpeed
-                    * mConfig.mPixelMeterRatio, pl.mYSpeed * mConfig.mPixelMeterRatio));
-            sb.begin();
             // go auto layers
             if (pl.mAutoX) {
-                // hack for changing the projection matrix
-                sb.end();
-                sb.setProjectionMatrix(mBgCam.calculateParallaxMatrix(0, 0));
-                sb.begin();
                 // update position, based on elapsed time
                 pl.mLastX += pl.mXSpeed * elapsed;
                 if (pl.mLastX > mConfig.mWidth)
@@ -97,14 +108,22 @@ class ParallaxScene {
                 float startPoint = pl.mLastX;
                 while (startPoint > -mConfig.mWidth)
                     startPoint -= pl.mWidth;
-                // start drawing
-                while (startPoint < mConfig.mWidth) {
-                    sb.draw(pl.mImage, startPoint, pl.mYOffset, pl.mWidth, pl.mHeight);
-                    startPoint += pl.mWidth;
+                // draw enough copies to reach the right side of the screen
+                int count = (int) Math.ceil((mConfig.mWidth - startPoint) / pl.mWidth);
+                if (pl.canWrapX(pl.mWidth)) {
+                    sb.draw(pl.mImage.getTexture(), startPoint, pl.mYOffset, count * pl.mWidth,
+                            pl.mHeight, 0, 1, count, 0);
+                } else {
+                    for (int i = 0; i < count; ++i)
+                        sb.draw(pl.mImage, startPoint + i * pl.mWidth, pl.mYOffset, pl.mWidth, pl.mHeight);
                 }
+                continue;
             }
+            // this is how far the layer moves when the camera moves, based on its speed
+            float shiftX = -worldCenterX * mConfig.mPixelMeterRatio * pl.mXSpeed;
+            float shiftY = -worldCenterY * mConfig.mPixelMeterRatio * pl.mYSpeed;
             // Figure out what to draw for layers that repeat in the x dimension
-            else if (pl.mXRepeat) {
+            if (pl.mXRepeat) {
                 // get the camera center, translate to pixels, and scale by speed
                 float startX = worldCenterX * mConfig.mPixelMeterRatio * pl.mXSpeed;
                 // subtract one and a half screens worth of repeated pictures
@@ -113,14 +132,19 @@ class ParallaxScene {
                 screensBefore += mBgCam.zoom;
                 startX -= (screensBefore * mConfig.mWidth);
                 // round down to nearest screen width
-                startX = startX - startX % pl.mImage.getRegionWidth();
-                float currX = startX;
+                float step = pl.mImage.getRegionWidth();
+                startX = startX - startX % step;
                 // draw picture repeatedly until we've drawn enough to cover the screen. "enough"
                 // can be approximated as 2 screens plus twice the zoom factor
                 float limit = 2 + 2 * mBgCam.zoom;
-                while (currX < startX + limit * mConfig.mWidth) {
-                    sb.draw(pl.mImage, currX, pl.mYOffset, pl.mWidth, pl.mHeight);
-                    currX += pl.mImage.getRegionWidth();
+                int count = (int) Math.ceil(limit * mConfig.mWidth / step);
+                if (pl.canWrapX(step)) {
+                    sb.draw(pl.mImage.getTexture(), startX + shiftX, pl.mYOffset + shiftY,
+                            count * step, pl.mHeight, 0, 1, count, 0);
+                } else {
+                    for (int i = 0; i < count; ++i)
+                        sb.draw(pl.mImage, startX + i * step + shiftX, pl.mYOffset + shiftY,
+                                pl.mWidth, pl.mHeight);
                 }
             }
             // Figure out what to draw for layers that repeat in the y dimension
@@ -130,25 +154,31 @@ class ParallaxScene {
                 // subtract enough screens, as above
                 startY -= (1.5f + mBgCam.zoom) * mConfig.mHeight;
                 // round
-                startY = startY - startY % pl.mImage.getRegionHeight();
-                float currY = startY;
+                float step = pl.mImage.getRegionHeight();
+                startY = startY - startY % step;
                 // draw a bunch of repeated images
                 float limit = 2 + 2 * mBgCam.zoom;
-                while (currY < startY + limit * mConfig.mHeight) {
-                    sb.draw(pl.mImage, pl.mXOffset, currY);
-                    currY += pl.mImage.getRegionHeight();
+                int count = (int) Math.ceil(limit * mConfig.mHeight / step);
+                if (pl.canWrapY()) {
+                    sb.draw(pl.mImage.getTexture(), pl.mXOffset + shiftX, startY + shiftY,
+                            pl.mImage.getRegionWidth(), count * step, 0, count, 1, 0);
+                } else {
+                    for (int i = 0; i < count; ++i)
+                        sb.draw(pl.mImage, pl.mXOffset + shiftX, startY + i * step + shiftY);
                 }
             }
             // draw a layer that never changes based on the camera's X coordinate
             else if (pl.mXSpeed == 0) {
-                sb.draw(pl.mImage, -pl.mImage.getRegionWidth() / 2 + pl.mXOffset, pl.mYOffset);
+                sb.draw(pl.mImage, -pl.mImage.getRegionWidth() / 2 + pl.mXOffset + shiftX,
+                        pl.mYOffset + shiftY);
             }
             // draw a layer that never changes based on the camera's Y coordinate
             else if (pl.mYSpeed == 0) {
-                sb.draw(pl.mImage, pl.mXOffset, -pl.mImage.getRegionHeight() / 2 + pl.mYOffset);
+                sb.draw(pl.mImage, pl.mXOffset + shiftX,
+                        -pl.mImage.getRegionHeight() / 2 + pl.mYOffset + shiftY);
             }
-            sb.end();
         }
+        sb.end();
     }
 
     /**
@@ -165,6 +195,8 @@ class ParallaxScene {
         private final Vector3 tmp = new Vector3();
         /// Another temporary vector for doing the calculations
         private final Vector3 tmp2 = new Vector3();
+        /// The zoom when parallaxCombined was last computed
+        private float mMatrixZoom = Float.NaN;
 
         /**
          * The constructor forwards to the OrthographicCamera constructor
@@ -177,19 +209,22 @@ class ParallaxScene {
         }
 
         /**
-         * Calculate the position of a parallax camera
+         * Get the matrix for drawing the parallax layers.  It is the camera's matrix, as if the
+         * camera were at the origin, so that each layer can be shifted by its own amount.  Since
+         * the camera's position doesn't matter, the matrix only needs to be recomputed when the
+         * zoom changes.
          *
-         * @param parallaxX The speed in the X direction
-         * @param parallaxY The speed in the Y direction
+         * @return The matrix to use as the SpriteBatch's projection
          */
-        Matrix4 calculateParallaxMatrix(float parallaxX, float parallaxY) {
-            update();
-            tmp.set(position);
-            tmp.x *= parallaxX;
-            tmp.y *= parallaxY;
-            parallaxView.setToLookAt(tmp, tmp2.set(tmp).add(direction), up);
-            parallaxCombined.set(projection);
-            Matrix4.mul(parallaxCombined.val, parallaxView.val);
+        Matrix4 getMatrix() {
+            if (zoom != mMatrixZoom) {
+                mMatrixZoom = zoom;
+                update();
+                tmp.set(0, 0, 0);
+                parallaxView.setToLookAt(tmp, tmp2.set(tmp).add(direction), up);
+                parallaxCombined.set(projection);
+                Matrix4.mul(parallaxCombined.val, parallaxView.val);
+            }
             return parallaxCombined;
         }
     }
@@ -0,0 +1,401 @@
+/**
+ * This is free and unencumbered software released into the public domain.
+ * <p>
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ * <p>
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ * <p>
+ * For more information, please refer to <http://unlicense.org>
+ */
+
+
+package edu.lehigh.cse.lol;
+
+import java.util.Arrays;
+
+/**
+ * Profiler measures how long each phase of a frame takes, so that it is possible to tell whether a
+ * slow frame was caused by physics, by game code in an event, or by drawing.
+ * <p>
+ * For each phase, the Profiler remembers the times of the last few hundred frames, and can report
+ * the 50th, 95th, and 99th percentile of those times.  All storage is allocated up front, so
+ * profiling does not create garbage.
+ */
+public class Profiler {
+    /**
+     * The phases of a frame that we time.  If a frame runs several physics steps, the time for
+     * each step-related phase is the total over all of the steps in the frame.
+     */
+    public enum Phase {
+        /// Polling for key presses and the accelerometer
+        INPUT("input"),
+        /// Advancing the Box2D world
+        STEP("step"),
+        /// Running one-time events (e.g., collision handlers)
+        ONE_TIME_EVENTS("one-time"),
+        /// Running repeat events
+        REPEAT_EVENTS("repeat"),
+        /// Moving the camera
+        CAMERA("camera"),
+        /// Drawing the parallax background
+        BACKGROUND("background"),
+        /// Drawing the actors in the world
+        WORLD("world"),
+        /// Drawing the parallax foreground
+        FOREGROUND("foreground"),
+        /// Updating and drawing the heads-up display
+        HUD("hud"),
+        /// The whole frame
+        FRAME("frame");
+
+        /// A short name for the phase, for display purposes
+        public final String mName;
+
+        /**
+         * Create a Phase
+         *
+         * @param name A short name for the phase
+         */
+        Phase(String name) {
+            mName = name;
+        }
+    }
+
+    /// The number of frames we remember for each phase
+    private static final int NUM_SAMPLES = 256;
+    /// A cached copy of Phase.values(), since values() makes a new array each time it is called
+    private static final Phase[] PHASES = Phase.values();
+
+    /// For each phase, a ring buffer of the times (in nanoseconds) of the most recent frames
+    private final long[][] mSamples = new long[PHASES.length][NUM_SAMPLES];
+    /// The time spent so far in each phase, during the current frame
+    private final long[] mCurrent = new long[PHASES.length];
+    /// The index in the ring buffers where the next frame's times will go
+    private int mNextSample;
+    /// The number of valid entries in the ring buffers
+    private int mSampleCount;
+    /// The number of frames that have finished since the game started
+    private int mFrameCount;
+    /// The number of physics steps that have run since the game started
+    private int mStepCount;
+    /// The time when the current frame started
+    private long mFrameStart;
+    /// The time when the current phase started
+    private long mPhaseStart;
+
+    /// A scratch array for sorting, so that computing percentiles does not allocate
+    private final long[] mSorted = new long[NUM_SAMPLES];
+    /// For each phase, the 50th, 95th, and 99th percentile times, in milliseconds
+    private final float[][] mPercentiles = new float[PHASES.length][3];
+    /// Track whether the percentiles need to be recomputed
+    private boolean mDirty;
+
+    /// The number of world objects drawn in the most recent frame
+    private int mDrawnCount;
+    /// The number of world objects skipped in the most recent frame, because they were off-camera
+    private int mCulledCount;
+    /// The number of times the SpriteBatch flushed while drawing the world in the most recent frame
+    private int mFlushCount;
+
+    /// The number of collisions recorded during the physics steps of the most recent frame
+    private int mContactCount;
+    /// The most collisions the contact queue has held at once
+    private int mContactPeak;
+    /// The number of collisions dropped because the contact queue was full
+    private int mContactDropped;
+    /// The number of collisions the contact queue can hold without growing
+    private int mContactCapacity;
+
+    /**
+     * Start timing a new frame
+     */
+    void beginFrame() {
+        Arrays.fill(mCurrent, 0);
+        mFrameStart = System.nanoTime();
+        mPhaseStart = mFrameStart;
+    }
+
+    /**
+     * Start timing a phase
+     */
+    void begin() {
+        mPhaseStart = System.nanoTime();
+    }
+
+    /**
+     * Stop timing a phase, and charge the time since the last call to begin() to it
+     *
+     * @param phase The phase that just finished
+     */
+    void end(Phase phase) {
+        mCurrent[phase.ordinal()] += System.nanoTime() - mPhaseStart;
+    }
+
+    /**
+     * Save the number of world objects that were drawn and culled in this frame
+     *
+     * @param drawn   The number of objects that were drawn
+     * @param culled  The number of objects that were not drawn, because the camera couldn't see
+     *                them
+     * @param flushes The number of times the SpriteBatch flushed (i.e., made a draw call)
+     */
+    void setDrawCounts(int drawn, int culled, int flushes) {
+        mDrawnCount = drawn;
+        mCulledCount = culled;
+        mFlushCount = flushes;
+    }
+
+    /**
+     * Save the state of the contact queue
+     *
+     * @param count    The number of collisions recorded in this frame
+     * @param peak     The most collisions the queue has held at once
+     * @param dropped  The number of collisions dropped because the queue was full
+     * @param capacity The number of collisions the queue can hold without growing
+     */
+    void setContactCounts(int count, int peak, int dropped, int capacity) {
+        mContactCount = count;
+        mContactPeak = peak;
+        mContactDropped = dropped;
+        mContactCapacity = capacity;
+    }
+
+    /**
+     * Count a physics step.  A frame may run several steps, or none (e.g., while a PreScene is
+     * showing).
+     */
+    void countStep() {
+        mStepCount++;
+    }
+
+    /**
+     * Finish timing a frame, and save its phase times in the ring buffers
+     */
+    void endFrame() {
+        mCurrent[Phase.FRAME.ordinal()] = System.nanoTime() - mFrameStart;
+        for (int i = 0; i < PHASES.length; ++i)
+            mSamples[i][mNextSample] = mCurrent[i];
+        mNextSample = (mNextSample + 1) % NUM_SAMPLES;
+        if (mSampleCount < NUM_SAMPLES)
+            mSampleCount++;
+        mFrameCount++;
+        mDirty = true;
+    }
+
+    /**
+     * Recompute the percentiles for every phase, if any frames have finished since the last time
+     */
+    private void update() {
+        if (!mDirty || mSampleCount == 0)
+            return;
+        mDirty = false;
+        for (int i = 0; i < PHASES.length; ++i) {
+            System.arraycopy(mSamples[i], 0, mSorted, 0, mSampleCount);
+            Arrays.sort(mSorted, 0, mSampleCount);
+            mPercentiles[i][0] = pick(0.50f);
+            mPercentiles[i][1] = pick(0.95f);
+            mPercentiles[i][2] = pick(0.99f);
+        }
+    }
+
+    /**
+     * Find a percentile in the sorted scratch array
+     *
+     * @param fraction The percentile, as a value between 0 and 1
+     * @return The time at that percentile, in milliseconds
+     */
+    private float pick(float fraction) {
+        int index = (int) Math.ceil(fraction * mSampleCount) - 1;
+        index = (index < 0) ? 0 : index;
+        return mSorted[index] / 1000000f;
+    }
+
+    /**
+     * Get the number of frames that the percentiles are computed from
+     *
+     * @return The number of frames (at most a few hundred)
+     */
+    public int getSampleCount() {
+        return mSampleCount;
+    }
+
+    /**
+     * Get the number of frames that have finished since the game started
+     *
+     * @return The number of frames
+     */
+    public int getFrameCount() {
+        return mFrameCount;
+    }
+
+    /**
+     * Get the number of physics steps that have run since the game started
+     *
+     * @return The number of steps
+     */
+    public int getStepCount() {
+        return mStepCount;
+    }
+
+    /**
+     * Get the median time of a phase over the recent frames
+     *
+     * @param phase The phase to report
+     * @return The time, in milliseconds
+     */
+    public float getP50(Phase phase) {
+        update();
+        return mPercentiles[phase.ordinal()][0];
+    }
+
+    /**
+     * Get the 95th percentile time of a phase over the recent frames
+     *
+     * @param phase The phase to report
+     * @return The time, in milliseconds
+     */
+    public float getP95(Phase phase) {
+        update();
+        return mPercentiles[phase.ordinal()][1];
+    }
+
+    /**
+     * Get the 99th percentile time of a phase over the recent frames
+     *
+     * @param phase The phase to report
+     * @return The time, in milliseconds
+     */
+    public float getP99(Phase phase) {
+        update();
+        return mPercentiles[phase.ordinal()][2];
+    }
+
+    /**
+     * Get the time of a phase in the most recently finished frame
+     *
+     * @param phase The phase to report
+     * @return The time, in milliseconds
+     */
+    public float getLast(Phase phase) {
+        if (mSampleCount == 0)
+            return 0;
+        int last = (mNextSample + NUM_SAMPLES - 1) % NUM_SAMPLES;
+        return mSamples[phase.ordinal()][last] / 1000000f;
+    }
+
+    /**
+     * Get the number of world objects that were drawn in the most recent frame
+     *
+     * @return The number of objects drawn
+     */
+    public int getDrawnCount() {
+        return mDrawnCount;
+    }
+
+    /**
+     * Get the number of world objects that were culled (not drawn, because they were off-camera)
+     * in the most recent frame
+     *
+     * @return The number of objects culled
+     */
+    public int getCulledCount() {
+        return mCulledCount;
+    }
+
+    /**
+     * Get the number of times the SpriteBatch flushed while drawing the world in the most recent
+     * frame.  Every texture switch causes a flush, so this shows how well texture sorting and
+     * atlases are working.
+     *
+     * @return The number of flushes
+     */
+    public int getFlushCount() {
+        return mFlushCount;
+    }
+
+    /**
+     * Get the number of collisions that were recorded during the physics steps of the most recent
+     * frame
+     *
+     * @return The number of collisions
+     */
+    public int getContactCount() {
+        return mContactCount;
+    }
+
+    /**
+     * Get the most collisions that the contact queue has held at once, during this level
+     *
+     * @return The peak number of queued collisions
+     */
+    public int getContactPeak() {
+        return mContactPeak;
+    }
+
+    /**
+     * Get the number of collisions that were dropped during this level, because the contact queue
+     * was full (see Config.mGrowContactQueue)
+     *
+     * @return The number of dropped collisions
+     */
+    public int getContactDropCount() {
+        return mContactDropped;
+    }
+
+    /**
+     * Get the number of collisions the contact queue can hold.  If it is larger than
+     * Config.mContactQueueSize, the queue had to grow, and a larger size would avoid that.
+     *
+     * @return The capacity of the contact queue
+     */
+    public int getContactCapacity() {
+        return mContactCapacity;
+    }
+
+    /**
+     * Write a table of the percentiles for every phase, one phase per line, followed by the number
+     * of world objects that were drawn and culled, the number of SpriteBatch flushes, and the
+     * state of the contact queue, in the most recent frame
+     *
+     * @param sb The StringBuilder to append to
+     */
+    public void report(StringBuilder sb) {
+        update();
+        sb.append("phase p50 p95 p99 (ms)");
+        for (int i = 0; i < PHASES.length; ++i) {
+            sb.append('\n').append(PHASES[i].mName);
+            for (int j = 0; j < 3; ++j) {
+                // three decimal places (i.e., microseconds), without String.format
+                int micros = Math.round(mPercentiles[i][j] * 1000);
+                sb.append(' ').append(micros / 1000).append('.');
+                if (micros % 1000 < 100)
+                    sb.append('0');
+                if (micros % 1000 < 10)
+                    sb.append('0');
+                sb.append(micros % 1000);
+            }
+        }
+        sb.append("\ndrawn ").append(mDrawnCount).append(" culled ").append(mCulledCount)
+                .append(" flushes ").append(mFlushCount);
+        sb.append("\ncontacts ").append(mContactCount).append(" peak ").append(mContactPeak)
+                .append(" dropped ").append(mContactDropped).append(" capacity ")
+                .append(mContactCapacity);
+    }
+}
@@ -30,7 +30,6 @@ package edu.lehigh.cse.lol;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.BodyDef.BodyType;
-import com.badlogic.gdx.physics.box2d.Contact;
 
 /**
  * Projectiles are actors that can be thrown from the hero's location in order to remove enemies.
@@ -60,7 +59,10 @@ class Projectile extends WorldActor {
      * @param isCircle True if it is a circle, false if it is a box
      */
     Projectile(Lol game, MainScene level, float width, float height, String imgName, float x, float y, int zIndex, boolean isCircle) {
-        super(game, level, imgName, width, height);
+        super(game, level, imgName, width, height, TYPE_PROJECTILE);
+        // projectiles are re-used, so never put them in a static cache, and never destroy them
+        mNeverCache = true;
+        mPooled = true;
         if (isCircle) {
             float radius = Math.max(width, height);
             setCirclePhysics(BodyType.DynamicBody, x, y, radius / 2);
@@ -78,29 +80,39 @@ class Projectile extends WorldActor {
     }
 
     /**
-     * Code to run when a Projectile collides with a WorldActor.
+     * Code to run when a Projectile collides with an Obstacle.  If the obstacle has a projectile
+     * callback, it runs instead of the projectile disappearing.
      *
-     * The only collision where Projectile is dominant is a collision with an Obstacle or another
-     * Projectile.  On most collisions, a projectile will disappear.
-     *
-     * @param other   Other object involved in this collision
+     * @param o       The obstacle with which this projectile collided
      * @param contact A description of the contact that caused this collision
      */
-    @Override
-    void onCollide(WorldActor other, Contact contact) {
-        // if this is an obstacle, check if it is a projectile callback, and if so, do the callback
-        if (other instanceof Obstacle) {
-            Obstacle o = (Obstacle) other;
-            if (o.mProjectileCollision != null) {
-                o.mProjectileCollision.go(o, this, contact);
-                // return... don't remove the projectile
-                return;
-            }
-        }
-        if (other instanceof Projectile) {
-            if (!mDisappearOnCollide)
-                return;
+    void onCollideWithObstacle(Obstacle o, ContactEvent contact) {
+        if (o.mProjectileCollision != null) {
+            o.mProjectileCollision.go(o, this, contact);
+            // return... don't remove the projectile
+            return;
         }
+        onCollideWithActor(o);
+    }
+
+    /**
+     * Code to run when a Projectile collides with another Projectile
+     *
+     * @param other The other projectile
+     */
+    void onCollideWithProjectile(Projectile other) {
+        if (!mDisappearOnCollide)
+            return;
+        onCollideWithActor(other);
+    }
+
+    /**
+     * Code to run when a Projectile collides with a WorldActor that doesn't handle the collision
+     * itself.  On most collisions, a projectile will disappear.
+     *
+     * @param other Other object involved in this collision
+     */
+    void onCollideWithActor(WorldActor other) {
         // only disappear if other is not a sensor
         if (other.mBody.getFixtureList().get(0).isSensor())
             return;
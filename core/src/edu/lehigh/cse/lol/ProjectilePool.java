@@ -88,6 +88,9 @@ class ProjectilePool {
             mPool[i].mBody.setBullet(true);
             mPool[i].mBody.setActive(false);
             mPool[i].mDamage = strength;
+            // projectiles must keep flying when they leave the screen, or they'd never reach their
+            // range and return to the pool
+            mPool[i].mAlwaysActive = true;
         }
         mNextIndex = 0;
         mPoolSize = size;
@@ -134,6 +137,7 @@ class ProjectilePool {
         b.mRangeFrom.y = h.getYPosition() + offsetY;
         b.mBody.setActive(true);
         b.mBody.setTransform(b.mRangeFrom, 0);
+        b.saveTransform();
 
         // give the projectile velocity, show it, play sound, animate the hero
         b.updateVelocity(velocityX, velocityY);
@@ -184,6 +188,7 @@ class ProjectilePool {
         b.mRangeFrom.y = heroY + offsetY;
         b.mBody.setActive(true);
         b.mBody.setTransform(b.mRangeFrom, 0);
+        b.saveTransform();
 
         // give the projectile velocity
         if (mEnableFixedVectorVelocity) {
@@ -210,6 +215,7 @@ class ProjectilePool {
         if (mRotateVectorThrow) {
             double angle = Math.atan2(toY - heroY - offsetY, toX - heroX - offsetX) - Math.atan2(-1, 0);
             b.mBody.setTransform(b.mBody.getPosition(), (float) angle);
+            b.saveTransform();
         }
 
         // show the projectile, play sound, and animate the hero
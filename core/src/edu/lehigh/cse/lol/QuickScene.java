@@ -33,8 +33,6 @@ import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.utils.Timer;
 
-import java.util.ArrayList;
-
 public class QuickScene extends LolScene {
     /// A flag for disabling the scene, so we can keep it from displaying
     private boolean mDisable;
@@ -127,8 +125,8 @@ public class QuickScene extends LolScene {
         mCamera.update();
         sb.setProjectionMatrix(mCamera.combined);
         sb.begin();
-        for (ArrayList<Renderable> a : mRenderables) {
-            for (Renderable r : a) {
+        for (int i = 0; i < mRenderables.size(); ++i) {
+            for (Renderable r = mRenderables.get(i).mHead; r != null; r = r.mNext) {
                 r.render(sb, delta);
             }
         }
@@ -245,6 +243,15 @@ public class QuickScene extends LolScene {
             mShowAction.go();
     }
 
+    /**
+     * Check if the scene is being shown
+     *
+     * @return True if the scene is visible, in which case the game is paused behind it
+     */
+    public boolean isVisible() {
+        return mVisible;
+    }
+
     /**
      * Stop showing the scene
      */
@@ -0,0 +1,228 @@
+/**
+ * This is free and unencumbered software released into the public domain.
+ * <p>
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ * <p>
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ * <p>
+ * For more information, please refer to <http://unlicense.org>
+ */
+
+package edu.lehigh.cse.lol;
+
+import com.badlogic.gdx.utils.IntMap;
+
+import java.util.ArrayList;
+
+/**
+ * RenderLayers holds everything that a scene draws, grouped into layers by z depth.  Any integer
+ * can be a depth; a layer is made the first time something is put at its depth, and layers are
+ * drawn from the lowest depth to the highest.
+ * <p>
+ * Within a layer, Renderables are kept in a doubly-linked list, using links that are stored in the
+ * Renderables themselves.  Since each Renderable knows its layer and its neighbors, adding,
+ * removing, and moving a Renderable to another depth take constant time, and walking the layers
+ * doesn't allocate anything:
+ * <pre>
+ * for (int i = 0; i &lt; layers.size(); ++i)
+ *     for (Renderable r = layers.get(i).mHead; r != null; r = r.mNext)
+ *         ...
+ * </pre>
+ * NB: a Renderable can only be in one layer of one scene at a time
+ */
+class RenderLayers {
+    /**
+     * A Layer is the list of Renderables at one depth, in drawing order
+     */
+    static class Layer {
+        /// The z depth of this layer
+        final int mDepth;
+        /// A number that identifies this layer within its RenderLayers, starting at 0 and counting
+        /// up as layers are made, so that other code can keep per-layer data in an array
+        final int mId;
+        /// The first Renderable in the layer, which is drawn first
+        Renderable mHead;
+        /// The last Renderable in the layer, which is drawn last
+        Renderable mTail;
+        /// The number of Renderables in the layer
+        int mSize;
+
+        /**
+         * Create an empty layer
+         *
+         * @param depth The z depth of the layer
+         * @param id    The number that identifies the layer
+         */
+        Layer(int depth, int id) {
+            mDepth = depth;
+            mId = id;
+        }
+
+        /**
+         * Put a Renderable at the end of this layer
+         *
+         * @param r The Renderable.  If it is already in a layer, it is moved.
+         */
+        void append(Renderable r) {
+            insertAfter(mTail, r);
+        }
+
+        /**
+         * Put a Renderable into this layer, right after another one
+         *
+         * @param prev The Renderable to follow, or null to put r at the front of the layer
+         * @param r    The Renderable.  If it is already in a layer, it is moved.
+         */
+        void insertAfter(Renderable prev, Renderable r) {
+            // A Renderable has only one set of links, so it must leave its old layer first, or
+            // that layer's list would still point at it
+            if (r.mLayer != null) {
+                if (prev == r)
+                    prev = r.mPrev;
+                r.mLayer.remove(r);
+            }
+            r.mLayer = this;
+            r.mPrev = prev;
+            r.mNext = (prev == null) ? mHead : prev.mNext;
+            if (r.mNext == null)
+                mTail = r;
+            else
+                r.mNext.mPrev = r;
+            if (prev == null)
+                mHead = r;
+            else
+                prev.mNext = r;
+            mSize++;
+        }
+
+        /**
+         * Take a Renderable out of this layer.  Its mNext link is left alone, so that a loop over
+         * the layer can remove the Renderable it is visiting and still reach the next one.
+         *
+         * @param r The Renderable, which must be in this layer
+         */
+        void remove(Renderable r) {
+            if (r.mPrev == null)
+                mHead = r.mNext;
+            else
+                r.mPrev.mNext = r.mNext;
+            if (r.mNext == null)
+                mTail = r.mPrev;
+            else
+                r.mNext.mPrev = r.mPrev;
+            r.mPrev = null;
+            r.mLayer = null;
+            mSize--;
+        }
+
+        /**
+         * Take every Renderable out of this layer
+         */
+        void clear() {
+            Renderable r = mHead;
+            while (r != null) {
+                Renderable next = r.mNext;
+                r.mPrev = null;
+                r.mNext = null;
+                r.mLayer = null;
+                r = next;
+            }
+            mHead = null;
+            mTail = null;
+            mSize = 0;
+        }
+    }
+
+    /// The layers, sorted by depth
+    private final ArrayList<Layer> mLayers = new ArrayList<>();
+    /// The layers, indexed by depth
+    private final IntMap<Layer> mByDepth = new IntMap<>();
+
+    /**
+     * Get the number of layers
+     *
+     * @return The number of layers
+     */
+    int size() {
+        return mLayers.size();
+    }
+
+    /**
+     * Get a layer by its position in drawing order
+     *
+     * @param index The position of the layer, from 0 (the lowest depth) to size() - 1
+     * @return The layer
+     */
+    Layer get(int index) {
+        return mLayers.get(index);
+    }
+
+    /**
+     * Get the layer for a depth, making it if there isn't one yet
+     *
+     * @param depth The z depth
+     * @return The layer
+     */
+    Layer getLayer(int depth) {
+        Layer layer = mByDepth.get(depth);
+        if (layer != null)
+            return layer;
+        layer = new Layer(depth, mLayers.size());
+        mByDepth.put(depth, layer);
+        // new depths are rare, so a linear search for the insertion point is fine
+        int i = mLayers.size();
+        while (i > 0 && mLayers.get(i - 1).mDepth > depth)
+            --i;
+        mLayers.add(i, layer);
+        return layer;
+    }
+
+    /**
+     * Put a Renderable at the end of the layer for a depth
+     *
+     * @param r     The Renderable.  If it is already in a layer, it is moved.
+     * @param depth The z depth
+     */
+    void add(Renderable r, int depth) {
+        getLayer(depth).append(r);
+    }
+
+    /**
+     * Take a Renderable out of whatever layer it is in
+     *
+     * @param r The Renderable
+     * @return The layer it was in, or null if it wasn't in one
+     */
+    Layer remove(Renderable r) {
+        Layer layer = r.mLayer;
+        if (layer != null)
+            layer.remove(r);
+        return layer;
+    }
+
+    /**
+     * Take every Renderable out of every layer.  The layers themselves are kept, since a scene
+     * that is reset will usually be filled with the same depths again.
+     */
+    void clear() {
+        for (int i = 0; i < mLayers.size(); ++i)
+            mLayers.get(i).clear();
+    }
+}
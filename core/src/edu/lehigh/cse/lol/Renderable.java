@@ -38,6 +38,12 @@ abstract class Renderable {
     /// Track if the object is currently allowed to be rendered. This is a proxy for "is important
     /// to the rest of the game" and when it is false, we don't run any updates on the object
     boolean mEnabled = true;
+    /// The layer of the scene that this object is in, or null if it isn't in one
+    RenderLayers.Layer mLayer;
+    /// The object drawn just before this one in its layer
+    Renderable mPrev;
+    /// The object drawn just after this one in its layer
+    Renderable mNext;
 
     /**
      * Specify whether this Renderable object is enabled or disabled.  When it is disabled, it
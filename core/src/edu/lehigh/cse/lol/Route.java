@@ -119,6 +119,7 @@ public class Route {
             // move to the starting point
             mActor.mBody.setTransform(mRoute.mXIndices[0] + mActor.mSize.x / 2,
                     mRoute.mYIndices[0] + mActor.mSize.y / 2, 0);
+            mActor.saveTransform();
             // set up our next goal, start moving toward it
             mNextRouteGoal = 1;
             mRouteVec.x = mRoute.mXIndices[mNextRouteGoal] - mActor.getXPosition();
@@ -0,0 +1,233 @@
+/**
+ * This is free and unencumbered software released into the public domain.
+ * <p>
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ * <p>
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ * <p>
+ * For more information, please refer to <http://unlicense.org>
+ */
+
+
+package edu.lehigh.cse.lol;
+
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.SpriteCache;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.physics.box2d.Body;
+
+import java.util.Arrays;
+
+/**
+ * StaticCache draws the actors that never move (typically the walls, platforms, and other
+ * obstacles that make up a level).  Rather than asking each of them for its position and sending
+ * its image to the SpriteBatch on every frame, we put their images into a SpriteCache once, one
+ * cache per z plane, and then draw each plane's cache with a single call.
+ * <p>
+ * A plane's cache is rebuilt only when it is marked dirty, which happens when an actor in the
+ * plane is added, removed, moved, resized, or changed in some other way (see
+ * BaseActor.invalidateCache).
+ * <p>
+ * NB: a plane's cached actors are drawn before its other actors, so within a plane, static actors
+ *     always appear behind moving ones
+ */
+class StaticCache {
+    /// The most sprites that a SpriteCache can hold
+    private static final int MAX_SPRITES = 8191;
+
+    /// The number of z planes that the arrays below have room for
+    private int mNumPlanes;
+    /// One SpriteCache per z plane, created when the plane first has something to cache.  All of
+    /// these arrays are indexed by the plane's id (RenderLayers.Layer.mId).
+    private SpriteCache[] mCaches = new SpriteCache[0];
+    /// The number of sprites each plane's SpriteCache can hold
+    private int[] mCapacities = new int[0];
+    /// The id of each plane's cached geometry, or -1 if the plane has nothing cached
+    private int[] mCacheIds = new int[0];
+    /// Track which planes need to be rebuilt before they are drawn
+    private boolean[] mDirty = new boolean[0];
+
+    /**
+     * Create a StaticCache.  No OpenGL resources are made until something is drawn.
+     */
+    StaticCache() {
+    }
+
+    /**
+     * Make sure that the arrays have room for a plane.  Planes are made rarely, so the arrays are
+     * only grown as needed.
+     *
+     * @param plane The id of the plane
+     */
+    private void ensurePlane(int plane) {
+        if (plane < mNumPlanes)
+            return;
+        int n = Math.max(plane + 1, mNumPlanes * 2);
+        mCaches = Arrays.copyOf(mCaches, n);
+        mCapacities = Arrays.copyOf(mCapacities, n);
+        mCacheIds = Arrays.copyOf(mCacheIds, n);
+        mDirty = Arrays.copyOf(mDirty, n);
+        for (int i = mNumPlanes; i < n; ++i) {
+            mCacheIds[i] = -1;
+            mDirty[i] = true;
+        }
+        mNumPlanes = n;
+    }
+
+    /**
+     * Note that an actor has changed in a way that the cache might need to know about.  If the
+     * actor is cached, we rebuild its plane, so that the cache drops it or shows its new state.  If
+     * it isn't cached, we only rebuild its plane when the change made it cacheable.  Changes to
+     * moving actors never cost a rebuild.
+     *
+     * @param actor The actor that changed
+     */
+    void invalidate(BaseActor actor) {
+        if (actor.mCachePlane >= 0)
+            mDirty[actor.mCachePlane] = true;
+        else if (actor.mLayer != null && actor.isCacheable())
+            mDirty[actor.mLayer.mId] = true;
+    }
+
+    /**
+     * Note that an actor was added to or removed from a plane.  Either way, the actor is no longer
+     * drawn from the cache it was in: if it is still cacheable, the next rebuild of its (new)
+     * plane will put it back, and if it isn't, it needs to draw itself.
+     *
+     * @param actor The actor
+     * @param plane The id of the plane
+     */
+    void invalidate(Renderable actor, int plane) {
+        ensurePlane(plane);
+        if (actor instanceof BaseActor) {
+            BaseActor a = (BaseActor) actor;
+            if (a.mCachePlane >= 0) {
+                mDirty[a.mCachePlane] = true;
+                a.mCachePlane = -1;
+            }
+            // adding or removing a moving actor doesn't change what the plane's cache holds
+            if (a.isCacheable())
+                mDirty[plane] = true;
+        }
+    }
+
+    /**
+     * Draw the cached actors of one plane, rebuilding the plane's cache first if necessary.  The
+     * SpriteBatch must be between begin() and end(); it is flushed, and left ready for drawing the
+     * plane's other actors.
+     *
+     * @param layer  The plane to draw
+     * @param sb     The SpriteBatch that is drawing the world
+     * @param camera The camera that is drawing the world
+     */
+    void draw(RenderLayers.Layer layer, SpriteBatch sb, Camera camera) {
+        int plane = layer.mId;
+        ensurePlane(plane);
+        if (mDirty[plane])
+            rebuild(plane, layer);
+        if (mCacheIds[plane] == -1)
+            return;
+        sb.end();
+        SpriteCache cache = mCaches[plane];
+        cache.setProjectionMatrix(camera.combined);
+        cache.begin();
+        cache.draw(mCacheIds[plane]);
+        cache.end();
+        sb.begin();
+    }
+
+    /**
+     * Put every eligible actor of a plane into that plane's cache
+     *
+     * @param plane The id of the plane to rebuild
+     * @param layer The contents of the plane
+     */
+    private void rebuild(int plane, RenderLayers.Layer layer) {
+        mDirty[plane] = false;
+        mCacheIds[plane] = -1;
+
+        // find out what can be cached
+        int count = 0;
+        for (Renderable r = layer.mHead; r != null; r = r.mNext) {
+            if (r instanceof BaseActor) {
+                BaseActor a = (BaseActor) r;
+                if (a.mCachePlane == plane)
+                    a.mCachePlane = -1;
+                if (count < MAX_SPRITES && a.isCacheable()) {
+                    a.mCachePlane = plane;
+                    count++;
+                }
+            }
+        }
+        if (count == 0)
+            return;
+
+        // make sure the plane has a SpriteCache that is big enough
+        if (mCapacities[plane] < count) {
+            if (mCaches[plane] != null)
+                mCaches[plane].dispose();
+            mCapacities[plane] = Math.min(MAX_SPRITES, Math.max(count * 2, 64));
+            mCaches[plane] = new SpriteCache(mCapacities[plane], true);
+        }
+
+        // put each actor's image into the cache, just as BaseActor.onRender would draw it
+        SpriteCache cache = mCaches[plane];
+        cache.clear();
+        cache.beginCache();
+        for (Renderable r = layer.mHead; r != null; r = r.mNext) {
+            if (r instanceof BaseActor && ((BaseActor) r).mCachePlane == plane) {
+                BaseActor a = (BaseActor) r;
+                TextureRegion tr = a.mAnimator.getTr(0);
+                Body b = a.mBody;
+                cache.add(tr, b.getPosition().x - a.mSize.x / 2, b.getPosition().y - a.mSize.y / 2,
+                        a.mSize.x / 2, a.mSize.y / 2, a.mSize.x, a.mSize.y, 1, 1,
+                        MathUtils.radiansToDegrees * b.getAngle());
+            }
+        }
+        mCacheIds[plane] = cache.endCache();
+    }
+
+    /**
+     * Forget the contents of every cache, but keep the caches, so that they can be filled again
+     * for the next level
+     */
+    void clear() {
+        for (int i = 0; i < mNumPlanes; ++i) {
+            mCacheIds[i] = -1;
+            mDirty[i] = true;
+        }
+    }
+
+    /**
+     * Release the OpenGL resources held by the caches
+     */
+    void dispose() {
+        for (int i = 0; i < mNumPlanes; ++i) {
+            if (mCaches[i] != null)
+                mCaches[i].dispose();
+            mCaches[i] = null;
+            mCapacities[i] = 0;
+            mCacheIds[i] = -1;
+            mDirty[i] = true;
+        }
+    }
+}
@@ -28,13 +28,18 @@
 package edu.lehigh.cse.lol;
 
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.math.MathUtils;
-import com.badlogic.gdx.math.Vector2;
-import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.BooleanArray;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.SerializationException;
 import com.badlogic.gdx.utils.XmlReader;
-import com.badlogic.gdx.utils.XmlReader.Element;
 
-import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
 
 /**
  * The Svg infrastructure allows the game designer to load SVG line drawings into a game. SVG line
@@ -42,6 +47,16 @@ import java.io.IOException;
  * only use them to define a set of invisible lines for a simple, stationary obstacle. You should
  * draw a picture on top of your line drawing, so that the player knows that there is an actor on
  * the screen.
+ * <p>
+ * There are two ways to turn the lines into obstacles.  The original way makes a thin box Obstacle
+ * for every line segment.  The other way makes a single LineDrawing obstacle, in which each path
+ * is a ChainShape, which is much cheaper for Box2D when the drawing is detailed.
+ * <p>
+ * Every path command (M, L, H, V, C, S, Q, T, A, and Z, in both absolute and relative form) is
+ * understood.  Curves and arcs are turned into lines that stay within Config.mSvgTolerance of the
+ * true curve.  The lines are then saved in a small binary file in Config.mSvgCacheFolder, named
+ * by a hash of the SVG file, so that the next time the drawing is loaded, the SVG file does not
+ * need to be parsed.
  */
 public class Svg {
     /// A reference to the public API, so that we can easily make Obstacles as we draw the SVG
@@ -49,27 +64,75 @@ public class Svg {
 
     /// This callback will run whenever we create a new line segment
     private final LolActorEvent mActorCallback;
+    /// When this is true, paths become chains in a single LineDrawing, instead of one obstacle
+    /// per segment
+    private final boolean mMakeChains;
+    /// Should points that are on a straight line between their neighbors be dropped from chains?
+    private final boolean mSimplify;
+    /// The points of the path that is being turned into a chain, in meters, as x,y pairs
+    private final FloatArray mPathPoints;
+    /// The finished paths, in meters, as x,y pairs
+    final ArrayList<float[]> mPaths;
+    /// For each finished path, true if it is a loop
+    final BooleanArray mPathLoops;
     /// The offset by which we shift the line drawing
-    private final Vector2 mUserTransform;
+    private final float mUserTransformX, mUserTransformY;
     /// The amount by which we stretch the drawing
-    private final Vector2 mUserStretch;
-    /// SVG files can have an internal "translate" field... while parsing, we save the field here
-    private final Vector2 mSvgTranslate;
-    /// Coordinate of the last point we drew
-    private final Vector2 mLast;
-    /// Coordinate of the first point we drew
-    private final Vector2 mFirst;
-    /// Coordinate of the current point being drawn
-    private final Vector2 mCurr;
-    /// The parser is essentially a finite state machine. The states are 0 for "read next x", 1 for
-    /// "read next y", -2 for "read first x", and -1 for "read first y"
-    private int mState;
-    /// Our parser can't handle curves. When we encounter a curve, we use this field to swallow a
-    /// fixed number of values, so that the curve definition becomes a line definition
-    private int mSwallow;
-    /// Track if we're parsing a curve or a line. Valid values are 0 for "uninitialized", 1 for
-    // "starting to read", 2 for "parsing curve", and 3 for "parsing line"
-    private int mMode;
+    private final float mUserStretchX, mUserStretchY;
+
+    /// The points of every path in the drawing, in SVG pixels, after the "translate" of the
+    /// enclosing g has been applied, and after reflecting the Y axis.  This is what gets cached.
+    private final FloatArray mRawPoints = new FloatArray();
+    /// The index in mRawPoints where each path starts
+    private final IntArray mRawStarts = new IntArray();
+    /// For each path, true if it was closed with a "z"
+    private final BooleanArray mRawLoops = new BooleanArray();
+
+    /// The offset of the current g element's "translate" transform, in pixels
+    private float mSvgTranslateX, mSvgTranslateY;
+    /// The Y coordinate of the first point of the drawing.  We reflect every point through it,
+    /// since SVG has a "down is plus" Y axis
+    private float mFirstY;
+    /// Have we seen the first point of the drawing yet?
+    private boolean mHaveFirst;
+    /// The current point of the path that is being parsed
+    private float mCurX, mCurY;
+    /// The start of the current subpath, which is where a "z" returns to
+    private float mStartX, mStartY;
+    /// The last control point of the previous command, for the shorthand "S" and "T" curves
+    private float mCtrlX, mCtrlY;
+    /// 'C' if the previous command was a cubic curve, 'Q' if it was a quadratic one, else 0
+    private char mLastCurve;
+    /// Is there a path in mRawPoints that we are still adding points to?
+    private boolean mPathOpen;
+    /// How far the lines made from a curve may be from the curve, in pixels
+    private float mTolerance;
+
+    /// The string that the tokenizer is reading
+    private String mText;
+    /// The position of the tokenizer in mText
+    private int mPos;
+    /// The length of mText
+    private int mLen;
+    /// Set when the tokenizer finds something that isn't what it expected
+    private boolean mBadToken;
+
+    /// The shortest segment we put in a chain, in meters.  Box2D needs chain points to be a little
+    /// farther apart than its "linear slop" of half a centimeter.
+    private static final float MIN_SEGMENT = .01f;
+    /// How far from straight (as the sine of the angle) a corner can be, and still be dropped when
+    /// simplifying a chain
+    private static final float COLLINEAR = .01f;
+    /// The most lines we will use for a single curve or arc
+    private static final int MAX_CURVE_SEGMENTS = 64;
+    /// Exact powers of ten, for turning the digits of a number into a float
+    private static final double[] POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8,
+            1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+    /// The first word of a cache file ("LOLS")
+    private static final int CACHE_MAGIC = 0x4c4f4c53;
+    /// The version of the cache file format.  Change this whenever the format, or the way that
+    /// paths are turned into points, changes.
+    private static final int CACHE_VERSION = 1;
 
     /**
      * Configure a parser that we can use to load an SVG file and draw each of
@@ -88,24 +151,89 @@ public class Svg {
         mLevel = level;
 
         // specify transpose and stretch information
-        mUserStretch = new Vector2(1, 1);
-        mUserStretch.x = stretchX;
-        mUserStretch.y = stretchY;
-        mUserTransform = new Vector2(0, 0);
-        mUserTransform.x = transposeX;
-        mUserTransform.y = transposeY;
+        mUserStretchX = stretchX;
+        mUserStretchY = stretchY;
+        mUserTransformX = transposeX;
+        mUserTransformY = transposeY;
 
         // save the callback
         mActorCallback = callback;
+        mMakeChains = false;
+        mSimplify = false;
+        mPathPoints = null;
+        mPaths = null;
+        mPathLoops = null;
+    }
 
-        // initialize other fields
-        mSvgTranslate = new Vector2(0, 0);
-        mLast = new Vector2(0, 0);
-        mFirst = new Vector2(0, 0);
-        mCurr = new Vector2(0, 0);
-        mState = 0;
-        mSwallow = 0;
-        mMode = 0;
+    /**
+     * Configure a parser that we can use to load an SVG file and turn each of its paths into a
+     * list of points, so that they can become the chains of a LineDrawing
+     *
+     * @param stretchX   Stretch the drawing in the X dimension by this percentage
+     * @param stretchY   Stretch the drawing in the Y dimension by this percentage
+     * @param transposeX Shift the drawing in the X dimension. Note that shifting occurs after
+     *                   stretching
+     * @param transposeY Shift the drawing in the Y dimension. Note that shifting occurs after
+     *                   stretching
+     * @param simplify   True to drop points that are on a straight line between their neighbors
+     */
+    Svg(Level level, float stretchX, float stretchY, float transposeX, float transposeY,
+        boolean simplify) {
+        mLevel = level;
+        mUserStretchX = stretchX;
+        mUserStretchY = stretchY;
+        mUserTransformX = transposeX;
+        mUserTransformY = transposeY;
+        mActorCallback = null;
+        mMakeChains = true;
+        mSimplify = simplify;
+        mPathPoints = new FloatArray();
+        mPaths = new ArrayList<>();
+        mPathLoops = new BooleanArray();
+    }
+
+    /**
+     * An XmlReader that hands each attribute we care about to the Svg as soon as it is read,
+     * instead of building a DOM.  We only look at the paths that are children of the g elements at
+     * the root of the drawing, which is where Inkscape puts them.
+     */
+    private class PathReader extends XmlReader {
+        /// How deep in the document the current element is (1 is the root)
+        private int mDepth;
+        /// Is the current element (or its parent) a g at the root of the drawing?
+        private boolean mInGroup;
+        /// Is the current element a path in one of those g elements?
+        private boolean mInPath;
+
+        @Override
+        protected void open(String name) {
+            mDepth++;
+            if (mDepth == 2)
+                mInGroup = name.equals("g");
+            else if (mDepth == 3)
+                mInPath = mInGroup && name.equals("path");
+        }
+
+        @Override
+        protected void attribute(String name, String value) {
+            if (mDepth == 2 && mInGroup && name.equals("transform"))
+                processTransform(value);
+            else if (mDepth == 3 && mInPath && name.equals("d"))
+                processD(value);
+        }
+
+        @Override
+        protected void text(String text) {
+        }
+
+        @Override
+        protected void close() {
+            if (mDepth == 3)
+                mInPath = false;
+            else if (mDepth == 2)
+                mInGroup = false;
+            mDepth--;
+        }
     }
 
     /**
@@ -115,173 +243,512 @@ public class Svg {
      * @param attribute The attribute being processed... we hope it's a valid translate directive
      */
     private void processTransform(String attribute) {
-        // if we get a valid "translate" attribute, split it into two floats and save them
+        // if we get a valid "translate" attribute, read its one or two numbers and save them
         if (attribute.startsWith("translate(")) {
-            String x2 = attribute.replace("translate(", "");
-            x2 = x2.replace(")", ",");
-            String delimiters = "[,]+";
-            String[] points = x2.split(delimiters);
-            try {
-                mSvgTranslate.x = Float.valueOf(points[0]);
-                mSvgTranslate.y = Float.valueOf(points[1]);
-            } catch (NumberFormatException nfs) {
+            startTokens(attribute, "translate(".length());
+            float x = nextNumber();
+            float y = 0;
+            skipSeparators();
+            if (mPos < mLen && mText.charAt(mPos) != ')')
+                y = nextNumber();
+            if (mBadToken) {
                 Lol.message(mLevel.mConfig, "svg error", "transform error");
+                return;
             }
+            mSvgTranslateX = x;
+            mSvgTranslateY = y;
         }
     }
 
     /**
      * The root of an SVG drawing will have a g element, which will have some number of path
      * elements. Each path will have a "d=" attribute, which stores the points and information about
-     * how to connect them. The "d" is a single string, which we parse in this function.
+     * how to connect them. The "d" is a single string, which we read in a single pass, one command
+     * or number at a time.
      *
      * @param d The string that describes the path
      */
     private void processD(String d) {
-        // split the string into characters and floating point values
-        String delimiters = "[ ,]+";
-        String[] points = d.split(delimiters);
-        // SVG can give point coordinates in absolute or relative terms
-        boolean absolute = false;
-        for (String s0 : points) {
-            String s = s0.trim();
-            switch (s) {
-                // start of the path, relative mode
-                case "m":
-                    mState = -2;
-                    absolute = false;
+        startTokens(d, 0);
+        // a relative "m" at the start of a path is relative to the origin
+        mCurX = 0;
+        mCurY = 0;
+        mLastCurve = 0;
+        char cmd = 0;
+        while (!mBadToken) {
+            skipSeparators();
+            if (mPos >= mLen)
+                break;
+            char c = mText.charAt(mPos);
+            if (Character.isLetter(c)) {
+                cmd = c;
+                mPos++;
+                if (cmd == 'z' || cmd == 'Z') {
+                    closePath();
+                    continue;
+                }
+            }
+            // numbers with no command before them are an error
+            else if (cmd == 0 || cmd == 'z' || cmd == 'Z') {
+                mBadToken = true;
+                break;
+            }
+            // SVG can give point coordinates in absolute or relative terms.  For relative
+            // commands, every coordinate is an offset from the current point.  Nothing is drawn
+            // unless all of a command's numbers are valid.
+            boolean relative = Character.isLowerCase(cmd);
+            float ox = relative ? mCurX : 0;
+            float oy = relative ? mCurY : 0;
+            switch (Character.toUpperCase(cmd)) {
+                // start of a subpath.  Any more pairs of numbers are lines.
+                case 'M': {
+                    float x = ox + nextNumber(), y = oy + nextNumber();
+                    if (!mBadToken)
+                        moveTo(x, y);
+                    cmd = relative ? 'l' : 'L';
+                    break;
+                }
+                case 'L': {
+                    float x = ox + nextNumber(), y = oy + nextNumber();
+                    if (!mBadToken)
+                        lineTo(x, y);
+                    break;
+                }
+                // horizontal and vertical lines only give one coordinate
+                case 'H': {
+                    float x = ox + nextNumber();
+                    if (!mBadToken)
+                        lineTo(x, mCurY);
                     break;
-                // start of the path, absolute mode
-                case "M":
-                    mState = -2;
-                    absolute = true;
+                }
+                case 'V': {
+                    float y = oy + nextNumber();
+                    if (!mBadToken)
+                        lineTo(mCurX, y);
                     break;
-                // beginning of a (set of) curve definitions, relative mode
-                //
-                // NB: we coerce curves into lines by ignoring the first four
-                // parameters... this leaves us with just the endpoints
-                case "c":
-                    mMode = 2;
-                    mSwallow = 4;
+                }
+                case 'C': {
+                    float x1 = ox + nextNumber(), y1 = oy + nextNumber();
+                    float x2 = ox + nextNumber(), y2 = oy + nextNumber();
+                    float x = ox + nextNumber(), y = oy + nextNumber();
+                    if (!mBadToken)
+                        cubicTo(x1, y1, x2, y2, x, y);
                     break;
-                // end of path, relative mode
-                case "z":
-                    // draw a connecting line to complete the shape
-                    addLine(mLast, mFirst);
+                }
+                // the first control point of a shorthand curve is the reflection of the last
+                // control point of the previous curve
+                case 'S': {
+                    float x1 = mLastCurve == 'C' ? 2 * mCurX - mCtrlX : mCurX;
+                    float y1 = mLastCurve == 'C' ? 2 * mCurY - mCtrlY : mCurY;
+                    float x2 = ox + nextNumber(), y2 = oy + nextNumber();
+                    float x = ox + nextNumber(), y = oy + nextNumber();
+                    if (!mBadToken)
+                        cubicTo(x1, y1, x2, y2, x, y);
                     break;
-                // beginning of a (set of) line definitions, relative mode
-                case "l":
-                    mMode = 3;
-                    absolute = false;
-                    mSwallow = 0;
+                }
+                case 'Q': {
+                    float x1 = ox + nextNumber(), y1 = oy + nextNumber();
+                    float x = ox + nextNumber(), y = oy + nextNumber();
+                    if (!mBadToken)
+                        quadTo(x1, y1, x, y);
                     break;
-                // beginning of a (set of) line definitions, absolute mode
-                case "L":
-                    mMode = 3;
-                    absolute = true;
-                    mSwallow = 0;
+                }
+                case 'T': {
+                    float x1 = mLastCurve == 'Q' ? 2 * mCurX - mCtrlX : mCurX;
+                    float y1 = mLastCurve == 'Q' ? 2 * mCurY - mCtrlY : mCurY;
+                    float x = ox + nextNumber(), y = oy + nextNumber();
+                    if (!mBadToken)
+                        quadTo(x1, y1, x, y);
                     break;
-                // floating point data that defines an endpoint of a line or curve
+                }
+                case 'A': {
+                    float rx = nextNumber(), ry = nextNumber(), rotation = nextNumber();
+                    boolean largeArc = nextFlag(), sweep = nextFlag();
+                    float x = ox + nextNumber(), y = oy + nextNumber();
+                    if (!mBadToken)
+                        arcTo(rx, ry, rotation, largeArc, sweep, x, y);
+                    break;
+                }
                 default:
-                    // if it's a curve, we might need to swallow this value
-                    if (mSwallow > 0) {
-                        mSwallow--;
-                    }
-                    // get the next point
-                    else {
-                        try {
-                            // convert next point to float
-                            float val = Float.valueOf(s);
-                            // if it's the initial x, save it
-                            if (mState == -2) {
-                                mState = -1;
-                                mLast.x = val;
-                                mFirst.x = val;
-                            }
-                            // if it's the initial y, save it... can't draw a line yet, because we
-                            // have one endpoint
-                            else if (mState == -1) {
-                                mState = 0;
-                                mLast.y = val;
-                                mFirst.y = val;
-                            }
-                            // if it's an X value, save it
-                            else if (mState == 0) {
-                                if (absolute)
-                                    mCurr.x = val;
-                                else
-                                    mCurr.x = mLast.x + val;
-                                mState = 1;
-                            }
-                            // if it's a Y value, save it and draw a line
-                            else if (mState == 1) {
-                                mState = 0;
-                                if (absolute)
-                                    mCurr.y = val;
-                                else
-                                    mCurr.y = mLast.y + val;
-                                // draw the line
-                                addLine(mLast, mCurr);
-                                mLast.x = mCurr.x;
-                                mLast.y = mCurr.y;
-                                // if we are in curve mode, reinitialize the swallower
-                                if (mMode == 2)
-                                    mSwallow = 4;
-                            }
-                        }
-                        // ignore errors...
-                        catch (NumberFormatException nfs) {
-                            Lol.message(mLevel.mConfig, "SVG Error", "error parsing SVG file");
-                            nfs.printStackTrace();
-                        }
-                    }
+                    mBadToken = true;
                     break;
             }
         }
+        // ignore errors, but keep whatever we read before them
+        if (mBadToken)
+            Lol.message(mLevel.mConfig, "SVG Error", "error parsing SVG file");
+        endRawPath(false);
     }
 
     /**
-     * This is a convenience method to separate the transformation and stretch logic from the logic
-     * for actually drawing lines
-     * <p>
-     * There are two challenges. The first is that an SVG deals with pixels, whereas we like to draw
-     * actors in meters. This matters because user translations will be in meters, but SVG points
-     * and SVG translations will be in pixels.
+     * Start reading tokens from a string
+     *
+     * @param text  The string to read
+     * @param start The position of the first character to read
+     */
+    private void startTokens(String text, int start) {
+        mText = text;
+        mPos = start;
+        mLen = text.length();
+        mBadToken = false;
+    }
+
+    /**
+     * Move past any whitespace and commas
+     */
+    private void skipSeparators() {
+        while (mPos < mLen) {
+            char c = mText.charAt(mPos);
+            if (c != ',' && c != ' ' && c != '\n' && c != '\r' && c != '\t')
+                return;
+            mPos++;
+        }
+    }
+
+    /**
+     * Read the next number, without making any objects.  Note that SVG lets numbers run together
+     * when there's no ambiguity, as in "1.5.5-2", which is 1.5, .5, and -2.
+     *
+     * @return The number, or 0 if there wasn't a number (in which case mBadToken is set)
+     */
+    private float nextNumber() {
+        skipSeparators();
+        boolean negative = false;
+        if (mPos < mLen && (mText.charAt(mPos) == '-' || mText.charAt(mPos) == '+'))
+            negative = mText.charAt(mPos++) == '-';
+        // keep up to 18 significant digits, which fit in a long, and count the rest in the
+        // exponent
+        long digits = 0;
+        int numDigits = 0;
+        int exponent = 0;
+        boolean any = false;
+        boolean fraction = false;
+        while (mPos < mLen) {
+            char c = mText.charAt(mPos);
+            if (c == '.' && !fraction) {
+                fraction = true;
+            } else if (c >= '0' && c <= '9') {
+                any = true;
+                if (numDigits < 18) {
+                    digits = digits * 10 + (c - '0');
+                    if (digits != 0)
+                        numDigits++;
+                    if (fraction)
+                        exponent--;
+                } else if (!fraction) {
+                    exponent++;
+                }
+            } else {
+                break;
+            }
+            mPos++;
+        }
+        if (!any) {
+            mBadToken = true;
+            return 0;
+        }
+        // an exponent only counts if there are digits after the 'e'
+        if (mPos < mLen && (mText.charAt(mPos) == 'e' || mText.charAt(mPos) == 'E')) {
+            int p = mPos + 1;
+            boolean negativeExp = false;
+            if (p < mLen && (mText.charAt(p) == '-' || mText.charAt(p) == '+'))
+                negativeExp = mText.charAt(p++) == '-';
+            if (p < mLen && mText.charAt(p) >= '0' && mText.charAt(p) <= '9') {
+                int e = 0;
+                while (p < mLen && mText.charAt(p) >= '0' && mText.charAt(p) <= '9') {
+                    if (e < 1000)
+                        e = e * 10 + (mText.charAt(p) - '0');
+                    p++;
+                }
+                exponent += negativeExp ? -e : e;
+                mPos = p;
+            }
+        }
+        double value = digits;
+        int size = Math.abs(exponent);
+        double scale = size < POWERS_OF_TEN.length ? POWERS_OF_TEN[size] : Math.pow(10, size);
+        if (exponent > 0)
+            value *= scale;
+        else if (exponent < 0)
+            value /= scale;
+        return (float) (negative ? -value : value);
+    }
+
+    /**
+     * Read the next flag of an arc.  Flags are a single 0 or 1, and need not be separated from
+     * what follows them.
+     *
+     * @return True if the flag was 1
+     */
+    private boolean nextFlag() {
+        skipSeparators();
+        if (mPos < mLen && (mText.charAt(mPos) == '0' || mText.charAt(mPos) == '1'))
+            return mText.charAt(mPos++) == '1';
+        mBadToken = true;
+        return false;
+    }
+
+    /**
+     * Start a new subpath
+     *
+     * @param x The X coordinate of the start of the subpath
+     * @param y The Y coordinate of the start of the subpath
+     */
+    private void moveTo(float x, float y) {
+        endRawPath(false);
+        if (!mHaveFirst) {
+            mHaveFirst = true;
+            mFirstY = y;
+        }
+        mCurX = mStartX = x;
+        mCurY = mStartY = y;
+        mLastCurve = 0;
+    }
+
+    /**
+     * Draw a line from the current point
+     *
+     * @param x The X coordinate of the end of the line
+     * @param y The Y coordinate of the end of the line
+     */
+    private void lineTo(float x, float y) {
+        addPoint(x, y);
+        mLastCurve = 0;
+    }
+
+    /**
+     * Close the current subpath.  Any command after this (other than a move) starts a new subpath
+     * at the same place as this one.
+     */
+    private void closePath() {
+        endRawPath(true);
+        mCurX = mStartX;
+        mCurY = mStartY;
+        mLastCurve = 0;
+    }
+
+    /**
+     * Draw a cubic Bezier curve from the current point, as a set of lines that are evenly spaced
+     * along the curve
+     *
+     * @param x1 The X coordinate of the first control point
+     * @param y1 The Y coordinate of the first control point
+     * @param x2 The X coordinate of the second control point
+     * @param y2 The Y coordinate of the second control point
+     * @param x  The X coordinate of the end of the curve
+     * @param y  The Y coordinate of the end of the curve
+     */
+    private void cubicTo(float x1, float y1, float x2, float y2, float x, float y) {
+        float x0 = mCurX, y0 = mCurY;
+        // The second derivative of the curve is at most 6 times the larger of these distances,
+        // and a line over 1/n of the curve is within 1/8 of the second derivative over n^2 of it
+        float d1 = (float) Math.hypot(x0 - 2 * x1 + x2, y0 - 2 * y1 + y2);
+        float d2 = (float) Math.hypot(x1 - 2 * x2 + x, y1 - 2 * y2 + y);
+        int n = curveSegments(.75f * Math.max(d1, d2));
+        for (int i = 1; i < n; ++i) {
+            float t = (float) i / n, u = 1 - t;
+            float a = u * u * u, b = 3 * u * u * t, c = 3 * u * t * t, e = t * t * t;
+            addPoint(a * x0 + b * x1 + c * x2 + e * x, a * y0 + b * y1 + c * y2 + e * y);
+        }
+        addPoint(x, y);
+        mCtrlX = x2;
+        mCtrlY = y2;
+        mLastCurve = 'C';
+    }
+
+    /**
+     * Draw a quadratic Bezier curve from the current point, as a set of lines that are evenly
+     * spaced along the curve
+     *
+     * @param x1 The X coordinate of the control point
+     * @param y1 The Y coordinate of the control point
+     * @param x  The X coordinate of the end of the curve
+     * @param y  The Y coordinate of the end of the curve
+     */
+    private void quadTo(float x1, float y1, float x, float y) {
+        float x0 = mCurX, y0 = mCurY;
+        // the second derivative of the curve is twice this distance
+        float d = (float) Math.hypot(x0 - 2 * x1 + x, y0 - 2 * y1 + y);
+        int n = curveSegments(.25f * d);
+        for (int i = 1; i < n; ++i) {
+            float t = (float) i / n, u = 1 - t;
+            float a = u * u, b = 2 * u * t, c = t * t;
+            addPoint(a * x0 + b * x1 + c * x, a * y0 + b * y1 + c * y);
+        }
+        addPoint(x, y);
+        mCtrlX = x1;
+        mCtrlY = y1;
+        mLastCurve = 'Q';
+    }
+
+    /**
+     * Figure out how many lines a Bezier curve needs, so that each line is within mTolerance of
+     * the curve
+     *
+     * @param bound The largest second derivative of the curve, divided by 8
+     * @return The number of lines to use
+     */
+    private int curveSegments(float bound) {
+        int n = (int) Math.ceil(Math.sqrt(bound / mTolerance));
+        return Math.max(1, Math.min(n, MAX_CURVE_SEGMENTS));
+    }
+
+    /**
+     * Draw an elliptical arc from the current point, as a set of lines.  This follows the
+     * "endpoint to center" conversion in the appendix of the SVG specification.
+     *
+     * @param rx       The X radius of the ellipse
+     * @param ry       The Y radius of the ellipse
+     * @param rotation The rotation of the ellipse's X axis, in degrees
+     * @param largeArc True to take the longer of the two ways around the ellipse
+     * @param sweep    True to go around the ellipse in the direction of increasing angles
+     * @param x        The X coordinate of the end of the arc
+     * @param y        The Y coordinate of the end of the arc
+     */
+    private void arcTo(float rx, float ry, float rotation, boolean largeArc, boolean sweep,
+                       float x, float y) {
+        float x0 = mCurX, y0 = mCurY;
+        mLastCurve = 0;
+        // an arc to the current point is nothing, and an arc with no radius is a line
+        if (x0 == x && y0 == y)
+            return;
+        rx = Math.abs(rx);
+        ry = Math.abs(ry);
+        if (rx == 0 || ry == 0) {
+            addPoint(x, y);
+            return;
+        }
+        double phi = Math.toRadians(rotation);
+        double cos = Math.cos(phi), sin = Math.sin(phi);
+        // find the start point in the ellipse's coordinates, and grow the radii if they can't
+        // reach the end point
+        double hx = (x0 - x) / 2.0, hy = (y0 - y) / 2.0;
+        double px = cos * hx + sin * hy, py = -sin * hx + cos * hy;
+        double lambda = px * px / (rx * rx) + py * py / (ry * ry);
+        if (lambda > 1) {
+            rx *= Math.sqrt(lambda);
+            ry *= Math.sqrt(lambda);
+        }
+        // find the center
+        double rx2 = rx * rx, ry2 = ry * ry;
+        double num = rx2 * ry2 - rx2 * py * py - ry2 * px * px;
+        double den = rx2 * py * py + ry2 * px * px;
+        double coef = Math.sqrt(Math.max(0, num / den));
+        if (largeArc == sweep)
+            coef = -coef;
+        double cpx = coef * rx * py / ry, cpy = -coef * ry * px / rx;
+        double cx = cos * cpx - sin * cpy + (x0 + x) / 2.0;
+        double cy = sin * cpx + cos * cpy + (y0 + y) / 2.0;
+        // find the start angle and the angle to sweep through
+        double start = Math.atan2((py - cpy) / ry, (px - cpx) / rx);
+        double delta = Math.atan2((-py - cpy) / ry, (-px - cpx) / rx) - start;
+        if (sweep && delta < 0)
+            delta += 2 * Math.PI;
+        else if (!sweep && delta > 0)
+            delta -= 2 * Math.PI;
+        // a chord over angle a of a circle of radius r is r(1 - cos(a/2)) from the circle
+        double r = Math.max(rx, ry);
+        double step = mTolerance < r ? 2 * Math.acos(1 - mTolerance / r) : Math.PI / 2;
+        int n = (int) Math.ceil(Math.abs(delta) / Math.min(step, Math.PI / 2));
+        n = Math.max(1, Math.min(n, MAX_CURVE_SEGMENTS));
+        for (int i = 1; i < n; ++i) {
+            double a = start + delta * i / n;
+            double ex = rx * Math.cos(a), ey = ry * Math.sin(a);
+            addPoint((float) (cx + cos * ex - sin * ey), (float) (cy + sin * ex + cos * ey));
+        }
+        addPoint(x, y);
+    }
+
+    /**
+     * Add a point to the current path, starting a new path at the current point if needed, and
+     * make it the current point
+     *
+     * @param x The X coordinate of the point
+     * @param y The Y coordinate of the point
+     */
+    private void addPoint(float x, float y) {
+        if (!mPathOpen) {
+            mPathOpen = true;
+            mRawStarts.add(mRawPoints.size);
+            saveRawPoint(mCurX, mCurY);
+        }
+        saveRawPoint(x, y);
+        mCurX = x;
+        mCurY = y;
+    }
+
+    /**
+     * Save a point in mRawPoints.  The translation of the g is applied first, since it is in
+     * pixels, and then the point is reflected through the first point of the drawing, since SVG
+     * has a "down is plus" Y axis and we have a "down is minus" Y axis.
+     *
+     * @param x The X coordinate of the point
+     * @param y The Y coordinate of the point
+     */
+    private void saveRawPoint(float x, float y) {
+        mRawPoints.add(x + mSvgTranslateX);
+        mRawPoints.add(mFirstY - (y + mSvgTranslateY));
+    }
+
+    /**
+     * Finish the current path, if there is one
+     *
+     * @param loop True if the path was closed
+     */
+    private void endRawPath(boolean loop) {
+        if (!mPathOpen)
+            return;
+        mPathOpen = false;
+        mRawLoops.add(loop);
+    }
+
+    /**
+     * Turn the X coordinate of a saved point into meters
      * <p>
-     * The second challenge is that SVGs appear to have a "down is plus" Y axis, whereas our system
-     * has a "down is minus" Y axis. To getLoseScene around this, we reflect every Y coordinate over
-     * the horizontal line that intersects with the first point drawn.
+     * User translations and stretches are in meters, but SVG points are in pixels.
      *
-     * @param start The point from which the line originates
-     * @param stop  The point to which the line extends
+     * @param x The X coordinate, in pixels
+     * @return The X coordinate, in meters
      */
-    private void addLine(Vector2 start, Vector2 stop) {
-        // Get the pixel coordinates of the SVG line
-        float x1 = start.x, x2 = stop.x, y1 = start.y, y2 = stop.y;
-        // apply svg translation, since it is in pixels
-        x1 += mSvgTranslate.x;
-        x2 += mSvgTranslate.x;
-        y1 += mSvgTranslate.y;
-        y2 += mSvgTranslate.y;
-        // reflect through mFirst.y
-        y1 = mFirst.y - y1;
-        y2 = mFirst.y - y2;
-        // convert the coordinates to meters
-        x1 /= mLevel.mConfig.mPixelMeterRatio;
-        y1 /= mLevel.mConfig.mPixelMeterRatio;
-        x2 /= mLevel.mConfig.mPixelMeterRatio;
-        y2 /= mLevel.mConfig.mPixelMeterRatio;
-        // multiply the coordinates by the stretch
-        x1 *= mUserStretch.x;
-        y1 *= mUserStretch.y;
-        x2 *= mUserStretch.x;
-        y2 *= mUserStretch.y;
-        // add in the user transform in meters
-        x1 += mUserTransform.x;
-        y1 += mUserTransform.y;
-        x2 += mUserTransform.x;
-        y2 += mUserTransform.y;
-        drawLine(x1, y1, x2, y2);
+    private float meterX(float x) {
+        return x / mLevel.mConfig.mPixelMeterRatio * mUserStretchX + mUserTransformX;
+    }
+
+    /**
+     * Turn the Y coordinate of a saved point into meters
+     *
+     * @param y The Y coordinate, in pixels
+     * @return The Y coordinate, in meters
+     */
+    private float meterY(float y) {
+        return y / mLevel.mConfig.mPixelMeterRatio * mUserStretchY + mUserTransformY;
+    }
+
+    /**
+     * Turn the saved paths into obstacles, or into chains for a LineDrawing
+     */
+    private void makePaths() {
+        float[] pts = mRawPoints.items;
+        for (int p = 0; p < mRawStarts.size; ++p) {
+            int start = mRawStarts.get(p);
+            int end = p + 1 < mRawStarts.size ? mRawStarts.get(p + 1) : mRawPoints.size;
+            boolean loop = mRawLoops.get(p);
+            if (mMakeChains) {
+                for (int i = start; i < end; i += 2) {
+                    mPathPoints.add(meterX(pts[i]));
+                    mPathPoints.add(meterY(pts[i + 1]));
+                }
+                endPath(loop);
+                continue;
+            }
+            for (int i = start + 2; i < end; i += 2)
+                drawLine(meterX(pts[i - 2]), meterY(pts[i - 1]), meterX(pts[i]),
+                        meterY(pts[i + 1]));
+            // draw a connecting line to complete the shape
+            if (loop)
+                drawLine(meterX(pts[end - 2]), meterY(pts[end - 1]), meterX(pts[start]),
+                        meterY(pts[start + 1]));
+        }
     }
 
     /**
@@ -298,38 +765,211 @@ public class Svg {
         float centerX = (x1 + x2) / 2;
         float centerY = (y1 + y2) / 2;
         float len = (float) Math.sqrt((x1 - x2) * (x1 - x2) + (y1 - y2) * (y1 - y2));
+        // a box with no length would upset Box2D
+        if (len == 0)
+            return;
         // Make an obstacle and rotate it
         Obstacle o = mLevel.makeObstacleAsBox(x1, y1, len, .1f, "red.png");
         o.mBody.setTransform(centerX, centerY, MathUtils.atan2(y2 - y1, x2 - x1));
+        o.saveTransform();
         // let the game code modify this line segment
         mActorCallback.go(o);
     }
 
     /**
-     * The main parse routine. We slurp the file into an XML DOM object, and then iterate over it,
-     * finding the paths within the g, and processing their "d" attributes
+     * Finish a path that is being turned into a chain.  Points that are too close together for
+     * Box2D are always dropped, and points on a straight line between their neighbors are dropped
+     * if we are simplifying.
+     *
+     * @param loop True if the path was closed
+     */
+    private void endPath(boolean loop) {
+        float[] pts = mPathPoints.items;
+        int n = mPathPoints.size / 2;
+        mPathPoints.clear();
+
+        // copy the points that we keep to the front of the array
+        int kept = 0;
+        for (int i = 0; i < n; ++i) {
+            float x = pts[2 * i], y = pts[2 * i + 1];
+            if (kept > 0 && tooClose(pts, kept - 1, x, y))
+                continue;
+            if (mSimplify && kept > 1 && collinear(pts, kept - 2, kept - 1, x, y))
+                kept--;
+            pts[2 * kept] = x;
+            pts[2 * kept + 1] = y;
+            kept++;
+        }
+        // a loop doesn't repeat its first point, and may be able to drop it
+        if (loop) {
+            if (kept > 1 && tooClose(pts, 0, pts[2 * kept - 2], pts[2 * kept - 1]))
+                kept--;
+            if (mSimplify && kept > 3 && collinear(pts, kept - 1, 0, pts[2], pts[3])) {
+                pts[0] = pts[2 * kept - 2];
+                pts[1] = pts[2 * kept - 1];
+                kept--;
+            }
+            if (mSimplify && kept > 3 && collinear(pts, kept - 2, kept - 1, pts[0], pts[1]))
+                kept--;
+            if (kept < 3)
+                loop = false;
+        }
+        if (kept < 2)
+            return;
+        float[] path = new float[kept * 2];
+        System.arraycopy(pts, 0, path, 0, kept * 2);
+        mPaths.add(path);
+        mPathLoops.add(loop);
+    }
+
+    /**
+     * Check if a point is too close to a saved point to make a segment that Box2D can use
+     *
+     * @param pts   The saved points, as x,y pairs
+     * @param index The index of the saved point
+     * @param x     The X coordinate of the new point
+     * @param y     The Y coordinate of the new point
+     * @return True if the points are too close together
+     */
+    private static boolean tooClose(float[] pts, int index, float x, float y) {
+        float dx = x - pts[2 * index], dy = y - pts[2 * index + 1];
+        return dx * dx + dy * dy < MIN_SEGMENT * MIN_SEGMENT;
+    }
+
+    /**
+     * Check if the middle of three points is on a straight line between the other two, going in
+     * the same direction
+     *
+     * @param pts    The saved points, as x,y pairs
+     * @param first  The index of the first point
+     * @param middle The index of the middle point
+     * @param x      The X coordinate of the last point
+     * @param y      The Y coordinate of the last point
+     * @return True if the middle point can be dropped
+     */
+    private static boolean collinear(float[] pts, int first, int middle, float x, float y) {
+        float ax = pts[2 * middle] - pts[2 * first], ay = pts[2 * middle + 1] - pts[2 * first + 1];
+        float bx = x - pts[2 * middle], by = y - pts[2 * middle + 1];
+        float cross = ax * by - ay * bx;
+        float dot = ax * bx + ay * by;
+        float lengths = (ax * ax + ay * ay) * (bx * bx + by * by);
+        return dot > 0 && cross * cross <= COLLINEAR * COLLINEAR * lengths;
+    }
+
+    /**
+     * Compute the key of a drawing's cache file, from the bytes of the SVG file and the tolerance
+     * for curves (since the same file gives different lines for a different tolerance).  This is
+     * a 64-bit FNV-1a hash.
+     *
+     * @param bytes The contents of the SVG file
+     * @return The key
+     */
+    private long cacheKey(byte[] bytes) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        int tolerance = Float.floatToIntBits(mTolerance);
+        for (int i = 0; i < 32; i += 8) {
+            hash ^= (tolerance >>> i) & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Load the saved paths of a drawing from a cache file
+     *
+     * @param file The cache file
+     * @param key  The key that the file must have
+     * @return True if the file was a valid cache of this drawing
+     */
+    private boolean readCache(FileHandle file, long key) {
+        ByteBuffer in = ByteBuffer.wrap(file.readBytes());
+        if (in.remaining() < 24)
+            return false;
+        if (in.getInt() != CACHE_MAGIC || in.getInt() != CACHE_VERSION || in.getLong() != key)
+            return false;
+        int numPaths = in.getInt();
+        int numFloats = in.getInt();
+        if (numPaths < 0 || numFloats < 0
+                || in.remaining() != 5L * numPaths + 4L * numFloats)
+            return false;
+        int[] starts = mRawStarts.setSize(numPaths);
+        for (int i = 0; i < numPaths; ++i)
+            starts[i] = in.getInt();
+        in.asFloatBuffer().get(mRawPoints.setSize(numFloats), 0, numFloats);
+        in.position(in.position() + 4 * numFloats);
+        boolean[] loops = mRawLoops.setSize(numPaths);
+        for (int i = 0; i < numPaths; ++i)
+            loops[i] = in.get() != 0;
+        return true;
+    }
+
+    /**
+     * Save the paths of a drawing in a cache file
+     *
+     * @param file The cache file
+     * @param key  The key of the drawing
+     */
+    private void writeCache(FileHandle file, long key) {
+        int numPaths = mRawStarts.size;
+        int numFloats = mRawPoints.size;
+        ByteBuffer out = ByteBuffer.allocate(24 + 4 * numPaths + 4 * numFloats + numPaths);
+        out.putInt(CACHE_MAGIC).putInt(CACHE_VERSION).putLong(key);
+        out.putInt(numPaths).putInt(numFloats);
+        for (int i = 0; i < numPaths; ++i)
+            out.putInt(mRawStarts.get(i));
+        out.asFloatBuffer().put(mRawPoints.items, 0, numFloats);
+        out.position(out.position() + 4 * numFloats);
+        for (int i = 0; i < numPaths; ++i)
+            out.put((byte) (mRawLoops.get(i) ? 1 : 0));
+        try {
+            file.writeBytes(out.array(), false);
+        } catch (GdxRuntimeException e) {
+            Lol.message(mLevel.mConfig, "SVG Error", "could not write " + file.path());
+        }
+    }
+
+    /**
+     * The main parse routine.  If the drawing is in the cache, we just load its lines.  Otherwise,
+     * we stream the file through an XmlReader, processing the "d" attributes of the paths within
+     * the g elements as they go by, and then save the lines in the cache.
      *
      * @param svgName The name of the file to parse
      */
     void parse(String svgName) {
-        XmlReader r = new XmlReader();
-        try {
-            Element root = r.parse(Gdx.files.internal(svgName));
-            // get the <g> tags
-            Array<Element> gs = root.getChildrenByName("g");
-            for (Element g : gs) {
-                // Get the g's transform attribute
-                String transform = g.getAttribute("transform", "");
-                if (!transform.equals(""))
-                    processTransform(transform);
-                // get each g's paths
-                Array<Element> paths = g.getChildrenByName("path");
-                for (Element p : paths)
-                    processD(p.getAttribute("d"));
+        Config config = mLevel.mConfig;
+        // the tolerance is in meters, but curves are flattened before they are stretched
+        float stretch = Math.max(Math.abs(mUserStretchX), Math.abs(mUserStretchY));
+        mTolerance = config.mSvgTolerance * config.mPixelMeterRatio / (stretch > 0 ? stretch : 1);
+
+        byte[] bytes = Gdx.files.internal(svgName).readBytes();
+        long key = cacheKey(bytes);
+        FileHandle cache = null;
+        boolean cached = false;
+        if (!config.mSvgCacheFolder.equals("")) {
+            String cacheName = config.mSvgCacheFolder + "/" + Long.toHexString(key) + ".bin";
+            // a game can ship with cache files in its assets
+            FileHandle shipped = Gdx.files.internal(cacheName);
+            if (Gdx.files.isLocalStorageAvailable())
+                cache = Gdx.files.local(cacheName);
+            if (cache != null && cache.exists())
+                cached = readCache(cache, key);
+            if (!cached && shipped.exists())
+                cached = readCache(shipped, key);
+        }
+        if (!cached) {
+            try {
+                new PathReader().parse(new String(bytes, Charset.forName("UTF-8")));
+                if (cache != null)
+                    writeCache(cache, key);
+            } catch (SerializationException e) {
+                Lol.message(config, "SVG Error", "error parsing SVG file");
+                e.printStackTrace();
             }
-        } catch (IOException e) {
-            Lol.message(mLevel.mConfig, "SVG Error", "error parsing SVG file");
-            e.printStackTrace();
         }
+        makePaths();
     }
 }
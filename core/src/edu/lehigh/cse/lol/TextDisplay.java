@@ -0,0 +1,168 @@
+/**
+ * This is free and unencumbered software released into the public domain.
+ * <p>
+ * Anyone is free to copy, modify, publish, use, compile, sell, or
+ * distribute this software, either in source code form or as a compiled
+ * binary, for any purpose, commercial or non-commercial, and by any
+ * means.
+ * <p>
+ * In jurisdictions that recognize copyright laws, the author or authors
+ * of this software dedicate any and all copyright interest in the
+ * software to the public domain. We make this dedication for the benefit
+ * of the public at large and to the detriment of our heirs and
+ * successors. We intend this dedication to be an overt act of
+ * relinquishment in perpetuity of all present and future rights to this
+ * software under copyright law.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT.
+ * IN NO EVENT SHALL THE AUTHORS BE LIABLE FOR ANY CLAIM, DAMAGES OR
+ * OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ * <p>
+ * For more information, please refer to <http://unlicense.org>
+ */
+
+
+package edu.lehigh.cse.lol;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.BitmapFontCache;
+import com.badlogic.gdx.graphics.g2d.GlyphLayout;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.utils.Align;
+
+/**
+ * TextDisplay is a Renderable that shows text made by a TextProducer, with a fixed prefix and
+ * suffix.  The producer runs on every render, but the text is only laid out again when it
+ * changes.  Until then, the glyphs stay in a BitmapFontCache, so drawing the text is just a copy
+ * of the cached vertices.
+ */
+class TextDisplay extends Renderable {
+    /// The font to use
+    private final BitmapFont mFont;
+    /// The color of the text
+    private final Color mColor;
+    /// The amount to scale the font by, so that it can be drawn in meters
+    private final float mScale;
+    /// Text to show before the produced text
+    private final String mPrefix;
+    /// Text to show after the produced text
+    private final String mSuffix;
+    /// The code that produces the text
+    private final TextProducer mProducer;
+    /// The X coordinate of the text: either its left side or its center
+    private final float mX;
+    /// The Y coordinate of the text: either its bottom or its center
+    private final float mY;
+    /// Should the text be centered on (mX, mY)?
+    private final boolean mCentered;
+
+    /// The glyphs of the text, ready to draw
+    private final BitmapFontCache mCache;
+    /// The layout of the text, for measuring it
+    private final GlyphLayout mLayout = new GlyphLayout();
+    /// A reusable buffer for building the full text
+    private final StringBuilder mText = new StringBuilder();
+    /// The text that was last produced, if the producer isn't a NumberProducer
+    private String mLastText;
+    /// The number that was last produced, if the producer is a NumberProducer, or the version of
+    /// the text, if it is a BufferedTextProducer
+    private int mLastNumber;
+    /// Has the text been laid out yet?
+    private boolean mLaidOut;
+
+    /**
+     * Create a text display
+     *
+     * @param font     The font to use
+     * @param color    The color of the text
+     * @param scale    The amount to scale the font by
+     * @param x        The X coordinate: the left side, or the center if centered is true
+     * @param y        The Y coordinate: the bottom, or the center if centered is true
+     * @param centered True if the text should be centered on (x, y)
+     * @param prefix   Text to show before the produced text
+     * @param suffix   Text to show after the produced text
+     * @param producer The code that produces the text
+     */
+    TextDisplay(BitmapFont font, Color color, float scale, float x, float y, boolean centered,
+                String prefix, String suffix, TextProducer producer) {
+        mFont = font;
+        mColor = color;
+        mScale = scale;
+        mX = x;
+        mY = y;
+        mCentered = centered;
+        mPrefix = prefix;
+        mSuffix = suffix;
+        mProducer = producer;
+        mCache = font.newFontCache();
+    }
+
+    /**
+     * Run the producer, and rebuild the text if it changed
+     *
+     * @return True if the text changed
+     */
+    private boolean updateText() {
+        if (mProducer instanceof NumberProducer) {
+            int number = ((NumberProducer) mProducer).makeNumber();
+            if (mLaidOut && number == mLastNumber)
+                return false;
+            mLastNumber = number;
+            mText.setLength(0);
+            mText.append(mPrefix).append(number).append(mSuffix);
+            return true;
+        }
+        if (mProducer instanceof BufferedTextProducer) {
+            BufferedTextProducer producer = (BufferedTextProducer) mProducer;
+            int version = producer.getVersion();
+            if (mLaidOut && version == mLastNumber)
+                return false;
+            mLastNumber = version;
+            mText.setLength(0);
+            mText.append(mPrefix);
+            producer.appendText(mText);
+            mText.append(mSuffix);
+            return true;
+        }
+        String text = mProducer.makeText();
+        if (mLaidOut && text.equals(mLastText))
+            return false;
+        mLastText = text;
+        mText.setLength(0);
+        mText.append(mPrefix).append(text).append(mSuffix);
+        return true;
+    }
+
+    /**
+     * Lay out the text, and put its glyphs in the cache
+     */
+    private void layout() {
+        mFont.getData().setScale(mScale);
+        mLayout.setText(mFont, mText, mColor, 0, Align.left, false);
+        // NB: LibGDX uses top-left for text, so we need to convert to bottom-left
+        if (mCentered)
+            mCache.setText(mLayout, mX - mLayout.width / 2, mY + mLayout.height / 2);
+        else
+            mCache.setText(mLayout, mX, mY + mLayout.height);
+        mFont.getData().setScale(1);
+        mLaidOut = true;
+    }
+
+    /**
+     * Update the text if it changed, and then draw it
+     *
+     * @param sb      The SpriteBatch to use for rendering
+     * @param elapsed The time since the last render
+     */
+    @Override
+    void onRender(SpriteBatch sb, float elapsed) {
+        if (updateText())
+            layout();
+        mCache.draw(sb);
+    }
+}
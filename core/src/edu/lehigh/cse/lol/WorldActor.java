@@ -30,7 +30,8 @@ package edu.lehigh.cse.lol;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.physics.box2d.BodyDef.BodyType;
-import com.badlogic.gdx.physics.box2d.Contact;
+import com.badlogic.gdx.physics.box2d.Filter;
+import com.badlogic.gdx.physics.box2d.Fixture;
 import com.badlogic.gdx.physics.box2d.Joint;
 import com.badlogic.gdx.physics.box2d.joints.DistanceJoint;
 import com.badlogic.gdx.physics.box2d.joints.DistanceJointDef;
@@ -47,8 +48,28 @@ import com.badlogic.gdx.physics.box2d.joints.WeldJointDef;
  * Destination, Enemy, Obstacle, and Projectile objects.
  */
 public abstract class WorldActor extends BaseActor {
+    /// The collision type of heroes
+    public static final int TYPE_HERO = 0;
+    /// The collision type of enemies
+    public static final int TYPE_ENEMY = 1;
+    /// The collision type of goodies
+    public static final int TYPE_GOODIE = 2;
+    /// The collision type of projectiles
+    public static final int TYPE_PROJECTILE = 3;
+    /// The collision type of obstacles
+    public static final int TYPE_OBSTACLE = 4;
+    /// The collision type of destinations
+    public static final int TYPE_DESTINATION = 5;
+    /// The number of collision types that every level starts with
+    static final int NUM_BUILTIN_TYPES = 6;
+
     /// A reference to the top-level Lol object
     final Lol mGame;
+    /// The collision type that this kind of actor starts with (e.g., TYPE_HERO for a Hero)
+    final int mBaseType;
+    /// The collision type of this actor.  Together with the type of the other actor, this picks
+    /// the code that runs when they collide (see Level.setCollisionHandler)
+    int mCollisionType;
     /// Some actors run custom code when they are touched. This is a reference to the code to run.
     TouchEventHandler mDragHandler;
     /// When the camera follows the actor without centering on it, this gives us the difference
@@ -76,6 +97,9 @@ public abstract class WorldActor extends BaseActor {
     int mIsOneSided = -1;
     /// Actors with a matching nonzero Id don't collide with each other
     int mPassThroughId = 0;
+    /// True if the actor is sticky, one-sided, or has a pass-through Id that is too big for a
+    /// Box2D group, so that contacts with it need attention in preSolve
+    boolean mSpecialContacts;
     /// A definition for when we attach a revolute joint to this actor
     private RevoluteJointDef mRevJointDef;
     /// A joint that allows this actor to revolve around another
@@ -95,10 +119,30 @@ public abstract class WorldActor extends BaseActor {
      * @param imgName The image to display
      * @param width   The width
      * @param height  The height
+     * @param type    The collision type of this kind of actor
      */
-    WorldActor(Lol game, MainScene scene, String imgName, float width, float height) {
+    WorldActor(Lol game, MainScene scene, String imgName, float width, float height, int type) {
         super(scene, imgName, width, height);
         mGame = game;
+        mBaseType = type;
+        mCollisionType = type;
+    }
+
+    /**
+     * Change the collision type of this actor, so that different code runs when it collides with
+     * other actors.  The type must come from Level.makeCollisionType, and it must be based on the
+     * kind of this actor (e.g., an obstacle can only use a type that is based on TYPE_OBSTACLE).
+     *
+     * @param type The new collision type
+     */
+    public void setCollisionType(int type) {
+        if (!((MainScene) mScene).mCollisions.isTypeOf(type, mBaseType)) {
+            Lol.message(mScene.mConfig, "ERROR", "Collision type " + type
+                    + " can't be used by this actor");
+            return;
+        }
+        mCollisionType = type;
+        updateFilter();
     }
 
     /**
@@ -107,7 +151,7 @@ public abstract class WorldActor extends BaseActor {
      * @param callback The callback to run when the actor stops
      */
     public void setStopCallback(final LolActorEvent callback) {
-        mScene.mRepeatEvents.add(new LolAction() {
+        addCallback(mScene.mRepeatEvents, new LolAction() {
             boolean moving = false;
             @Override
             public void go() {
@@ -122,15 +166,6 @@ public abstract class WorldActor extends BaseActor {
         });
     }
 
-    /**
-     * Each descendant defines this to address any custom logic that we need to deal with on a
-     * collision
-     *
-     * @param other   Other object involved in this collision
-     * @param contact A description of the contact that caused this collision
-     */
-    abstract void onCollide(WorldActor other, Contact contact);
-
     /**
      * Make the camera follow the actor, but without centering the actor on the screen
      *
@@ -146,13 +181,14 @@ public abstract class WorldActor extends BaseActor {
      * Indicate that the actor should move with the tilt of the phone
      */
     public void setMoveByTilting() {
+        neverCache();
         // If we've already added this to the set of tiltable objects, don't do it again
         if (((MainScene) mScene).mTiltActors.contains(this))
             return;
         // make sure it is moveable, add it to the list of tilt actors
         if (mBody.getType() != BodyType.DynamicBody)
             mBody.setType(BodyType.DynamicBody);
-        ((MainScene) mScene).mTiltActors.add(this);
+        addCallback(((MainScene) mScene).mTiltActors, this);
         // turn off sensor behavior, so this collides with stuff...
         setCollisionsEnabled(true);
     }
@@ -198,6 +234,7 @@ public abstract class WorldActor extends BaseActor {
      *                        collide with them
      */
     public void setCanDrag(boolean immuneToPhysics) {
+        neverCache();
         if (immuneToPhysics)
             mBody.setType(BodyType.KinematicBody);
         else
@@ -205,6 +242,7 @@ public abstract class WorldActor extends BaseActor {
         mDragHandler = new TouchEventHandler() {
             public boolean go(float worldX, float worldY) {
                 mBody.setTransform(worldX, worldY, mBody.getAngle());
+                saveTransform();
                 return true;
             }
         };
@@ -220,6 +258,7 @@ public abstract class WorldActor extends BaseActor {
      *                              feature.
      */
     public void setPokeToPlace(long deleteThresholdMillis) {
+        neverCache();
         // convert threshold to nanoseconds
         final long deleteThreshold = deleteThresholdMillis;
         // set the code to run on touch
@@ -245,7 +284,7 @@ public abstract class WorldActor extends BaseActor {
                     mLastPokeTime = time;
                 }
                 // set a screen handler to detect when/where to move the actor
-                mScene.mTapHandlers.add(new TouchEventHandler() {
+                addCallback(mScene.mTapHandlers, new TouchEventHandler() {
                     boolean mIsRunning = true;
 
                     public boolean go(float worldX, float worldY) {
@@ -254,6 +293,7 @@ public abstract class WorldActor extends BaseActor {
                         Lol.vibrate(mScene.mConfig, 100);
                         // move the object
                         mBody.setTransform(worldX, worldY, mBody.getAngle());
+                        saveTransform();
                         // clear the Level responder
                         mIsRunning = false;
                         return true;
@@ -273,7 +313,7 @@ public abstract class WorldActor extends BaseActor {
         // make sure the body is a dynamic body
         setCanFall();
 
-        ((MainScene) mScene).mFlingHandlers.add(new TouchEventHandler() {
+        addCallback(((MainScene) mScene).mFlingHandlers, new TouchEventHandler() {
             public boolean go(float worldX, float worldY) {
                 // note: may need to disable hovering
                 if (mScene.mHitActor == WorldActor.this) {
@@ -296,12 +336,13 @@ public abstract class WorldActor extends BaseActor {
      *                     actor before giving it a new destinaion point?
      */
     public void setPokePath(final float velocity, final boolean oncePerTouch) {
+        neverCache();
         if (mBody.getType() == BodyType.StaticBody)
             mBody.setType(BodyType.KinematicBody);
         mTapHandler = new TouchEventHandler() {
             public boolean go(float worldX, float worldY) {
                 Lol.vibrate(mScene.mConfig, 5);
-                mScene.mTapHandlers.add(new TouchEventHandler() {
+                addCallback(mScene.mTapHandlers, new TouchEventHandler() {
                     boolean mRunning = true;
 
                     public boolean go(float worldX, float worldY) {
@@ -334,6 +375,7 @@ public abstract class WorldActor extends BaseActor {
      */
     public void setFingerChase(final float velocity, final boolean oncePerTouch,
                                final boolean stopOnUp) {
+        neverCache();
         if (mBody.getType() == BodyType.StaticBody)
             mBody.setType(BodyType.KinematicBody);
         mTapHandler = new TouchEventHandler() {
@@ -370,10 +412,10 @@ public abstract class WorldActor extends BaseActor {
                         return true;
                     }
                 };
-                ((MainScene) mScene).mUpHandlers.add(up);
-                ((MainScene) mScene).mPanStopHandlers.add(up);
-                ((MainScene) mScene).mDownHandlers.add(down);
-                ((MainScene) mScene).mPanHandlers.add(pan);
+                addCallback(((MainScene) mScene).mUpHandlers, up);
+                addCallback(((MainScene) mScene).mPanStopHandlers, up);
+                addCallback(((MainScene) mScene).mDownHandlers, down);
+                addCallback(((MainScene) mScene).mPanHandlers, pan);
                 return true;
             }
         };
@@ -390,8 +432,9 @@ public abstract class WorldActor extends BaseActor {
      * @param y the Y coordinate (in pixels) where the actor should appear
      */
     public void setHover(final int x, final int y) {
+        neverCache();
         mHover = new Vector3();
-        mScene.mRepeatEvents.add(new LolAction() {
+        addCallback(mScene.mRepeatEvents, new LolAction() {
             @Override
             public void go() {
                 if (mHover == null)
@@ -401,6 +444,7 @@ public abstract class WorldActor extends BaseActor {
                 mHover.z = 0;
                 mScene.mCamera.unproject(mHover);
                 mBody.setTransform(mHover.x, mHover.y, mBody.getAngle());
+                saveTransform();
             }
         });
     }
@@ -415,6 +459,7 @@ public abstract class WorldActor extends BaseActor {
      */
     public void setSticky(boolean top, boolean right, boolean bottom, boolean left) {
         mIsSticky = new boolean[]{top, right, bottom, left};
+        updateSpecialContacts();
     }
 
     /**
@@ -446,15 +491,50 @@ public abstract class WorldActor extends BaseActor {
      */
     public void setOneSided(int side) {
         mIsOneSided = side;
+        updateSpecialContacts();
     }
 
     /**
      * Indicate that this actor should not have collisions with any other actor that has the same ID
+     * <p>
+     * IDs from 1 to 32767 are handled by Box2D, which never creates contacts between actors with
+     * the same ID, so they are the most efficient.
      *
      * @param id The number for this class of non-interacting actors
      */
     public void setPassThrough(int id) {
         mPassThroughId = id;
+        updateSpecialContacts();
+        updateFilter();
+    }
+
+    /**
+     * Figure out if contacts with this actor need attention in preSolve
+     */
+    private void updateSpecialContacts() {
+        mSpecialContacts = mIsSticky[0] || mIsSticky[1] || mIsSticky[2] || mIsSticky[3]
+                || mIsOneSided > -1 || mPassThroughId < 0 || mPassThroughId > Short.MAX_VALUE;
+    }
+
+    /**
+     * Set the collision filter of the body's fixtures.  Every actor's category comes from its
+     * collision type.  A sensor only accepts the categories that have a handler with its type,
+     * since it can't push anything else.  Actors with the same pass-through ID share a negative
+     * group, so Box2D never makes contacts between them.
+     */
+    @Override
+    void updateFilter() {
+        if (mBody == null)
+            return;
+        CollisionTable table = ((MainScene) mScene).mCollisions;
+        Filter filter = new Filter();
+        filter.categoryBits = table.getCategory(mCollisionType);
+        if (mBody.getFixtureList().size > 0 && mBody.getFixtureList().get(0).isSensor())
+            filter.maskBits = table.getSensorMask(mCollisionType);
+        if (mPassThroughId > 0 && mPassThroughId <= Short.MAX_VALUE)
+            filter.groupIndex = (short) -mPassThroughId;
+        for (Fixture f : mBody.getFixtureList())
+            f.setFilterData(filter);
     }
 
     /**
@@ -467,9 +547,10 @@ public abstract class WorldActor extends BaseActor {
      */
     public void setChaseSpeed(final float speed, final WorldActor target, final boolean chaseInX,
                               final boolean chaseInY) {
+        neverCache();
         mChaseTarget = target;
         mBody.setType(BodyType.DynamicBody);
-        mScene.mRepeatEvents.add(new LolAction() {
+        addCallback(mScene.mRepeatEvents, new LolAction() {
             @Override
             public void go() {
                 // don't chase something that isn't visible
@@ -517,9 +598,10 @@ public abstract class WorldActor extends BaseActor {
     public void setChaseFixedMagnitude(final WorldActor target, final float xMagnitude,
                                        final float yMagnitude, final boolean ignoreX,
                                        final boolean ignoreY) {
+        neverCache();
         mChaseTarget = target;
         mBody.setType(BodyType.DynamicBody);
-        mScene.mRepeatEvents.add(new LolAction() {
+        addCallback(mScene.mRepeatEvents, new LolAction() {
             @Override
             public void go() {
                 // don't chase something that isn't visible
@@ -560,6 +642,7 @@ public abstract class WorldActor extends BaseActor {
      */
     public void setRevoluteJoint(WorldActor anchor, float anchorX, float anchorY,
                                  float localAnchorX, float localAnchorY) {
+        neverCache();
         // make the body dynamic
         setCanFall();
         // create joint, connect anchors
@@ -618,6 +701,7 @@ public abstract class WorldActor extends BaseActor {
      */
     public void setWeldJoint(WorldActor other, float otherX, float otherY, float localX,
                              float localY, float angle) {
+        neverCache();
         WeldJointDef w = new WeldJointDef();
         w.bodyA = mBody;
         w.bodyB = other.mBody;
@@ -639,6 +723,7 @@ public abstract class WorldActor extends BaseActor {
      */
     public void setDistanceJoint(WorldActor anchor, float anchorX, float anchorY,
                                  float localAnchorX, float localAnchorY) {
+        neverCache();
         // make the body dynamic
         setCanFall();
 
@@ -665,6 +750,49 @@ public abstract class WorldActor extends BaseActor {
         dj.setLength(newDist);
     }
 
+    /**
+     * Put this actor back into the state it was in when it was made, so that its ActorPool can
+     * hand it out again
+     */
+    @Override
+    void recycle() {
+        super.recycle();
+        mDragHandler = null;
+        mCameraOffset.set(0, 0);
+        if (mHover == null)
+            mHover = new Vector3();
+        mStickyDelay = 0;
+        for (int i = 0; i < 4; ++i)
+            mIsSticky[i] = false;
+        mIsOneSided = -1;
+        mPassThroughId = 0;
+        mRevJointDef = null;
+        mDistJointDef = null;
+        mChaseTarget = null;
+        mCollisionType = mBaseType;
+        mSpecialContacts = false;
+        updateFilter();
+    }
+
+    /**
+     * Drop any reference to a joint that is about to be destroyed
+     *
+     * @param joint The joint
+     */
+    @Override
+    void forgetJoint(Joint joint) {
+        if (joint == mDJoint)
+            mDJoint = null;
+        if (joint == mWJoint)
+            mWJoint = null;
+        if (joint == mExplicitWeldJoint)
+            mExplicitWeldJoint = null;
+        if (joint == mRevJoint)
+            mRevJoint = null;
+        if (joint == mDistJoint)
+            mDistJoint = null;
+    }
+
     /**
      * Break any joints connecting this actor
      */
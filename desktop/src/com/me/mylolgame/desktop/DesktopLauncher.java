@@ -13,6 +13,10 @@ public class DesktopLauncher {
         config.title = game.mGameTitle;
         config.width = game.mWidth;
         config.height = game.mHeight;
-        new LwjglApplication(new Lol(game), config);
+        Lol lol = new Lol(game);
+        // "--record <file>" saves the player's input during the first level played, for replay
+        if (arg.length > 1 && arg[0].equals("--record"))
+            lol.recordInput(arg[1]);
+        new LwjglApplication(lol, config);
     }
 }
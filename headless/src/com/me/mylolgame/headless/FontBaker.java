@@ -0,0 +1,39 @@
+package com.me.mylolgame.headless;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.me.mylolgame.MyConfig;
+
+import edu.lehigh.cse.lol.FontCache;
+
+/**
+ * FontBaker makes the game's fonts ahead of time, so that they can be shipped with the assets
+ * instead of being made by FreeType the first time the game runs.
+ * <p>
+ * Usage: FontBaker font:size [font:size ...], e.g., "FontBaker arial.ttf:20 arial.ttf:32".  Run
+ * it from the assets folder (the bakeFonts Gradle task does this), and it writes the fonts into
+ * that folder's "fontcache" subfolder, which is where the game looks first.
+ */
+public class FontBaker {
+    public static void main(final String[] arg) {
+        HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+        new HeadlessApplication(new ApplicationAdapter() {
+            @Override
+            public void create() {
+                // Making a font makes textures of its pages, which need an OpenGL
+                Gdx.gl20 = NullGL.make();
+                Gdx.gl = Gdx.gl20;
+                MyConfig game = new MyConfig();
+                for (String a : arg) {
+                    int split = a.lastIndexOf(':');
+                    String font = a.substring(0, split);
+                    int size = Integer.parseInt(a.substring(split + 1));
+                    System.out.println("Baked " + a + " into " + FontCache.bake(game, font, size));
+                }
+                Gdx.app.exit();
+            }
+        }, config);
+    }
+}
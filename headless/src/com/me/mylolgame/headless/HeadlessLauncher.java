@@ -0,0 +1,191 @@
+package com.me.mylolgame.headless;
+
+import com.badlogic.gdx.ApplicationListener;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.backends.headless.mock.graphics.MockGraphics;
+import com.me.mylolgame.MyConfig;
+
+import edu.lehigh.cse.lol.Level;
+import edu.lehigh.cse.lol.Lol;
+import edu.lehigh.cse.lol.QuickScene;
+import edu.lehigh.cse.lol.ScreenManager;
+
+/**
+ * HeadlessLauncher runs one level of the game without a window, GPU, or sound card, as fast as the
+ * CPU allows.  Physics, events, routes, and win/lose logic all run as usual, but drawing goes to an
+ * OpenGL stand-in that does nothing, and Media swaps textures and fonts for placeholders.
+ * <p>
+ * Usage: HeadlessLauncher [level] [frames] [replayFile]. The defaults are level 1 and 10000 frames.
+ * Every frame advances the game by exactly one physics step, so runs are repeatable regardless of
+ * host speed.  If a replay file (made with the desktop launcher's --record option) is given, its
+ * input is fed to the level, so a real play session can be profiled.
+ * <p>
+ * Nobody is there to tap away a PreScene, PauseScene, WinScene, or LoseScene, and the world doesn't
+ * step while one is showing, so the launcher dismisses them as soon as they appear.  (A replay
+ * carries the player's own taps on those scenes, so they are left alone during a replay.)
+ */
+public class HeadlessLauncher {
+    public static void main(String[] arg) {
+        int level = (arg.length > 0) ? Integer.parseInt(arg[0]) : 1;
+        int frames = (arg.length > 1) ? Integer.parseInt(arg[1]) : 10000;
+
+        HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+        // a render interval of 0 means "don't sleep between frames"
+        config.renderInterval = 0;
+        HeadlessConfig game = new HeadlessConfig(level);
+        Lol lol = new Lol(game);
+        if (arg.length > 2)
+            lol.replayInput(arg[2]);
+        new HeadlessApplication(new Runner(lol, game, frames, arg.length <= 2), config);
+    }
+
+    /**
+     * The game's configuration, changed so that the splash screen jumps straight to the chosen
+     * level, and so that debug output (FPS display, outlines, logging) is off
+     */
+    private static class HeadlessConfig extends MyConfig {
+        /// The scenes that pause the game.  The same four objects are used for every level, so we
+        /// can grab them once, when the first level starts.
+        QuickScene[] mQuickScenes;
+
+        /**
+         * Create the configuration
+         *
+         * @param level The level to play
+         */
+        HeadlessConfig(final int level) {
+            mShowDebugBoxes = false;
+            mSplash = new ScreenManager() {
+                @Override
+                public void display(int index, Level lvl) {
+                    lvl.doLevel(level);
+                    // NB: getPreScene() shows the PreScene, but the Runner will dismiss it
+                    mQuickScenes = new QuickScene[]{lvl.getPreScene(), lvl.getPauseScene(),
+                            lvl.getWinScene(), lvl.getLoseScene()};
+                }
+            };
+        }
+
+        /**
+         * Get the length of a physics step, in seconds
+         */
+        float getStepTime() {
+            return 1f / mStepsPerSecond;
+        }
+    }
+
+    /**
+     * The Runner wraps a Lol object, so that it can install the stand-ins before the game starts,
+     * keep the game from waiting on taps, count frames, and stop after the requested number of
+     * frames
+     */
+    private static class Runner implements ApplicationListener {
+        /// The game being run
+        private final Lol mGame;
+        /// The configuration of the game being run
+        private final HeadlessConfig mConfig;
+        /// The number of frames to run before exiting
+        private final int mFrames;
+        /// Should scenes that wait for a tap be dismissed right away?
+        private final boolean mDismissScenes;
+        /// The number of frames run so far
+        private int mFrameCount;
+        /// The time when the first frame started, in nanoseconds
+        private long mStartTime;
+
+        /**
+         * Create a Runner
+         *
+         * @param game    The game to run
+         * @param config  The configuration of the game
+         * @param frames  The number of frames to run
+         * @param dismiss True if scenes that wait for a tap should be dismissed right away
+         */
+        Runner(Lol game, HeadlessConfig config, int frames, boolean dismiss) {
+            mGame = game;
+            mConfig = config;
+            mFrames = frames;
+            mDismissScenes = dismiss;
+        }
+
+        @Override
+        public void create() {
+            // Every frame should be exactly one physics step long
+            final float step = mConfig.getStepTime();
+            Gdx.graphics = new MockGraphics() {
+                @Override
+                public float getDeltaTime() {
+                    return step;
+                }
+
+                @Override
+                public float getRawDeltaTime() {
+                    return step;
+                }
+
+                // Camera.unproject needs the screen size, or replayed touches go nowhere
+                @Override
+                public int getWidth() {
+                    return mConfig.mWidth;
+                }
+
+                @Override
+                public int getHeight() {
+                    return mConfig.mHeight;
+                }
+            };
+            // The headless backend has no OpenGL, but SpriteBatch and Texture need one
+            Gdx.gl20 = NullGL.make();
+            Gdx.gl = Gdx.gl20;
+            mGame.create();
+            mStartTime = System.nanoTime();
+        }
+
+        @Override
+        public void render() {
+            // exit() takes effect on the next frame, so don't run any extra frames
+            if (mFrameCount == mFrames)
+                return;
+            // Dismissing the WinScene or LoseScene starts the next level, or repeats this one
+            if (mDismissScenes && mConfig.mQuickScenes != null)
+                for (QuickScene scene : mConfig.mQuickScenes)
+                    if (scene.isVisible())
+                        scene.dismiss();
+            mGame.render();
+            if (++mFrameCount == mFrames)
+                Gdx.app.exit();
+        }
+
+        @Override
+        public void dispose() {
+            mGame.dispose();
+            double seconds = (System.nanoTime() - mStartTime) / 1e9;
+            // Report the steps that really ran: frames spent behind a scene don't simulate anything
+            int steps = mGame.getProfiler().getStepCount();
+            System.out.println("Ran " + mFrameCount + " frames and " + steps + " steps ("
+                    + steps * mConfig.getStepTime() + " seconds of game time) in " + seconds
+                    + " seconds: " + (int) (mFrameCount / seconds) + " frames per second, "
+                    + (int) (steps / seconds) + " steps per second");
+            StringBuilder report = new StringBuilder();
+            mGame.getProfiler().report(report);
+            System.out.println(report);
+        }
+
+        @Override
+        public void resize(int width, int height) {
+            mGame.resize(width, height);
+        }
+
+        @Override
+        public void pause() {
+            mGame.pause();
+        }
+
+        @Override
+        public void resume() {
+            mGame.resume();
+        }
+    }
+}